@@ -0,0 +1,72 @@
+package com.PinoyHeritage.Backend.config;
+
+import com.PinoyHeritage.Backend.repository.CartItemRepository;
+import com.PinoyHeritage.Backend.repository.ProductOrderRepository;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import com.PinoyHeritage.Backend.service.ImageStorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * One-time migration: moves Base64 images stored inline in product.image_url
+ * (and the cart / order line snapshots copied from it) into the image store.
+ * Rows are handled one at a time so only a single image is in memory at once;
+ * once every row is migrated the id queries return nothing and this is a no-op.
+ */
+@Component
+public class ImageMigrationRunner implements CommandLineRunner {
+
+    private final ImageStorageService imageStorage;
+    private final ProductRepository productRepository;
+    private final ProductOrderRepository productOrderRepository;
+    private final CartItemRepository cartItemRepository;
+    private final boolean enabled;
+
+    public ImageMigrationRunner(ImageStorageService imageStorage,
+                                ProductRepository productRepository,
+                                ProductOrderRepository productOrderRepository,
+                                CartItemRepository cartItemRepository,
+                                @Value("${app.images.migrate-on-startup:true}") boolean enabled) {
+        this.imageStorage = imageStorage;
+        this.productRepository = productRepository;
+        this.productOrderRepository = productOrderRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) return;
+        migrate("product", productRepository.findIdsWithInlineImage(),
+                productRepository::findImageUrlById, productRepository::updateImageUrl);
+        migrate("product_order", productOrderRepository.findIdsWithInlineImage(),
+                productOrderRepository::findProductImageById, productOrderRepository::updateProductImage);
+        migrate("cart_item", cartItemRepository.findIdsWithInlineImage(),
+                cartItemRepository::findProductImageById, cartItemRepository::updateProductImage);
+    }
+
+    private void migrate(String table, List<Long> ids,
+                         Function<Long, String> loader, BiFunction<Long, String, Integer> updater) {
+        if (ids.isEmpty()) return;
+        System.out.println("[ImageMigration] Moving " + ids.size() + " inline image(s) out of " + table);
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                String url = imageStorage.storeDataUri(loader.apply(id));
+                if (url != null) {
+                    updater.apply(id, url);
+                    migrated++;
+                }
+            } catch (Exception e) {
+                // Leave the row untouched; it is retried on the next startup
+                System.out.println("[ImageMigration] Failed for " + table + " id " + id + ": " + e.getMessage());
+            }
+        }
+        System.out.println("[ImageMigration] " + table + ": migrated " + migrated + "/" + ids.size());
+    }
+}
@@ -0,0 +1,70 @@
+package com.PinoyHeritage.Backend.config;
+
+import com.PinoyHeritage.Backend.service.ImageRenditionService;
+import com.PinoyHeritage.Backend.service.ImageStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Zero-copy fast path for content-addressed images.
+ * When the connector supports sendfile, Tomcat streams the file straight from the page cache
+ * to the socket; otherwise (or for Range / HEAD requests) the /uploads/** resource handler in
+ * WebConfig serves the file with the same cache headers.
+ * Renditions of images stored before renditions existed are generated here on first request.
+ */
+@Component
+public class ImageSendfileInterceptor implements HandlerInterceptor {
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageRenditionService renditions;
+
+    public ImageSendfileInterceptor(ImageRenditionService renditions) {
+        this.renditions = renditions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) return true;
+
+        String uri = request.getRequestURI();
+        int idx = uri.lastIndexOf('/');
+        String fileName = idx >= 0 ? uri.substring(idx + 1) : uri;
+        Path file = renditions.ensure(fileName);
+        if (file == null || !Files.isRegularFile(file)) return true;
+        if (!"GET".equals(request.getMethod()) || request.getHeader(HttpHeaders.RANGE) != null) return true;
+
+        // The file name carries the content hash, so the ETag never changes for a given URL
+        String etag = "\"" + ImageStorageService.hashOf(fileName) + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) return true;
+
+        long length = Files.size(file);
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .map(Object::toString).orElse("application/octet-stream"));
+        response.setContentLengthLong(length);
+        request.setAttribute(SENDFILE_FILENAME, file.toString());
+        request.setAttribute(SENDFILE_START, 0L);
+        request.setAttribute(SENDFILE_END, length);
+        return false;
+    }
+}
@@ -1,12 +1,25 @@
 package com.PinoyHeritage.Backend.config;
 
+import com.PinoyHeritage.Backend.service.ImageStorageService;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ImageStorageService imageStorage;
+    private final ImageSendfileInterceptor imageSendfileInterceptor;
+
+    public WebConfig(ImageStorageService imageStorage, ImageSendfileInterceptor imageSendfileInterceptor) {
+        this.imageStorage = imageStorage;
+        this.imageSendfileInterceptor = imageSendfileInterceptor;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -19,8 +32,25 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry registry) {
+        // Content-addressed product images: a URL always maps to the same bytes, so they are
+        // cached forever and the content hash in the file name doubles as a strong ETag
+        registry.addResourceHandler(ImageStorageService.URL_PREFIX + "**")
+                .addResourceLocations(imageStorage.getImagesDir().toUri().toString())
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .setUseLastModified(false)
+                .setEtagGenerator(resource -> {
+                    String hash = ImageStorageService.hashOf(resource.getFilename());
+                    return hash != null ? "\"" + hash + "\"" : null;
+                });
+
         // Serve files from the 'uploads' folder at the server root via /uploads/**
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:uploads/");
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(imageSendfileInterceptor)
+                .addPathPatterns(ImageStorageService.URL_PREFIX + "**");
+    }
 }
@@ -0,0 +1,69 @@
+package com.PinoyHeritage.Backend.controller;
+
+import com.PinoyHeritage.Backend.entity.SalesRollup;
+import com.PinoyHeritage.Backend.service.SalesRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+public class AnalyticsController {
+
+    private static final int MAX_TOP = 100;
+
+    private final SalesRollupService salesRollupService;
+
+    public AnalyticsController(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    // Shop-wide orders / units / revenue per hour or day; from and to are inclusive days
+    @GetMapping("/timeseries")
+    public ResponseEntity<?> timeseries(@RequestParam(defaultValue = "DAY") String grain,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        SalesRollup.Grain g;
+        try {
+            g = SalesRollup.Grain.valueOf(grain.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "grain must be HOUR or DAY"));
+        }
+        if (to.isBefore(from)) return ResponseEntity.badRequest().body(Map.of("error", "to is before from"));
+        return ResponseEntity.ok(salesRollupService.timeseries(g, from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+    }
+
+    // Best sellers by revenue: by=product or by=category
+    @GetMapping("/top")
+    public ResponseEntity<?> top(@RequestParam(defaultValue = "product") String by,
+                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                 @RequestParam(defaultValue = "10") int limit) {
+        SalesRollup.Dimension dimension;
+        if ("product".equalsIgnoreCase(by)) dimension = SalesRollup.Dimension.PRODUCT;
+        else if ("category".equalsIgnoreCase(by)) dimension = SalesRollup.Dimension.CATEGORY;
+        else return ResponseEntity.badRequest().body(Map.of("error", "by must be product or category"));
+        if (to.isBefore(from)) return ResponseEntity.badRequest().body(Map.of("error", "to is before from"));
+        return ResponseEntity.ok(salesRollupService.top(dimension, from, to, Math.max(1, Math.min(MAX_TOP, limit))));
+    }
+
+    // Rebuild the rollups for a range of days from the order tables (history, or after a correction)
+    @PostMapping("/backfill")
+    public ResponseEntity<?> startBackfill(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) return ResponseEntity.badRequest().body(Map.of("error", "to is before from"));
+        if (!salesRollupService.startBackfill(from, to)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A backfill is already running"));
+        }
+        return ResponseEntity.accepted().body(salesRollupService.backfillStatus());
+    }
+
+    @GetMapping("/backfill")
+    public Map<String, Object> backfillStatus() {
+        return salesRollupService.backfillStatus();
+    }
+}
@@ -0,0 +1,33 @@
+package com.PinoyHeritage.Backend.controller;
+
+import com.PinoyHeritage.Backend.service.OrderArchiveService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/archive")
+public class ArchiveController {
+
+    private final OrderArchiveService orderArchiveService;
+
+    public ArchiveController(OrderArchiveService orderArchiveService) {
+        this.orderArchiveService = orderArchiveService;
+    }
+
+    // Run the order archival now instead of waiting for the schedule
+    @PostMapping("/run")
+    public ResponseEntity<?> run() {
+        if (!orderArchiveService.startRun()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Archival is already running"));
+        }
+        return ResponseEntity.accepted().body(orderArchiveService.stats());
+    }
+
+    @GetMapping
+    public Map<String, Object> stats() {
+        return orderArchiveService.stats();
+    }
+}
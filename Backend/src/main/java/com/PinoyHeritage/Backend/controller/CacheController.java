@@ -0,0 +1,35 @@
+package com.PinoyHeritage.Backend.controller;
+
+import com.PinoyHeritage.Backend.service.CatalogCache;
+import com.PinoyHeritage.Backend.service.CatalogResponseCache;
+import com.PinoyHeritage.Backend.service.DeliveryTrackingService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheController {
+
+    private final CatalogCache catalogCache;
+    private final CatalogResponseCache responseCache;
+    private final DeliveryTrackingService deliveryTrackingService;
+
+    public CacheController(CatalogCache catalogCache, CatalogResponseCache responseCache,
+                           DeliveryTrackingService deliveryTrackingService) {
+        this.catalogCache = catalogCache;
+        this.responseCache = responseCache;
+        this.deliveryTrackingService = deliveryTrackingService;
+    }
+
+    // Hit / miss / eviction counters per cache, for sizing max-size and TTL
+    @GetMapping("/stats")
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> stats = new ArrayList<>(catalogCache.stats());
+        stats.add(responseCache.stats());
+        stats.add(deliveryTrackingService.cacheStats());
+        return stats;
+    }
+}
@@ -9,6 +9,7 @@ import com.PinoyHeritage.Backend.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -27,7 +28,11 @@ public class CartController {
     private CustomerRepository customerRepository;
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<?> getCart(@PathVariable Long customerId) {
+    public ResponseEntity<?> getCart(@PathVariable Long customerId, WebRequest webRequest) {
+        // 304 straight from the cart version, before loading the customer or the cart
+        if (webRequest.checkNotModified(cartService.getCartEtag(customerId))) {
+            return null;
+        }
         try {
             Optional<Customer> customer = customerRepository.findById(customerId);
             if (!customer.isPresent()) {
@@ -93,7 +98,10 @@ public class CartController {
     }
 
     @GetMapping("/customer/{customerId}/items")
-    public ResponseEntity<?> getCartItems(@PathVariable Long customerId) {
+    public ResponseEntity<?> getCartItems(@PathVariable Long customerId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(cartService.getCartEtag(customerId))) {
+            return null;
+        }
         try {
             List<CartItem> cartItems = cartService.getCartItems(customerId);
             return ResponseEntity.ok(cartItems);
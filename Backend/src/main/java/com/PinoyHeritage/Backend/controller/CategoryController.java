@@ -1,25 +1,31 @@
 package com.PinoyHeritage.Backend.controller;
 
 import com.PinoyHeritage.Backend.entity.Category;
+import com.PinoyHeritage.Backend.service.CatalogResponseCache;
 import com.PinoyHeritage.Backend.service.CategoryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/admin/categories")
 public class CategoryController {
 
     private final CategoryService service;
+    private final CatalogResponseCache responseCache;
 
-    public CategoryController(CategoryService service) {
+    public CategoryController(CategoryService service, CatalogResponseCache responseCache) {
         this.service = service;
+        this.responseCache = responseCache;
     }
 
+    // Served from pre-rendered JSON; re-rendered only after a catalog write
     @GetMapping
-    public List<Category> getCategories() {
-        return service.getAllCategories();
+    public void getCategories(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseCache.write(request, response, service::getAllCategories);
     }
 
     @PostMapping
@@ -0,0 +1,114 @@
+package com.PinoyHeritage.Backend.controller;
+
+import com.PinoyHeritage.Backend.dto.DeliveryIngestReport;
+import com.PinoyHeritage.Backend.dto.DeliveryTracking;
+import com.PinoyHeritage.Backend.service.DeliveryTrackingService;
+import com.PinoyHeritage.Backend.service.StubCourierFeed;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/deliveries")
+public class DeliveryController {
+
+    private final DeliveryTrackingService deliveryTrackingService;
+    private final StubCourierFeed stubCourierFeed;
+    private final boolean stubFeedEnabled;
+
+    public DeliveryController(DeliveryTrackingService deliveryTrackingService, StubCourierFeed stubCourierFeed,
+                              @Value("${app.delivery.stub-feed-enabled:false}") boolean stubFeedEnabled) {
+        this.deliveryTrackingService = deliveryTrackingService;
+        this.stubCourierFeed = stubCourierFeed;
+        this.stubFeedEnabled = stubFeedEnabled;
+    }
+
+    // Delivery status, address and latest courier scans for an order
+    @GetMapping("/order/{orderId}")
+    public ResponseEntity<DeliveryTracking> getTracking(@PathVariable Long orderId) {
+        DeliveryTracking tracking = deliveryTrackingService.getTracking(orderId);
+        return tracking != null ? ResponseEntity.ok(tracking) : ResponseEntity.notFound().build();
+    }
+
+    // Courier status updates as a JSON Lines file
+    @PostMapping(value = "/updates", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> ingestFile(@RequestPart("file") MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return runIngest(in);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Same updates as the raw request body, read straight off the socket
+    @PostMapping(value = "/updates", consumes = {"application/x-ndjson", "application/jsonl", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> ingestBody(HttpServletRequest request) {
+        try {
+            return runIngest(request.getInputStream());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Load testing (app.delivery.stub-feed-enabled): the feed a courier would send for the latest orders,
+    // e.g. curl .../stub-feed?orders=10000 | curl -H 'Content-Type: application/x-ndjson' --data-binary @- .../updates
+    @GetMapping("/stub-feed")
+    public ResponseEntity<StreamingResponseBody> getStubFeed(@RequestParam(defaultValue = "1000") int orders,
+                                                             @RequestParam(defaultValue = "4") int events,
+                                                             @RequestParam(defaultValue = "1") long seed) {
+        if (!stubFeedEnabled) return ResponseEntity.notFound().build();
+        StreamingResponseBody body = out -> stubCourierFeed.write(orders, events, seed, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    // Generate the stub feed and ingest it in-process; the report gives the ingest throughput
+    @PostMapping("/stub-feed/run")
+    public ResponseEntity<?> runStubFeed(@RequestParam(defaultValue = "1000") int orders,
+                                         @RequestParam(defaultValue = "4") int events,
+                                         @RequestParam(defaultValue = "1") long seed) {
+        if (!stubFeedEnabled) return ResponseEntity.notFound().build();
+        Path file = null;
+        try {
+            file = Files.createTempFile("stub-courier-feed", ".jsonl");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                stubCourierFeed.write(orders, events, seed, out);
+            }
+            try (InputStream in = Files.newInputStream(file)) {
+                return runIngest(in);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // Temp directory is cleaned up eventually
+                }
+            }
+        }
+    }
+
+    private ResponseEntity<DeliveryIngestReport> runIngest(InputStream in) throws IOException {
+        DeliveryIngestReport report = deliveryTrackingService.ingest(in);
+        System.out.println("[DeliveryIngest] " + report.getLinesRead() + " lines, " + report.getApplied() + " applied, "
+                + report.getOrdersAdvanced() + " orders advanced, " + report.getFailed() + " failed in "
+                + report.getElapsedMs() + " ms");
+        return ResponseEntity.ok(report);
+    }
+}
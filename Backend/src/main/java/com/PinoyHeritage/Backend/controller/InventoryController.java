@@ -0,0 +1,42 @@
+package com.PinoyHeritage.Backend.controller;
+
+import com.PinoyHeritage.Backend.service.FlashSaleInventory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/inventory")
+public class InventoryController {
+
+    private final FlashSaleInventory flashSale;
+
+    public InventoryController(FlashSaleInventory flashSale) {
+        this.flashSale = flashSale;
+    }
+
+    // Flash-sale products: available units, reservations/sec and write-behind lag
+    @GetMapping("/hot")
+    public List<Map<String, Object>> getHotProducts() {
+        return flashSale.stats();
+    }
+
+    @PostMapping("/hot/{productId}")
+    public ResponseEntity<?> enableHot(@PathVariable Long productId) {
+        try {
+            flashSale.enable(productId);
+            return ResponseEntity.ok(flashSale.stats());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/hot/{productId}")
+    public ResponseEntity<Void> disableHot(@PathVariable Long productId) {
+        flashSale.disable(productId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,6 +4,7 @@ import com.PinoyHeritage.Backend.entity.Notification;
 import com.PinoyHeritage.Backend.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -17,13 +18,20 @@ public class NotificationController {
     private NotificationService notificationService;
 
     @GetMapping("/customer/{customerId}")
-    public List<Notification> getNotifications(@PathVariable Long customerId) {
+    public List<Notification> getNotifications(@PathVariable Long customerId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(notificationService.getNotificationsEtag(customerId))) {
+            return null;
+        }
         return notificationService.getNotificationsForCustomer(customerId);
     }
 
     @GetMapping("/customer/{customerId}/unread-count")
-    public Map<String, Long> getUnreadCount(@PathVariable Long customerId) {
+    public Map<String, Long> getUnreadCount(@PathVariable Long customerId, WebRequest webRequest) {
+        // The count is the whole body, so it is also its own version
         long count = notificationService.getUnreadCount(customerId);
+        if (webRequest.checkNotModified("\"unread-" + count + "\"")) {
+            return null;
+        }
         Map<String, Long> map = new HashMap<>();
         map.put("count", count);
         return map;
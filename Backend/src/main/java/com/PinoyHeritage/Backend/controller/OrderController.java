@@ -1,210 +1,276 @@
 package com.PinoyHeritage.Backend.controller;
 
 import com.PinoyHeritage.Backend.entity.*;
-import com.PinoyHeritage.Backend.repository.*;
-import com.PinoyHeritage.Backend.service.CartService;
-import com.PinoyHeritage.Backend.service.NotificationService;
+import com.PinoyHeritage.Backend.dto.AdminOrderQuery;
+import com.PinoyHeritage.Backend.dto.AdminOrderSummary;
+import com.PinoyHeritage.Backend.dto.CheckoutTicket;
+import com.PinoyHeritage.Backend.dto.CursorPage;
+import com.PinoyHeritage.Backend.dto.OrderHistoryItem;
+import com.PinoyHeritage.Backend.service.CheckoutAdmission;
+import com.PinoyHeritage.Backend.service.CheckoutAlreadyQueuedException;
+import com.PinoyHeritage.Backend.service.IdempotencyService;
+import com.PinoyHeritage.Backend.service.InvalidStatusTransitionException;
+import com.PinoyHeritage.Backend.service.OrderExportService;
+import com.PinoyHeritage.Backend.service.OrderHistoryService;
+import com.PinoyHeritage.Backend.service.OrderService;
+import com.PinoyHeritage.Backend.service.OutOfStockException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderService orderService;
 
     @Autowired
-    private CartService cartService;
+    private CheckoutAdmission checkoutAdmission;
 
     @Autowired
-    private CustomerRepository customerRepository;
+    private IdempotencyService idempotencyService;
 
     @Autowired
-    private ProductRepository productRepository;
+    private OrderHistoryService orderHistoryService;
 
     @Autowired
-    private NotificationService notificationService;
-
-    @Autowired
-    private PaymentRepository paymentRepository;
+    private OrderExportService orderExportService;
 
     // --------------------------
     // CUSTOMER ORDER HISTORY API
     // --------------------------
+    // Whole history in two queries (orders, then all their lines); prefer /history for paging
     @GetMapping("/customer/{customerId}")
     public List<OrderHistoryItem> getOrdersForCustomer(@PathVariable Long customerId) {
-        List<Order> orders = orderRepository.findByCustomerId(customerId);
-        List<OrderHistoryItem> result = new ArrayList<>();
-
-        for (Order order : orders) {
-            OrderHistoryItem item = new OrderHistoryItem();
-            item.setOrderId(order.getId());
-            item.setTotalAmount(order.getTotalAmount());
-            item.setStatus(order.getStatus());
-
-            List<ProductLine> productLines = new ArrayList<>();
-            if (order.getProducts() != null) {
-                for (ProductOrder po : order.getProducts()) {
-                    Product product = po.getProduct();
-
-                    ProductLine line = new ProductLine();
-                    line.setProductId(product != null ? product.getId() : null);
-                    line.setProductName(product != null ? product.getName() : "Unknown");
-                    line.setQuantity(po.getQuantity());
-
-                    Double unitPrice = po.getUnitPrice() != null
-                            ? po.getUnitPrice()
-                            : (product != null ? product.getPrice() : 0.0);
-                    line.setUnitPrice(unitPrice);
-
-                    String img = (po.getProductImage() != null && !po.getProductImage().isEmpty())
-                            ? po.getProductImage()
-                            : (product != null ? product.getImageUrl() : null);
-                    line.setProductImage(img);
+        return orderHistoryService.getHistory(customerId);
+    }
 
-                    productLines.add(line);
-                }
-            }
-            item.setProducts(productLines);
-            result.add(item);
+    // Keyset-paginated history, newest first: /customer/{id}/history?size=20&cursor=...
+    @GetMapping("/customer/{customerId}/history")
+    public ResponseEntity<?> getOrderHistoryPage(@PathVariable Long customerId,
+                                                 @RequestParam(required = false) Integer size,
+                                                 @RequestParam(required = false) String cursor) {
+        try {
+            CursorPage<OrderHistoryItem> page = orderHistoryService.getHistoryPage(customerId, size, cursor);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
-
-        return result;
     }
 
     // -------------------------------------------
     // CREATE ORDER FROM CART
     // -------------------------------------------
+    // Runs right away when checkout has capacity; otherwise answers 202 with a ticket to poll,
+    // 409 with the existing ticket when this customer already has one queued or running,
+    // or 503 when even the queue is full. With an Idempotency-Key header a retry replays the first
+    // response instead of ordering again
     @PostMapping("/customer/{customerId}/from-cart")
-    public Order createOrderFromCart(
+    public ResponseEntity<?> createOrderFromCart(
             @PathVariable Long customerId,
-            @RequestBody(required = false) PaymentRequest paymentRequest) {
+            @RequestBody(required = false) PaymentRequest paymentRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        List<CartItem> cartItems = cartService.getCartItems(customerId);
-        if (cartItems == null || cartItems.isEmpty()) {
-            throw new RuntimeException("Cart is empty; cannot create order.");
+        String method = paymentRequest != null ? paymentRequest.getMethod() : null;
+        if (idempotencyKey == null) {
+            return admitCheckout(customerId, method, null, null);
         }
+        String requestHash = IdempotencyService.hash(method);
+        return idempotencyService.execute(customerId, idempotencyKey, requestHash,
+                () -> admitCheckout(customerId, method, idempotencyKey, requestHash));
+    }
 
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found."));
-
-        Order order = new Order();
-        order.setCustomer(customer);
-        order.setStatus("Pending");
-
-        List<ProductOrder> poList = new ArrayList<>();
-        double total = 0.0;
-
-        for (CartItem ci : cartItems) {
-            ProductOrder po = new ProductOrder();
-            po.setOrder(order);
-
-            Integer qty = ci.getQuantity() != null ? ci.getQuantity() : 1;
-            po.setQuantity(qty);
-
-            Product product = null;
-            if (ci.getProductName() != null) {
-                product = productRepository.findByName(ci.getProductName()).orElse(null);
-            }
-            po.setProduct(product);
-
-            Double unitPriceSnapshot = ci.getUnitPrice() != null ? ci.getUnitPrice()
-                    : (product != null ? product.getPrice() : 0);
-            po.setUnitPrice(unitPriceSnapshot);
-
-            String imgSnapshot = ci.getProductImage() != null ? ci.getProductImage()
-                    : (product != null ? product.getImageUrl() : null);
-            po.setProductImage(imgSnapshot);
-
-            if (product != null && product.getStock() != null) {
-                int newStock = Math.max(0, product.getStock() - qty);
-                product.setStock(newStock);
-                productRepository.save(product);
+    private ResponseEntity<?> admitCheckout(Long customerId, String method, String idempotencyKey, String requestHash) {
+        if (checkoutAdmission.tryEnterNow()) {
+            try {
+                return ResponseEntity.ok(orderService.placeOrderFromCart(customerId, method, idempotencyKey, requestHash));
+            } finally {
+                checkoutAdmission.exit();
             }
-
-            poList.add(po);
-            double lineAmount = (ci.getAmount() != null && ci.getAmount() > 0)
-                    ? ci.getAmount()
-                    : unitPriceSnapshot * qty;
-            total += lineAmount;
         }
+        try {
+            CheckoutTicket ticket = checkoutAdmission.enqueue(customerId,
+                    () -> orderService.placeOrderFromCart(customerId, method, idempotencyKey, requestHash));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(java.net.URI.create("/api/orders/checkout/tickets/" + ticket.getTicketId()))
+                    .body(ticket);
+        } catch (CheckoutAlreadyQueuedException e) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", e.getMessage());
+            body.put("ticket", e.getTicket());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .location(java.net.URI.create("/api/orders/checkout/tickets/" + e.getTicket().getTicketId()))
+                    .body(body);
+        } catch (RejectedExecutionException e) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("error", "Checkout is busy, please try again shortly");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", String.valueOf(checkoutAdmission.retryAfterSeconds()))
+                    .body(body);
+        }
+    }
 
-        order.setProducts(poList);
-        order.setTotalAmount(total);
-
-        Order saved = orderRepository.save(order);
+    // Poll a queued checkout: position while waiting, orderId once DONE, error if FAILED
+    @GetMapping("/checkout/tickets/{ticketId}")
+    public ResponseEntity<CheckoutTicket> getCheckoutTicket(@PathVariable String ticketId) {
+        CheckoutTicket ticket = checkoutAdmission.ticket(ticketId);
+        return ticket != null ? ResponseEntity.ok(ticket) : ResponseEntity.notFound().build();
+    }
 
-        Payment payment = new Payment();
-        payment.setOrder(saved);
-        payment.setMethod(paymentRequest != null ? paymentRequest.getMethod() : "Unknown");
-        payment.setStatus("Completed");
-        paymentRepository.save(payment);
+    @GetMapping("/checkout/admission")
+    public Map<String, Object> getCheckoutAdmissionStats() {
+        return checkoutAdmission.stats();
+    }
 
-        cartService.clearCart(customerId);
+    @ExceptionHandler(OutOfStockException.class)
+    public ResponseEntity<Map<String, Object>> handleOutOfStock(OutOfStockException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", e.getMessage());
+        body.put("items", e.getShortages());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
 
-        notificationService.createNotification(
-                customerId,
-                saved.getId(),
-                "Your order #" + saved.getId() + " has been placed."
-        );
+    // Concurrent checkout of the same cart lines: the other one won
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrentCheckout(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
 
-        return saved;
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidTransition(InvalidStatusTransitionException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", e.getMessage());
+        body.put("currentStatus", e.getCurrentStatus());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
 
     // ---------------------------
     // ADMIN ORDER ENDPOINT
     // ---------------------------
+    // Whole list in one aggregate query; prefer /admin/page for anything but small shops
     @GetMapping("/admin")
     public List<AdminOrderItem> getAllOrdersForAdmin() {
-        List<Order> orders = orderRepository.findAll();
-        List<AdminOrderItem> result = new ArrayList<>();
+        List<AdminOrderSummary> orders = orderService.getAllAdminOrders();
+        List<AdminOrderItem> result = new ArrayList<>(orders.size());
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MM/dd/yy HH:mm");
 
-        for (Order order : orders) {
+        for (AdminOrderSummary order : orders) {
             AdminOrderItem item = new AdminOrderItem();
             item.setId(order.getId());
             item.setStatus(order.getStatus());
             item.setTotalAmount(order.getTotalAmount());
             item.setCreatedAt(order.getCreatedAt() != null ? order.getCreatedAt().format(fmt) : null);
+            item.setCustomerName(order.getCustomerId() != null ? order.getCustomerName() : null);
+            item.setItemsCount(order.getItemsCount().intValue());
+            result.add(item);
+        }
 
-            if (order.getCustomer() != null) {
-                String name = (order.getCustomer().getFirstName() == null ? "" : order.getCustomer().getFirstName())
-                        + " " + (order.getCustomer().getLastName() == null ? "" : order.getCustomer().getLastName());
-                item.setCustomerName(name.trim());
-            }
+        return result;
+    }
 
-            int count = 0;
-            if (order.getProducts() != null) {
-                for (ProductOrder po : order.getProducts()) {
-                    if (po.getQuantity() != null) count += po.getQuantity();
-                }
-            }
-            item.setItemsCount(count);
+    // Keyset-paginated admin list: /admin/page?status=Pending&from=2026-01-01&to=2026-01-31&customerId=7&sort=newest&size=50&cursor=...
+    @GetMapping("/admin/page")
+    public ResponseEntity<?> getAdminOrderPage(@RequestParam(required = false) String status,
+                                               @RequestParam(required = false) String from,
+                                               @RequestParam(required = false) String to,
+                                               @RequestParam(required = false) Long customerId,
+                                               @RequestParam(required = false) String sort,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String cursor) {
+        try {
+            AdminOrderQuery query = new AdminOrderQuery();
+            query.setStatus(status);
+            query.setFrom(from);
+            query.setTo(to);
+            query.setCustomerId(customerId);
+            query.setSort(AdminOrderQuery.Sort.parse(sort));
+            query.setSize(size);
+            query.applyCursor(cursor);
+            CursorPage<AdminOrderSummary> page = orderService.getAdminOrderPage(query);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            result.add(item);
+    // Streaming export for accounting: /admin/export?format=csv|jsonl&gzip=true&status=&from=&to=&customerId=
+    // Rows are written as they are read, so memory stays flat however many orders match
+    @GetMapping("/admin/export")
+    public ResponseEntity<?> exportOrders(@RequestParam(required = false) String status,
+                                          @RequestParam(required = false) String from,
+                                          @RequestParam(required = false) String to,
+                                          @RequestParam(required = false) Long customerId,
+                                          @RequestParam(defaultValue = "csv") String format,
+                                          @RequestParam(defaultValue = "false") boolean gzip) {
+        AdminOrderQuery filters = new AdminOrderQuery();
+        OrderExportService.Format fmt;
+        try {
+            filters.setStatus(status);
+            filters.setFrom(from);
+            filters.setTo(to);
+            filters.setCustomerId(customerId);
+            fmt = OrderExportService.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
 
-        return result;
+        String fileName = "orders-" + java.time.LocalDate.now() + (fmt == OrderExportService.Format.CSV ? ".csv" : ".jsonl")
+                + (gzip ? ".gz" : "");
+        MediaType type = gzip ? MediaType.parseMediaType("application/gzip")
+                : fmt == OrderExportService.Format.CSV ? MediaType.parseMediaType("text/csv; charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024);
+                orderExportService.export(filters, fmt, zipped);
+                zipped.finish();
+            } else {
+                orderExportService.export(filters, fmt, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
     }
 
+    // Only changes allowed by OrderStatus are applied; anything else answers 409 with the current status
     @PutMapping("/{orderId}/status")
-    public void updateStatus(@PathVariable Long orderId, @RequestBody StatusUpdateRequest req) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found."));
-        order.setStatus(req.getStatus());
-        orderRepository.save(order);
-
-        if (order.getCustomer() != null) {
-            notificationService.createNotification(
-                    order.getCustomer().getId(),
-                    order.getId(),
-                    "Your order #" + order.getId() + " is now " + req.getStatus()
-            );
+    public ResponseEntity<?> updateStatus(@PathVariable Long orderId, @RequestBody StatusUpdateRequest req) {
+        try {
+            orderService.updateStatus(orderId, req.getStatus());
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Bulk status change, e.g. after a courier pickup: {"orderIds": [1, 2, 3], "status": "Shipped"}.
+    // Orders that cannot make the move are listed under "skipped"; the rest change together
+    @PutMapping("/admin/status")
+    public ResponseEntity<?> bulkUpdateStatus(@RequestBody BulkStatusRequest req) {
+        if (req.getOrderIds() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "orderIds is required"));
+        }
+        try {
+            return ResponseEntity.ok(orderService.bulkUpdateStatus(req.getOrderIds(), req.getStatus()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
@@ -217,48 +283,6 @@ public class OrderController {
         public void setMethod(String method) { this.method = method; }
     }
 
-    public static class OrderHistoryItem {
-        private Long orderId;
-        private Double totalAmount;
-        private String status;
-        private List<ProductLine> products;
-
-        public Long getOrderId() { return orderId; }
-        public void setOrderId(Long orderId) { this.orderId = orderId; }
-
-        public Double getTotalAmount() { return totalAmount; }
-        public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
-
-        public String getStatus() { return status; }
-        public void setStatus(String status) { this.status = status; }
-
-        public List<ProductLine> getProducts() { return products; }
-        public void setProducts(List<ProductLine> products) { this.products = products; }
-    }
-
-    public static class ProductLine {
-        private Long productId;
-        private String productName;
-        private Integer quantity;
-        private String productImage;
-        private Double unitPrice;
-
-        public Long getProductId() { return productId; }
-        public void setProductId(Long productId) { this.productId = productId; }
-
-        public String getProductName() { return productName; }
-        public void setProductName(String productName) { this.productName = productName; }
-
-        public Integer getQuantity() { return quantity; }
-        public void setQuantity(Integer quantity) { this.quantity = quantity; }
-
-        public String getProductImage() { return productImage; }
-        public void setProductImage(String productImage) { this.productImage = productImage; }
-
-        public Double getUnitPrice() { return unitPrice; }
-        public void setUnitPrice(Double unitPrice) { this.unitPrice = unitPrice; }
-    }
-
     public static class AdminOrderItem {
         private Long id;
         private String customerName;
@@ -291,4 +315,13 @@ public class OrderController {
         public String getStatus() { return status; }
         public void setStatus(String status) { this.status = status; }
     }
+
+    public static class BulkStatusRequest {
+        private List<Long> orderIds;
+        private String status;
+        public List<Long> getOrderIds() { return orderIds; }
+        public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+    }
 }
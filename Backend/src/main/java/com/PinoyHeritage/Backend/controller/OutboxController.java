@@ -0,0 +1,42 @@
+package com.PinoyHeritage.Backend.controller;
+
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.PinoyHeritage.Backend.repository.OutboxEventRepository;
+import com.PinoyHeritage.Backend.service.OutboxDispatcher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/outbox")
+public class OutboxController {
+
+    private final OutboxDispatcher dispatcher;
+    private final OutboxEventRepository outboxEventRepository;
+
+    public OutboxController(OutboxDispatcher dispatcher, OutboxEventRepository outboxEventRepository) {
+        this.dispatcher = dispatcher;
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    // Backlog per status, age of the oldest undelivered event and delivery counters
+    @GetMapping
+    public Map<String, Object> getStats() {
+        return dispatcher.stats();
+    }
+
+    // Events that ran out of attempts, newest first
+    @GetMapping("/failed")
+    public List<OutboxEvent> getFailed() {
+        return outboxEventRepository.findTop50ByStatusOrderByIdDesc(OutboxEvent.Status.FAILED);
+    }
+
+    @PostMapping("/{eventId}/retry")
+    public ResponseEntity<?> retry(@PathVariable Long eventId) {
+        if (dispatcher.retry(eventId)) return ResponseEntity.accepted().build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Event is not in FAILED state"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.PinoyHeritage.Backend.controller;
+
+import com.PinoyHeritage.Backend.service.PaymentProcessor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/payments")
+public class PaymentController {
+
+    private final PaymentProcessor paymentProcessor;
+
+    public PaymentController(PaymentProcessor paymentProcessor) {
+        this.paymentProcessor = paymentProcessor;
+    }
+
+    // Payment of an order; the client polls this after checkout until it is Completed or Failed
+    @GetMapping("/order/{orderId}")
+    public ResponseEntity<Map<String, Object>> getForOrder(@PathVariable Long orderId) {
+        Map<String, Object> payment = paymentProcessor.statusForOrder(orderId);
+        return payment != null ? ResponseEntity.ok(payment) : ResponseEntity.notFound().build();
+    }
+
+    // Counts per status, outcomes since start, queue depth and circuit breaker state
+    @GetMapping("/admin/stats")
+    public Map<String, Object> stats() {
+        return paymentProcessor.stats();
+    }
+}
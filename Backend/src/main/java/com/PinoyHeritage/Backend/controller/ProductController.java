@@ -1,9 +1,19 @@
 package com.PinoyHeritage.Backend.controller;
 
+import com.PinoyHeritage.Backend.dto.CursorPage;
+import com.PinoyHeritage.Backend.dto.ImageUploadStatus;
+import com.PinoyHeritage.Backend.dto.ImportReport;
+import com.PinoyHeritage.Backend.dto.ProductListQuery;
+import com.PinoyHeritage.Backend.dto.ProductSummary;
 import com.PinoyHeritage.Backend.entity.Product;
 import com.PinoyHeritage.Backend.entity.Category;
+import com.PinoyHeritage.Backend.service.CatalogResponseCache;
+import com.PinoyHeritage.Backend.service.ImageUploadService;
+import com.PinoyHeritage.Backend.service.ProductImportService;
 import com.PinoyHeritage.Backend.service.ProductService;
 import com.PinoyHeritage.Backend.service.CategoryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -11,8 +21,11 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/admin/products")
@@ -20,15 +33,53 @@ public class ProductController {
 
     private final ProductService productService;
     private final CategoryService categoryService;
+    private final CatalogResponseCache responseCache;
+    private final ProductImportService importService;
+    private final ImageUploadService uploadService;
 
-    public ProductController(ProductService productService, CategoryService categoryService) {
+    public ProductController(ProductService productService, CategoryService categoryService,
+                             CatalogResponseCache responseCache, ProductImportService importService,
+                             ImageUploadService uploadService) {
         this.productService = productService;
         this.categoryService = categoryService;
+        this.responseCache = responseCache;
+        this.importService = importService;
+        this.uploadService = uploadService;
     }
 
+    // Served from pre-rendered JSON; re-rendered only after a catalog write
     @GetMapping
-    public List<Product> getProducts() {
-        return productService.getAllProducts();
+    public void getProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseCache.write(request, response, productService::getAllProducts);
+    }
+
+    // Lightweight list shape for grids (no description, sizes or full entity)
+    @GetMapping("/summaries")
+    public List<ProductSummary> getProductSummaries() {
+        return productService.getProductSummaries();
+    }
+
+    // Keyset-paginated listing of summaries: /page?size=24&categoryId=1&minPrice=100&maxPrice=500&sort=price&cursor=...
+    @GetMapping("/page")
+    public ResponseEntity<?> getProductPage(@RequestParam(required = false) Integer size,
+                                            @RequestParam(required = false) Long categoryId,
+                                            @RequestParam(required = false) Double minPrice,
+                                            @RequestParam(required = false) Double maxPrice,
+                                            @RequestParam(required = false) String sort,
+                                            @RequestParam(required = false) String cursor) {
+        try {
+            ProductListQuery query = new ProductListQuery();
+            query.setSize(size);
+            query.setCategoryId(categoryId);
+            query.setMinPrice(minPrice);
+            query.setMaxPrice(maxPrice);
+            query.setSort(ProductListQuery.Sort.parse(sort));
+            query.applyCursor(cursor);
+            CursorPage<ProductSummary> page = productService.getProductPage(query);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -52,6 +103,43 @@ public class ProductController {
         }
     }
 
+    // Bulk upsert from a CSV / JSON Lines file (multipart "file")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importProducts(@RequestPart("file") MultipartFile file,
+                                            @RequestParam(required = false) String format) {
+        try (InputStream in = file.getInputStream()) {
+            return runImport(in, ProductImportService.formatOf(format, file.getOriginalFilename()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Same import with the file as the raw request body, read straight off the socket
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> importProductsBody(HttpServletRequest request,
+                                                @RequestParam(required = false) String format) {
+        try {
+            String type = request.getContentType();
+            String fallback = format != null ? format : type != null && type.startsWith("text/csv") ? "csv" : "jsonl";
+            return runImport(request.getInputStream(), ProductImportService.formatOf(fallback, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private ResponseEntity<ImportReport> runImport(InputStream in, ProductImportService.Format format) throws IOException {
+        ImportReport report = importService.importProducts(in, format);
+        System.out.println("[ProductImport] " + report.getRowsRead() + " rows, " + report.getInserted() + " inserted, "
+                + report.getUpdated() + " updated, " + report.getFailed() + " failed in " + report.getElapsedMs() + " ms");
+        return ResponseEntity.ok(report);
+    }
+
     // Upload images for an existing product
     @PostMapping(value = "/{id}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Product> uploadImagesForProduct(@PathVariable Long id,
@@ -59,12 +147,44 @@ public class ProductController {
         try {
             Product updated = productService.addImageForProduct(id, images);
             return new ResponseEntity<>(updated, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Asynchronous variant: stores the file, returns 202 with a job to poll; renditions and
+    // the product update happen off the request thread
+    @PostMapping(value = "/{id}/images/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadImageAsync(@PathVariable Long id, @RequestPart("image") MultipartFile image) {
+        if (image == null || image.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "image is required"));
+        }
+        try {
+            ImageUploadStatus status = uploadService.submit(id, image);
+            return ResponseEntity.accepted()
+                    .location(java.net.URI.create("/api/admin/products/uploads/" + status.getJobId()))
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Upload queue is full, try again later"));
         } catch (IOException e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/uploads/{jobId}")
+    public ResponseEntity<ImageUploadStatus> getUploadStatus(@PathVariable String jobId) {
+        ImageUploadStatus status = uploadService.status(jobId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
         try {
@@ -82,9 +202,7 @@ public class ProductController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public void getProductById(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseCache.write(request, response, () -> productService.getProductById(id).orElse(null));
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.PinoyHeritage.Backend.controller;
+
+import com.PinoyHeritage.Backend.dto.ProductSearchResponse;
+import com.PinoyHeritage.Backend.dto.Suggestion;
+import com.PinoyHeritage.Backend.service.AutocompleteService;
+import com.PinoyHeritage.Backend.service.ProductSearchService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final ProductSearchService searchService;
+    private final AutocompleteService autocompleteService;
+
+    public SearchController(ProductSearchService searchService, AutocompleteService autocompleteService) {
+        this.searchService = searchService;
+        this.autocompleteService = autocompleteService;
+    }
+
+    // Ranked full-text search over name, description and category: /products?q=barong tagalog&category=Clothing
+    @GetMapping("/products")
+    public ProductSearchResponse searchProducts(@RequestParam("q") String query,
+                                                @RequestParam(required = false) String category,
+                                                @RequestParam(required = false) Integer limit) {
+        return searchService.search(query, category, limit);
+    }
+
+    // Search box suggestions: /autocomplete?prefix=bar&limit=8
+    @GetMapping("/autocomplete")
+    public List<Suggestion> autocomplete(@RequestParam String prefix,
+                                         @RequestParam(required = false) Integer limit) {
+        return autocompleteService.suggest(prefix, limit);
+    }
+}
@@ -7,6 +7,7 @@ import com.PinoyHeritage.Backend.service.WishlistService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -64,8 +65,12 @@ public class WishlistController {
 
     // Get customer's wishlist
     @GetMapping
-    public ResponseEntity<?> getWishlist(@RequestHeader("userId") Long customerId) {
+    public ResponseEntity<?> getWishlist(@RequestHeader("userId") Long customerId, WebRequest webRequest) {
         try {
+            if (webRequest.checkNotModified(wishlistService.getWishlistEtag(customerId))) {
+                return null;
+            }
+
             List<Wishlist> wishlistItems = wishlistService.getWishlistByCustomerId(customerId);
             
             // Convert to DTO
@@ -0,0 +1,124 @@
+package com.PinoyHeritage.Backend.dto;
+
+import com.PinoyHeritage.Backend.entity.OrderStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Filters, sort order and keyset position for the admin order list.
+ * The cursor carries the sort key and id of the last row of the previous page.
+ */
+public class AdminOrderQuery {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+
+    public enum Sort {
+        NEWEST, OLDEST, TOTAL_DESC, TOTAL_ASC;
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) return NEWEST;
+            switch (value.trim().toLowerCase()) {
+                case "newest": return NEWEST;
+                case "oldest": return OLDEST;
+                case "total":
+                case "total_desc": return TOTAL_DESC;
+                case "total_asc": return TOTAL_ASC;
+                default: throw new IllegalArgumentException("Unknown sort: " + value);
+            }
+        }
+    }
+
+    private int size = DEFAULT_SIZE;
+    private String status;
+    private Long customerId;
+    // Inclusive from, exclusive to (a "to" date covers that whole day)
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Sort sort = Sort.NEWEST;
+
+    // Keyset position (exclusive): last row of the previous page
+    private Long afterId;
+    private LocalDateTime afterCreatedAt;
+    private Double afterTotal;
+
+    public int getSize() { return size; }
+    public void setSize(Integer size) {
+        this.size = size == null ? DEFAULT_SIZE : Math.max(1, Math.min(MAX_SIZE, size));
+    }
+
+    public String getStatus() { return status; }
+    // Stored as the canonical label ("shipped" → "Shipped") so the status checks and SQL match it exactly
+    public void setStatus(String status) {
+        if (status == null || status.isBlank()) {
+            this.status = null;
+            return;
+        }
+        OrderStatus parsed = OrderStatus.fromLabel(status);
+        if (parsed == null) throw new IllegalArgumentException("Unknown status: " + status);
+        this.status = parsed.label();
+    }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(String from) { this.from = from == null || from.isBlank() ? null : parseDate(from).atStartOfDay(); }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(String to) { this.to = to == null || to.isBlank() ? null : parseDate(to).plusDays(1).atStartOfDay(); }
+
+    public Sort getSort() { return sort; }
+    public void setSort(Sort sort) { this.sort = sort; }
+
+    public Long getAfterId() { return afterId; }
+    public LocalDateTime getAfterCreatedAt() { return afterCreatedAt; }
+    public Double getAfterTotal() { return afterTotal; }
+
+    public boolean hasCursor() { return afterId != null; }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Dates must be yyyy-MM-dd: " + value);
+        }
+    }
+
+    // Cursor format (before Base64url): {sort}|{id}|{sort value}
+    public static String encodeCursor(Sort sort, Long id, LocalDateTime createdAt, Double total) {
+        String value = switch (sort) {
+            case NEWEST, OLDEST -> String.valueOf(createdAt);
+            case TOTAL_DESC, TOTAL_ASC -> String.valueOf(total);
+        };
+        String raw = sort.name() + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void applyCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return;
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || !parts[0].equals(sort.name())) {
+            throw new IllegalArgumentException("Cursor does not match sort order " + sort.name().toLowerCase());
+        }
+        try {
+            afterId = Long.parseLong(parts[1]);
+            switch (sort) {
+                case NEWEST, OLDEST -> afterCreatedAt = LocalDateTime.parse(parts[2]);
+                case TOTAL_DESC, TOTAL_ASC -> afterTotal = Double.parseDouble(parts[2]);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the admin order list, built directly from the aggregate query.
+ */
+public class AdminOrderSummary {
+    private Long id;
+    private Long customerId;
+    private String customerName;
+    private Double totalAmount;
+    private String status;
+    private LocalDateTime createdAt;
+    private Long itemsCount;
+
+    public AdminOrderSummary() {}
+
+    // Used by the criteria query (constructor expression)
+    public AdminOrderSummary(Long id, Long customerId, String customerName, Double totalAmount,
+                             String status, LocalDateTime createdAt, Long itemsCount) {
+        this.id = id;
+        this.customerId = customerId;
+        this.customerName = customerName != null ? customerName.trim() : null;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.itemsCount = itemsCount != null ? itemsCount : 0L;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getItemsCount() { return itemsCount; }
+    public void setItemsCount(Long itemsCount) { this.itemsCount = itemsCount; }
+}
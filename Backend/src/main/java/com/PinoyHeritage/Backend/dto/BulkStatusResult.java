@@ -0,0 +1,45 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkStatusResult {
+
+    private String status;
+    private List<Long> updated = new ArrayList<>();
+    private List<Skipped> skipped = new ArrayList<>();
+
+    public static class Skipped {
+        private Long orderId;
+        // Null when the order does not exist
+        private String currentStatus;
+        private String reason;
+
+        public Skipped() {}
+
+        public Skipped(Long orderId, String currentStatus, String reason) {
+            this.orderId = orderId;
+            this.currentStatus = currentStatus;
+            this.reason = reason;
+        }
+
+        public Long getOrderId() { return orderId; }
+        public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+        public String getCurrentStatus() { return currentStatus; }
+        public void setCurrentStatus(String currentStatus) { this.currentStatus = currentStatus; }
+
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+
+    // Getters and Setters
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public List<Long> getUpdated() { return updated; }
+    public void setUpdated(List<Long> updated) { this.updated = updated; }
+
+    public List<Skipped> getSkipped() { return skipped; }
+    public void setSkipped(List<Skipped> skipped) { this.skipped = skipped; }
+}
@@ -0,0 +1,56 @@
+package com.PinoyHeritage.Backend.dto;
+
+/**
+ * A queued checkout. Position counts the tickets still ahead of this one (0 once it is running).
+ */
+public class CheckoutTicket {
+
+    public enum Status { QUEUED, PROCESSING, DONE, FAILED }
+
+    private String ticketId;
+    private Long customerId;
+    private Status status;
+    private long position;
+    private Long orderId;
+    private String error;
+    private Object errorDetails;
+    private long createdAt;
+    private Long finishedAt;
+
+    public CheckoutTicket() {}
+
+    public CheckoutTicket(String ticketId, Long customerId) {
+        this.ticketId = ticketId;
+        this.customerId = customerId;
+        this.status = Status.QUEUED;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public String getTicketId() { return ticketId; }
+    public void setTicketId(String ticketId) { this.ticketId = ticketId; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Object getErrorDetails() { return errorDetails; }
+    public void setErrorDetails(Object errorDetails) { this.errorDetails = errorDetails; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public Long getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Long finishedAt) { this.finishedAt = finishedAt; }
+}
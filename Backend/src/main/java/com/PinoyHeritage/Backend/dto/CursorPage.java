@@ -0,0 +1,30 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * nextCursor is an opaque token to pass back as ?cursor=..., or null on the last page.
+ */
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private int size;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = items.size();
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
@@ -0,0 +1,42 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DeliveryIngestReport {
+
+    private long linesRead;
+    private long applied;
+    private long failed;
+    private long ordersAdvanced;
+    private long elapsedMs;
+    private double linesPerSecond;
+    private List<ImportReport.RowError> errors = new ArrayList<>();
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < ImportReport.MAX_ERRORS) errors.add(new ImportReport.RowError(line, message));
+    }
+
+    // Getters and Setters
+    public long getLinesRead() { return linesRead; }
+    public void setLinesRead(long linesRead) { this.linesRead = linesRead; }
+
+    public long getApplied() { return applied; }
+    public void setApplied(long applied) { this.applied = applied; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getOrdersAdvanced() { return ordersAdvanced; }
+    public void setOrdersAdvanced(long ordersAdvanced) { this.ordersAdvanced = ordersAdvanced; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public double getLinesPerSecond() { return linesPerSecond; }
+    public void setLinesPerSecond(double linesPerSecond) { this.linesPerSecond = linesPerSecond; }
+
+    public List<ImportReport.RowError> getErrors() { return errors; }
+    public void setErrors(List<ImportReport.RowError> errors) { this.errors = errors; }
+}
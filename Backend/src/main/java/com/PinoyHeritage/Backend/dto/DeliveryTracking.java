@@ -0,0 +1,66 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DeliveryTracking {
+
+    private Long orderId;
+    private String status;
+    private String address;
+    private String courier;
+    private String trackingNumber;
+    private String location;
+    private LocalDateTime lastEventAt;
+    // Newest first
+    private List<Event> events = new ArrayList<>();
+
+    public static class Event {
+        private String status;
+        private String location;
+        private LocalDateTime at;
+
+        public Event() {}
+
+        public Event(String status, String location, LocalDateTime at) {
+            this.status = status;
+            this.location = location;
+            this.at = at;
+        }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getLocation() { return location; }
+        public void setLocation(String location) { this.location = location; }
+
+        public LocalDateTime getAt() { return at; }
+        public void setAt(LocalDateTime at) { this.at = at; }
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getCourier() { return courier; }
+    public void setCourier(String courier) { this.courier = courier; }
+
+    public String getTrackingNumber() { return trackingNumber; }
+    public void setTrackingNumber(String trackingNumber) { this.trackingNumber = trackingNumber; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDateTime getLastEventAt() { return lastEventAt; }
+    public void setLastEventAt(LocalDateTime lastEventAt) { this.lastEventAt = lastEventAt; }
+
+    public List<Event> getEvents() { return events; }
+    public void setEvents(List<Event> events) { this.events = events; }
+}
@@ -0,0 +1,52 @@
+package com.PinoyHeritage.Backend.dto;
+
+/**
+ * State of an asynchronous product image upload, as returned by the status endpoint.
+ */
+public class ImageUploadStatus {
+
+    public enum State { PENDING, PROCESSING, DONE, FAILED }
+
+    private String jobId;
+    private Long productId;
+    private State state;
+    private String imageUrl;
+    private String thumbnailUrl;
+    private String error;
+    private long submittedAt;
+    private Long finishedAt;
+
+    public ImageUploadStatus() {}
+
+    public ImageUploadStatus(String jobId, Long productId) {
+        this.jobId = jobId;
+        this.productId = productId;
+        this.state = State.PENDING;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public long getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(long submittedAt) { this.submittedAt = submittedAt; }
+
+    public Long getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Long finishedAt) { this.finishedAt = finishedAt; }
+}
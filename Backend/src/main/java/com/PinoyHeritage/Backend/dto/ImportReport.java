@@ -0,0 +1,67 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+
+    // Errors beyond this are only counted, so a bad file cannot blow up the response
+    public static final int MAX_ERRORS = 1000;
+
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private long categoriesCreated;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<RowError> errors = new ArrayList<>();
+
+    public static class RowError {
+        private long line;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public void setLine(long line) { this.line = line; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) errors.add(new RowError(line, message));
+    }
+
+    // Getters and Setters
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getInserted() { return inserted; }
+    public void setInserted(long inserted) { this.inserted = inserted; }
+
+    public long getUpdated() { return updated; }
+    public void setUpdated(long updated) { this.updated = updated; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getCategoriesCreated() { return categoriesCreated; }
+    public void setCategoriesCreated(long categoriesCreated) { this.categoriesCreated = categoriesCreated; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+}
@@ -0,0 +1,64 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One order in a customer's history, with its lines.
+ */
+public class OrderHistoryItem {
+    private Long orderId;
+    private Double totalAmount;
+    private String status;
+    private LocalDateTime createdAt;
+    private List<Line> products = new ArrayList<>();
+
+    public OrderHistoryItem() {}
+
+    public OrderHistoryItem(Long orderId, Double totalAmount, String status, LocalDateTime createdAt) {
+        this.orderId = orderId;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public List<Line> getProducts() { return products; }
+    public void setProducts(List<Line> products) { this.products = products; }
+
+    public static class Line {
+        private Long productId;
+        private String productName;
+        private Integer quantity;
+        private String productImage;
+        private Double unitPrice;
+
+        public Long getProductId() { return productId; }
+        public void setProductId(Long productId) { this.productId = productId; }
+
+        public String getProductName() { return productName; }
+        public void setProductName(String productName) { this.productName = productName; }
+
+        public Integer getQuantity() { return quantity; }
+        public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+        public String getProductImage() { return productImage; }
+        public void setProductImage(String productImage) { this.productImage = productImage; }
+
+        public Double getUnitPrice() { return unitPrice; }
+        public void setUnitPrice(Double unitPrice) { this.unitPrice = unitPrice; }
+    }
+}
@@ -0,0 +1,100 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Filters, sort order and keyset position for the paginated product listing.
+ * The cursor carries the sort key and id of the last row of the previous page,
+ * so the next page is a single index range scan instead of an OFFSET skip.
+ */
+public class ProductListQuery {
+
+    public static final int DEFAULT_SIZE = 24;
+    public static final int MAX_SIZE = 100;
+
+    public enum Sort {
+        NAME, PRICE_ASC, PRICE_DESC, NEWEST;
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) return NAME;
+            switch (value.trim().toLowerCase()) {
+                case "name": return NAME;
+                case "price":
+                case "price_asc": return PRICE_ASC;
+                case "price_desc": return PRICE_DESC;
+                case "newest": return NEWEST;
+                default: throw new IllegalArgumentException("Unknown sort: " + value);
+            }
+        }
+    }
+
+    private int size = DEFAULT_SIZE;
+    private Long categoryId;
+    private Double minPrice;
+    private Double maxPrice;
+    private Sort sort = Sort.NAME;
+
+    // Keyset position (exclusive): last row of the previous page
+    private Long afterId;
+    private String afterName;
+    private Double afterPrice;
+
+    public int getSize() { return size; }
+    public void setSize(Integer size) {
+        this.size = size == null ? DEFAULT_SIZE : Math.max(1, Math.min(MAX_SIZE, size));
+    }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public Double getMinPrice() { return minPrice; }
+    public void setMinPrice(Double minPrice) { this.minPrice = minPrice; }
+
+    public Double getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(Double maxPrice) { this.maxPrice = maxPrice; }
+
+    public Sort getSort() { return sort; }
+    public void setSort(Sort sort) { this.sort = sort; }
+
+    public Long getAfterId() { return afterId; }
+    public String getAfterName() { return afterName; }
+    public Double getAfterPrice() { return afterPrice; }
+
+    public boolean hasCursor() { return afterId != null; }
+
+    // Cursor format (before Base64url): {sort}|{id}|{sort value}
+    public static String encodeCursor(Sort sort, Long id, String name, Double price) {
+        String value = switch (sort) {
+            case NAME -> name;
+            case PRICE_ASC, PRICE_DESC -> String.valueOf(price);
+            case NEWEST -> "";
+        };
+        String raw = sort.name() + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void applyCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return;
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || !parts[0].equals(sort.name())) {
+            throw new IllegalArgumentException("Cursor does not match sort order " + sort.name().toLowerCase());
+        }
+        try {
+            afterId = Long.parseLong(parts[1]);
+            switch (sort) {
+                case NAME -> afterName = parts[2];
+                case PRICE_ASC, PRICE_DESC -> afterPrice = Double.parseDouble(parts[2]);
+                case NEWEST -> { }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
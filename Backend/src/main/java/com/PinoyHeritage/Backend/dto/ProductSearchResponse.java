@@ -0,0 +1,40 @@
+package com.PinoyHeritage.Backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class ProductSearchResponse {
+    private String query;
+    private int total;
+    private List<ProductSummary> hits;
+    // Category name -> number of matching products
+    private Map<String, Integer> categoryFacets;
+    private double tookMs;
+
+    public ProductSearchResponse() {}
+
+    public ProductSearchResponse(String query, int total, List<ProductSummary> hits,
+                                 Map<String, Integer> categoryFacets, double tookMs) {
+        this.query = query;
+        this.total = total;
+        this.hits = hits;
+        this.categoryFacets = categoryFacets;
+        this.tookMs = tookMs;
+    }
+
+    // Getters and Setters
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public List<ProductSummary> getHits() { return hits; }
+    public void setHits(List<ProductSummary> hits) { this.hits = hits; }
+
+    public Map<String, Integer> getCategoryFacets() { return categoryFacets; }
+    public void setCategoryFacets(Map<String, Integer> categoryFacets) { this.categoryFacets = categoryFacets; }
+
+    public double getTookMs() { return tookMs; }
+    public void setTookMs(double tookMs) { this.tookMs = tookMs; }
+}
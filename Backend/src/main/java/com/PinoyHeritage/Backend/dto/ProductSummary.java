@@ -0,0 +1,55 @@
+package com.PinoyHeritage.Backend.dto;
+
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.service.ImageStorageService;
+
+/**
+ * Narrow row for product grids and lists.
+ * Selected directly in JPQL (constructor expression), so description, sizes and the
+ * full entity graph are never read or serialized for list views.
+ */
+public class ProductSummary {
+    private Long id;
+    private String name;
+    private Double price;
+    private Integer stock;
+    private String categoryName;
+    private String thumbnailUrl;
+
+    public ProductSummary() {}
+
+    // imageUrl is the stored original; grids show its card-sized rendition
+    public ProductSummary(Long id, String name, Double price, Integer stock, String categoryName, String imageUrl) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+        this.categoryName = categoryName;
+        this.thumbnailUrl = ImageStorageService.renditionUrl(imageUrl, ImageStorageService.Rendition.CARD);
+    }
+
+    // Same columns as the JPQL projection, for entities that are already loaded
+    public static ProductSummary from(Product p) {
+        return new ProductSummary(p.getId(), p.getName(), p.getPrice(), p.getStock(),
+                p.getCategory() != null ? p.getCategory().getName() : null, p.getImageUrl());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+
+    public Integer getStock() { return stock; }
+    public void setStock(Integer stock) { this.stock = stock; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+}
@@ -0,0 +1,33 @@
+package com.PinoyHeritage.Backend.dto;
+
+/**
+ * One order line that could not be reserved: what was asked for and what was left.
+ */
+public class StockShortage {
+    private Long productId;
+    private String productName;
+    private int requested;
+    private int available;
+
+    public StockShortage() {}
+
+    public StockShortage(Long productId, String productName, int requested, int available) {
+        this.productId = productId;
+        this.productName = productName;
+        this.requested = requested;
+        this.available = available;
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public int getAvailable() { return available; }
+    public void setAvailable(int available) { this.available = available; }
+}
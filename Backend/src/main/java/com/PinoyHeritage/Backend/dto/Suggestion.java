@@ -0,0 +1,25 @@
+package com.PinoyHeritage.Backend.dto;
+
+public class Suggestion {
+    private String type; // "product" or "category"
+    private Long id;
+    private String name;
+
+    public Suggestion() {}
+
+    public Suggestion(String type, Long id, String name) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
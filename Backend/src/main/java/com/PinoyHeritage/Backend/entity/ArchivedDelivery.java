@@ -0,0 +1,67 @@
+package com.PinoyHeritage.Backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/** The delivery of an ArchivedOrder (delivery_archive), same columns and id as the hot row. */
+@Entity
+@Table(name = "delivery_archive", indexes = {
+        @Index(name = "idx_delivery_archive_order", columnList = "order_id")
+})
+public class ArchivedDelivery {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String address;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "courier", length = 64)
+    private String courier;
+
+    @Column(name = "tracking_number", length = 64)
+    private String trackingNumber;
+
+    @Column(name = "location")
+    private String location;
+
+    @Column(name = "last_event_at")
+    private LocalDateTime lastEventAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getCourier() { return courier; }
+    public void setCourier(String courier) { this.courier = courier; }
+
+    public String getTrackingNumber() { return trackingNumber; }
+    public void setTrackingNumber(String trackingNumber) { this.trackingNumber = trackingNumber; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDateTime getLastEventAt() { return lastEventAt; }
+    public void setLastEventAt(LocalDateTime lastEventAt) { this.lastEventAt = lastEventAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,49 @@
+package com.PinoyHeritage.Backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/** A courier scan of an ArchivedOrder (delivery_event_archive), same columns and id as the hot row. */
+@Entity
+@Table(name = "delivery_event_archive", indexes = {
+        @Index(name = "idx_delivery_event_archive_order", columnList = "order_id, event_at")
+})
+public class ArchivedDeliveryEvent {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "location")
+    private String location;
+
+    @Column(name = "event_at", nullable = false)
+    private LocalDateTime eventAt;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDateTime getEventAt() { return eventAt; }
+    public void setEventAt(LocalDateTime eventAt) { this.eventAt = eventAt; }
+
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+}
@@ -0,0 +1,57 @@
+package com.PinoyHeritage.Backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An order moved out of order_table by OrderArchiveService. Same columns and ids as the hot
+ * row (plus when it was archived) and the same indexes, so the history and admin queries run
+ * unchanged against it. No foreign keys: archived rows never block changes to live data.
+ */
+@Entity
+@Table(name = "order_archive", indexes = {
+        @Index(name = "idx_order_archive_customer_created", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_order_archive_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_order_archive_total_id", columnList = "total_amount, id"),
+        @Index(name = "idx_order_archive_status_created", columnList = "status, created_at, id")
+})
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "total_amount", nullable = false)
+    private Double totalAmount;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Customer customer;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Customer getCustomer() { return customer; }
+    public void setCustomer(Customer customer) { this.customer = customer; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -0,0 +1,49 @@
+package com.PinoyHeritage.Backend.entity;
+
+import jakarta.persistence.*;
+
+/** An order line of an ArchivedOrder (product_order_archive), same columns and ids as the hot row. */
+@Entity
+@Table(name = "product_order_archive", indexes = {
+        @Index(name = "idx_product_order_archive_order", columnList = "order_id")
+})
+public class ArchivedProductOrder {
+
+    @Id
+    private Long id;
+
+    private Integer quantity;
+
+    @Column(name = "unit_price")
+    private Double unitPrice;
+
+    @Column(name = "product_image", columnDefinition = "LONGTEXT")
+    private String productImage;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private ArchivedOrder order;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Product product;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Double getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(Double unitPrice) { this.unitPrice = unitPrice; }
+
+    public String getProductImage() { return productImage; }
+    public void setProductImage(String productImage) { this.productImage = productImage; }
+
+    public ArchivedOrder getOrder() { return order; }
+    public void setOrder(ArchivedOrder order) { this.order = order; }
+
+    public Product getProduct() { return product; }
+    public void setProduct(Product product) { this.product = product; }
+}
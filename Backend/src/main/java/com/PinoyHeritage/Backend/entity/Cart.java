@@ -27,6 +27,15 @@ public class Cart {
     @Column(name = "total_amount", nullable = false)
     private Double totalAmount = 0.0;
 
+    // Bumped on every change to the cart or its items; drives the cart ETag
+    @Column(name = "version")
+    private Long version = 0L;
+
+    // Highest cart item id already turned into an order; those lines are removed shortly after checkout.
+    // Only CartRepository.markCheckedOut moves it, so saving a stale Cart never puts it back
+    @Column(name = "checked_out_item_id", updatable = false)
+    private Long checkedOutItemId;
+
     // Constructors
     public Cart() {}
 
@@ -48,6 +57,14 @@ public class Cart {
     public Double getTotalAmount() { return totalAmount; }
     public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
 
+    @JsonIgnore
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @JsonIgnore
+    public Long getCheckedOutItemId() { return checkedOutItemId; }
+    public void setCheckedOutItemId(Long checkedOutItemId) { this.checkedOutItemId = checkedOutItemId; }
+
     // Helper to recalculate total from items
     public void calculateTotalAmount() {
         if (cartItems == null || cartItems.isEmpty()) {
@@ -1,7 +1,9 @@
 package com.PinoyHeritage.Backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "category")
@@ -14,6 +16,11 @@ public class Category {
     @Column(nullable = false, unique = true)
     private String name;
 
+    // Maintained by the database; part of the catalog ETag (see CatalogCache.etag)
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
+
     // Constructors
     public Category() {}
     
@@ -27,4 +34,7 @@ public class Category {
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
@@ -1,9 +1,15 @@
 package com.PinoyHeritage.Backend.entity;
  
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
  
 @Entity
-@Table(name = "delivery")
+@Table(name = "delivery",
+        uniqueConstraints = @UniqueConstraint(name = "uk_delivery_order", columnNames = "order_id"),
+        indexes = {
+                // Courier updates that only carry the courier's tracking number
+                @Index(name = "idx_delivery_tracking_number", columnList = "tracking_number")
+        })
 public class Delivery {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -13,8 +19,25 @@ public class Delivery {
     private String address;
  
     @Column(nullable = false)
-    private String status;  // e.g., "Pending", "Shipped", "Delivered"
+    private String status;  // e.g., "Pending", "In Transit", "Delivered" (see DeliveryTrackingService)
  
+    @Column(name = "courier", length = 64)
+    private String courier;
+
+    @Column(name = "tracking_number", length = 64)
+    private String trackingNumber;
+
+    // Where the parcel was last scanned
+    @Column(name = "location")
+    private String location;
+
+    // Courier time of the event the status comes from; older events never overwrite newer ones
+    @Column(name = "last_event_at")
+    private LocalDateTime lastEventAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     // Relationships
     @OneToOne
     @JoinColumn(name = "order_id", nullable = false)
@@ -27,6 +50,16 @@ public class Delivery {
     public void setAddress(String address) { this.address = address; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    public String getCourier() { return courier; }
+    public void setCourier(String courier) { this.courier = courier; }
+    public String getTrackingNumber() { return trackingNumber; }
+    public void setTrackingNumber(String trackingNumber) { this.trackingNumber = trackingNumber; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public LocalDateTime getLastEventAt() { return lastEventAt; }
+    public void setLastEventAt(LocalDateTime lastEventAt) { this.lastEventAt = lastEventAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     public Order getOrder() { return order; }
     public void setOrder(Order order) { this.order = order; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.PinoyHeritage.Backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One courier scan for an order's delivery, kept for the tracking timeline. Feeds resend
+ * events, so the same (order, time, status) is stored once.
+ */
+@Entity
+@Table(name = "delivery_event",
+        uniqueConstraints = @UniqueConstraint(name = "uk_delivery_event",
+                columnNames = {"order_id", "event_at", "status"}))
+public class DeliveryEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "location")
+    private String location;
+
+    // Courier time of the scan
+    @Column(name = "event_at", nullable = false)
+    private LocalDateTime eventAt;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt = LocalDateTime.now();
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public LocalDateTime getEventAt() { return eventAt; }
+    public void setEventAt(LocalDateTime eventAt) { this.eventAt = eventAt; }
+
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+}
@@ -0,0 +1,60 @@
+package com.PinoyHeritage.Backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
+
+/**
+ * A product in flash-sale mode: its stock is held in memory and flushed to product.stock in batches.
+ *
+ * The row is the crash-recovery baseline. Stock at any moment is baselineStock minus the units
+ * of every order line for the product with an id above baselineLineId, plus the units given back
+ * for orders that did not go through (returnedUnits), so after a restart the true stock can be
+ * recomputed without knowing which in-memory decrements were flushed.
+ */
+@Entity
+@Table(name = "hot_product")
+public class HotProduct {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "baseline_stock", nullable = false)
+    private Integer baselineStock;
+
+    @Column(name = "baseline_line_id", nullable = false)
+    private Long baselineLineId;
+
+    // Written in the same transaction as the cancellation that gives the units back
+    @ColumnDefault("0")
+    @Column(name = "returned_units", nullable = false)
+    private Long returnedUnits = 0L;
+
+    @Column(name = "enabled_at", nullable = false)
+    private LocalDateTime enabledAt = LocalDateTime.now();
+
+    public HotProduct() {}
+
+    public HotProduct(Long productId, Integer baselineStock, Long baselineLineId) {
+        this.productId = productId;
+        this.baselineStock = baselineStock;
+        this.baselineLineId = baselineLineId;
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getBaselineStock() { return baselineStock; }
+    public void setBaselineStock(Integer baselineStock) { this.baselineStock = baselineStock; }
+
+    public Long getBaselineLineId() { return baselineLineId; }
+    public void setBaselineLineId(Long baselineLineId) { this.baselineLineId = baselineLineId; }
+
+    public Long getReturnedUnits() { return returnedUnits; }
+    public void setReturnedUnits(Long returnedUnits) { this.returnedUnits = returnedUnits; }
+
+    public LocalDateTime getEnabledAt() { return enabledAt; }
+    public void setEnabledAt(LocalDateTime enabledAt) { this.enabledAt = enabledAt; }
+}
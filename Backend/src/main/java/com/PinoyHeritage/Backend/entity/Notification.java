@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notification")
+@Table(name = "notification", indexes = {
+        // Unread-count and list lookups per customer
+        @Index(name = "idx_notification_customer_read", columnList = "customer_id, is_read")
+})
 public class Notification {
 
     @Id
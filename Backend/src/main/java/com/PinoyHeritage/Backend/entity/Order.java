@@ -6,7 +6,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "order_table")
+@Table(name = "order_table", indexes = {
+        // Customer order history, newest first (also the admin list's customer filter)
+        @Index(name = "idx_order_customer_created", columnList = "customer_id, created_at, id"),
+        // Admin order list: sort by date, by total, and the status filter
+        @Index(name = "idx_order_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_order_total_id", columnList = "total_amount, id"),
+        @Index(name = "idx_order_status_created", columnList = "status, created_at, id")
+})
 public class Order {
 
     @Id
@@ -0,0 +1,70 @@
+package com.PinoyHeritage.Backend.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Order lifecycle. Order.status stores the label; this is the single place that says which
+ * changes are allowed:
+ *
+ *   Pending → Paid | Processing | Shipped | Cancelled
+ *   Paid → Processing | Shipped | Cancelled
+ *   Processing → Shipped | Cancelled
+ *   Shipped → Delivered
+ *
+ * Delivered and Cancelled are final. PaymentProcessor moves a Pending order to Paid or
+ * Cancelled once its charge settles; Pending may still go straight to Processing or Shipped
+ * for orders settled outside the gateway (e.g. bank transfer confirmed by an admin).
+ */
+public enum OrderStatus {
+
+    PENDING("Pending"),
+    PAID("Paid"),
+    PROCESSING("Processing"),
+    SHIPPED("Shipped"),
+    DELIVERED("Delivered"),
+    CANCELLED("Cancelled");
+
+    private final String label;
+
+    OrderStatus(String label) {
+        this.label = label;
+    }
+
+    public String label() { return label; }
+
+    // The label quoted for use inside SQL text (labels never contain quotes)
+    public String sqlLiteral() { return "'" + label + "'"; }
+
+    public Set<OrderStatus> next() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(PAID, PROCESSING, SHIPPED, CANCELLED);
+            case PAID -> EnumSet.of(PROCESSING, SHIPPED, CANCELLED);
+            case PROCESSING -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(DELIVERED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canMoveTo(OrderStatus target) {
+        return next().contains(target);
+    }
+
+    /** States an order may be in for a move to this one. */
+    public Set<OrderStatus> sources() {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus s : values()) {
+            if (s.canMoveTo(this)) sources.add(s);
+        }
+        return sources;
+    }
+
+    /** Parses a label case-insensitively ("shipped" → SHIPPED); null if it is not a known status. */
+    public static OrderStatus fromLabel(String label) {
+        if (label == null) return null;
+        for (OrderStatus s : values()) {
+            if (s.label.equalsIgnoreCase(label.trim())) return s;
+        }
+        return null;
+    }
+}
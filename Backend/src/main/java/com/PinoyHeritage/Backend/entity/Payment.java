@@ -1,10 +1,18 @@
 package com.PinoyHeritage.Backend.entity;
  
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
  
 @Entity
 
-@Table(name = "payment")
+@Table(name = "payment", indexes = {
+
+        // PaymentProcessor poll: Pending payments due for an attempt
+
+        @Index(name = "idx_payment_status_next_attempt", columnList = "status, next_attempt_at")
+
+})
 
 public class Payment {
 
@@ -20,7 +28,41 @@ public class Payment {
  
     @Column(nullable = false)
 
-    private String status;  // e.g., "Pending", "Completed"
+    private String status;  // PaymentStatus label: "Pending", "Processing", "Completed", "Failed"
+ 
+    @Column(name = "amount")
+
+    private Double amount;
+ 
+    // Gateway calls made so far; also the claim token of the attempt in progress
+
+    @ColumnDefault("0")
+
+    @Column(name = "attempts", nullable = false)
+
+    private Integer attempts = 0;
+ 
+    @Column(name = "gateway_reference", length = 128)
+
+    private String gatewayReference;
+ 
+    @Column(name = "last_error", length = 1000)
+
+    private String lastError;
+ 
+    // Earliest time the next gateway call may be made (retry backoff)
+
+    @Column(name = "next_attempt_at")
+
+    private LocalDateTime nextAttemptAt;
+ 
+    @Column(name = "created_at")
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+ 
+    @Column(name = "updated_at")
+
+    private LocalDateTime updatedAt = LocalDateTime.now();
  
     // Relationships
 
@@ -44,6 +86,34 @@ public class Payment {
 
     public void setStatus(String status) { this.status = status; }
 
+    public Double getAmount() { return amount; }
+
+    public void setAmount(Double amount) { this.amount = amount; }
+
+    public Integer getAttempts() { return attempts; }
+
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getGatewayReference() { return gatewayReference; }
+
+    public void setGatewayReference(String gatewayReference) { this.gatewayReference = gatewayReference; }
+
+    public String getLastError() { return lastError; }
+
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
     public Order getOrder() { return order; }
 
     public void setOrder(Order order) { this.order = order; }
@@ -0,0 +1,28 @@
+package com.PinoyHeritage.Backend.entity;
+
+/**
+ * Payment lifecycle; Payment.status stores the label.
+ *
+ *   Pending → Processing (a gateway call is in flight)
+ *   Processing → Completed | Failed, or back to Pending for a retry
+ *
+ * Completed moves the order to Paid, Failed cancels it (PaymentProcessor).
+ */
+public enum PaymentStatus {
+
+    PENDING("Pending"),
+    PROCESSING("Processing"),
+    COMPLETED("Completed"),
+    FAILED("Failed");
+
+    private final String label;
+
+    PaymentStatus(String label) {
+        this.label = label;
+    }
+
+    public String label() { return label; }
+
+    // The label quoted for use inside SQL text (labels never contain quotes)
+    public String sqlLiteral() { return "'" + label + "'"; }
+}
@@ -1,10 +1,19 @@
 package com.PinoyHeritage.Backend.entity;
 
+import com.PinoyHeritage.Backend.service.ImageStorageService;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "product")
+@Table(name = "product", indexes = {
+        // Keyset pagination: one (sort key, id) index per listing order
+        @Index(name = "idx_product_name_id", columnList = "name, id"),
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_category_name_id", columnList = "category_id, name, id"),
+        @Index(name = "idx_product_category_price_id", columnList = "category_id, price, id")
+})
 public class Product {
 
     @Id
@@ -24,7 +33,8 @@ public class Product {
     @Column(columnDefinition = "JSON")
     private String sizes; 
 
-    // Store ONE image as Base64
+    // URL of ONE image in the image store (/uploads/images/{sha256}.{ext}).
+    // LONGTEXT only because legacy rows held Base64 data URIs before the image migration.
     @Column(columnDefinition = "LONGTEXT")
     private String imageUrl;
 
@@ -33,6 +43,12 @@ public class Product {
     @JoinColumn(name = "category_id")
     private Category category;
 
+    // Maintained by the database on every insert/update, including the raw stock SQL;
+    // the catalog ETag is derived from it (see CatalogCache.etag)
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
+
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -74,6 +90,13 @@ public class Product {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    // Read-only rendition URLs for list and cart views (not columns)
+    public String getThumbnailUrl() { return ImageStorageService.renditionUrl(imageUrl, ImageStorageService.Rendition.THUMB); }
+    public String getCardUrl() { return ImageStorageService.renditionUrl(imageUrl, ImageStorageService.Rendition.CARD); }
+
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
+
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
\ No newline at end of file
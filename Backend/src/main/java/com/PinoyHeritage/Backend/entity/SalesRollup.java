@@ -0,0 +1,75 @@
+package com.PinoyHeritage.Backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated sales for one hour or day bucket and one dimension value: the whole shop
+ * (TOTAL, id 0), a product or a category. Maintained by SalesRollupService with additive
+ * upserts, so dashboard queries read a handful of rows per day instead of every order.
+ */
+@Entity
+@Table(name = "sales_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_rollup_bucket",
+                columnNames = {"grain", "dimension", "dimension_id", "bucket_start"}),
+        indexes = {
+                // Top products / categories over a date range
+                @Index(name = "idx_sales_rollup_range", columnList = "grain, dimension, bucket_start")
+        })
+public class SalesRollup {
+
+    public enum Grain { HOUR, DAY }
+
+    public enum Dimension { TOTAL, PRODUCT, CATEGORY }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "grain", nullable = false, length = 8)
+    private String grain;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "dimension", nullable = false, length = 16)
+    private String dimension;
+
+    // 0 for TOTAL, and for lines whose product or category is unknown
+    @Column(name = "dimension_id", nullable = false)
+    private Long dimensionId;
+
+    @Column(name = "orders_count", nullable = false)
+    private Long ordersCount = 0L;
+
+    @Column(name = "units", nullable = false)
+    private Long units = 0L;
+
+    @Column(name = "revenue", nullable = false)
+    private Double revenue = 0.0;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getGrain() { return grain; }
+    public void setGrain(String grain) { this.grain = grain; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public String getDimension() { return dimension; }
+    public void setDimension(String dimension) { this.dimension = dimension; }
+
+    public Long getDimensionId() { return dimensionId; }
+    public void setDimensionId(Long dimensionId) { this.dimensionId = dimensionId; }
+
+    public Long getOrdersCount() { return ordersCount; }
+    public void setOrdersCount(Long ordersCount) { this.ordersCount = ordersCount; }
+
+    public Long getUnits() { return units; }
+    public void setUnits(Long units) { this.units = units; }
+
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+}
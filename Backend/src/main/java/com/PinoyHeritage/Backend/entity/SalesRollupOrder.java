@@ -0,0 +1,30 @@
+package com.PinoyHeritage.Backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Whether an order's contribution is currently included in sales_rollup.
+ *
+ * Both the incremental updates and the backfill go through this row, which is what keeps an
+ * order from being counted twice when the two run at the same time: whoever inserts or flips
+ * it applies the change, everyone else sees it already done.
+ */
+@Entity
+@Table(name = "sales_rollup_order")
+public class SalesRollupOrder {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // False for cancelled orders
+    @Column(name = "counted", nullable = false)
+    private boolean counted;
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public boolean isCounted() { return counted; }
+    public void setCounted(boolean counted) { this.counted = counted; }
+}
@@ -0,0 +1,37 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.entity.ArchivedOrder;
+import com.PinoyHeritage.Backend.repository.OrderRepository.OrderHeader;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The archive side of OrderRepository's history queries (same projection and keyset)
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @Query("SELECT o.id AS id, o.totalAmount AS totalAmount, o.status AS status, o.createdAt AS createdAt " +
+           "FROM ArchivedOrder o WHERE o.customer.id = :customerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHeader> findHistory(@Param("customerId") Long customerId, Pageable page);
+
+    @Query("SELECT o.id AS id, o.totalAmount AS totalAmount, o.status AS status, o.createdAt AS createdAt " +
+           "FROM ArchivedOrder o WHERE o.customer.id = :customerId " +
+           "AND (o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.id < :afterId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHeader> findHistoryAfter(@Param("customerId") Long customerId,
+                                       @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                       @Param("afterId") Long afterId, Pageable page);
+
+    // Newest archived order overall / of one customer: a page of hot rows all newer than this
+    // cannot have archived rows mixed in (one index probe each)
+    @Query("SELECT MAX(o.createdAt) FROM ArchivedOrder o")
+    LocalDateTime findNewestCreatedAt();
+
+    @Query("SELECT MAX(o.createdAt) FROM ArchivedOrder o WHERE o.customer.id = :customerId")
+    LocalDateTime findNewestCreatedAt(@Param("customerId") Long customerId);
+}
@@ -0,0 +1,28 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.entity.ArchivedProductOrder;
+import com.PinoyHeritage.Backend.repository.ProductOrderRepository.HistoryLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+// The archive side of ProductOrderRepository's history lines (same projection)
+@Repository
+public interface ArchivedProductOrderRepository extends JpaRepository<ArchivedProductOrder, Long> {
+
+    String HISTORY_LINE_SELECT =
+            "SELECT po.order.id AS orderId, p.id AS productId, p.name AS productName, po.quantity AS quantity, " +
+            "COALESCE(po.unitPrice, p.price) AS unitPrice, po.productImage AS productImage, " +
+            "CASE WHEN po.productImage IS NULL OR po.productImage = '' THEN p.imageUrl ELSE NULL END AS fallbackImage " +
+            "FROM ArchivedProductOrder po LEFT JOIN po.product p ";
+
+    @Query(HISTORY_LINE_SELECT + "WHERE po.order.id IN :orderIds ORDER BY po.id")
+    List<HistoryLine> findHistoryLines(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query(HISTORY_LINE_SELECT + "WHERE po.order.customer.id = :customerId ORDER BY po.id")
+    List<HistoryLine> findHistoryLinesByCustomer(@Param("customerId") Long customerId);
+}
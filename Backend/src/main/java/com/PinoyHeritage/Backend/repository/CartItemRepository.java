@@ -2,9 +2,11 @@ package com.PinoyHeritage.Backend.repository;
 
 import com.PinoyHeritage.Backend.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,4 +24,51 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     // Query via cart relationship
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.customer.id = :customerId")
     List<CartItem> findByCartCustomerId(@Param("customerId") Long customerId);
+
+    // Checkout: the customer's lines (by customer_id or through the cart) with categories, in one query.
+    // Lines already ordered but not yet cleaned up (at or below the cart's watermark) are skipped
+    @Query("SELECT ci FROM CartItem ci LEFT JOIN FETCH ci.category LEFT JOIN ci.cart c " +
+           "WHERE (ci.customerId = :customerId OR c.customer.id = :customerId) " +
+           "AND (c.checkedOutItemId IS NULL OR ci.id > c.checkedOutItemId) ORDER BY ci.id")
+    List<CartItem> findCheckoutLines(@Param("customerId") Long customerId);
+
+    // What the customer sees in the cart: the same open lines as checkout, oldest first
+    @Query("SELECT ci FROM CartItem ci LEFT JOIN FETCH ci.category LEFT JOIN ci.cart c " +
+           "WHERE (ci.customerId = :customerId OR c.customer.id = :customerId) " +
+           "AND (c.checkedOutItemId IS NULL OR ci.id > c.checkedOutItemId) ORDER BY ci.id")
+    List<CartItem> findOpenLines(@Param("customerId") Long customerId);
+
+    // Open line for a product to merge a repeated add into; a line already ordered never takes more quantity
+    @Query("SELECT ci FROM CartItem ci JOIN ci.cart c WHERE c.id = :cartId AND ci.productName = :productName " +
+           "AND (c.checkedOutItemId IS NULL OR ci.id > c.checkedOutItemId) ORDER BY ci.id")
+    List<CartItem> findOpenLinesByProductName(@Param("cartId") Long cartId, @Param("productName") String productName);
+
+    @Query("SELECT COALESCE(SUM(ci.amount), 0.0) FROM CartItem ci LEFT JOIN ci.cart c " +
+           "WHERE (ci.customerId = :customerId OR c.customer.id = :customerId) " +
+           "AND (c.checkedOutItemId IS NULL OR ci.id > c.checkedOutItemId)")
+    Double sumOpenAmount(@Param("customerId") Long customerId);
+
+    // Empties a cart in one statement (deleteByCartId loads and deletes row by row)
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.customerId = :customerId " +
+           "OR ci.cart.id IN (SELECT c.id FROM Cart c WHERE c.customer.id = :customerId)")
+    int deleteAllForCustomer(@Param("customerId") Long customerId);
+
+    // Post-checkout cleanup: only the lines that went into the order
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.id <= :maxItemId AND (ci.customerId = :customerId " +
+           "OR ci.cart.id IN (SELECT c.id FROM Cart c WHERE c.customer.id = :customerId))")
+    int deleteCheckedOut(@Param("customerId") Long customerId, @Param("maxItemId") Long maxItemId);
+
+    // Image migration: cart snapshots still holding an inline Base64 image
+    @Query("SELECT ci.id FROM CartItem ci WHERE ci.productImage LIKE 'data:%'")
+    List<Long> findIdsWithInlineImage();
+
+    @Query("SELECT ci.productImage FROM CartItem ci WHERE ci.id = :id")
+    String findProductImageById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CartItem ci SET ci.productImage = :productImage WHERE ci.id = :id")
+    int updateProductImage(@Param("id") Long id, @Param("productImage") String productImage);
 }
\ No newline at end of file
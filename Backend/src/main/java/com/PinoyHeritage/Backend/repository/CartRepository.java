@@ -1,7 +1,10 @@
 package com.PinoyHeritage.Backend.repository;
 
 import com.PinoyHeritage.Backend.entity.Cart;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,9 +15,48 @@ import java.util.Optional;
 public interface CartRepository extends JpaRepository<Cart, Long> {
     
     Optional<Cart> findByCustomerId(Long customerId);
+
+    // Cart changes and checkout take the cart row lock first, so they never interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.customer.id = :customerId")
+    Optional<Cart> findByCustomerIdForUpdate(@Param("customerId") Long customerId);
     
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.cartItems WHERE c.customer.id = :customerId")
     Optional<Cart> findByCustomerIdWithItems(@Param("customerId") Long customerId);
     
     boolean existsByCustomerId(Long customerId);
+
+    // Cart change: new total and the next version in one statement (a concurrent change can't reuse the version)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalAmount = :total, c.version = COALESCE(c.version, 0) + 1 WHERE c.id = :cartId")
+    int updateTotal(@Param("cartId") Long cartId, @Param("total") Double total);
+
+    // Checkout: zero the total and bump the version without loading the cart
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = 0.0, c.version = COALESCE(c.version, 0) + 1 WHERE c.customer.id = :customerId")
+    int resetForCustomer(@Param("customerId") Long customerId);
+
+    // Checkout: mark the lines up to maxItemId as ordered (they are deleted by CartCleanupHandler).
+    // Only moves the watermark forward, so a concurrent checkout of the same lines updates nothing
+    @Modifying
+    @Query("UPDATE Cart c SET c.checkedOutItemId = :maxItemId, c.totalAmount = 0.0, " +
+           "c.version = COALESCE(c.version, 0) + 1 WHERE c.customer.id = :customerId " +
+           "AND (c.checkedOutItemId IS NULL OR c.checkedOutItemId < :maxItemId)")
+    int markCheckedOut(@Param("customerId") Long customerId, @Param("maxItemId") Long maxItemId);
+
+    // Total from whatever lines are left, e.g. items added while the checkout was being cleaned up
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalAmount = (SELECT COALESCE(SUM(ci.amount), 0.0) FROM CartItem ci WHERE ci.cart.id = c.id " +
+           "AND (c.checkedOutItemId IS NULL OR ci.id > c.checkedOutItemId)), " +
+           "c.version = COALESCE(c.version, 0) + 1 WHERE c.customer.id = :customerId")
+    int recalculateForCustomer(@Param("customerId") Long customerId);
+
+    // Id and version of the customer's cart, for conditional GETs
+    @Query("SELECT c.id AS id, c.version AS version FROM Cart c WHERE c.customer.id = :customerId")
+    Optional<CartVersion> findVersionByCustomerId(@Param("customerId") Long customerId);
+
+    interface CartVersion {
+        Long getId();
+        Long getVersion();
+    }
 }
\ No newline at end of file
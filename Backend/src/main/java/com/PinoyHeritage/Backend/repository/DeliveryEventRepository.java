@@ -0,0 +1,13 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.entity.DeliveryEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeliveryEventRepository extends JpaRepository<DeliveryEvent, Long> {
+    // Tracking timeline, newest first (served by uk_delivery_event)
+    List<DeliveryEvent> findTop50ByOrderIdOrderByEventAtDesc(Long orderId);
+}
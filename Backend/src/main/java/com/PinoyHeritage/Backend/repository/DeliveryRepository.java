@@ -0,0 +1,30 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.entity.Delivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
+
+    // Tracking read: delivery columns only, without loading the order (served by uk_delivery_order)
+    @Query("SELECT d.order.id AS orderId, d.address AS address, d.status AS status, d.courier AS courier, " +
+           "d.trackingNumber AS trackingNumber, d.location AS location, d.lastEventAt AS lastEventAt " +
+           "FROM Delivery d WHERE d.order.id = :orderId")
+    Optional<DeliveryView> findViewByOrderId(@Param("orderId") Long orderId);
+
+    interface DeliveryView {
+        Long getOrderId();
+        String getAddress();
+        String getStatus();
+        String getCourier();
+        String getTrackingNumber();
+        String getLocation();
+        LocalDateTime getLastEventAt();
+    }
+}
@@ -0,0 +1,9 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.entity.HotProduct;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HotProductRepository extends JpaRepository<HotProduct, Long> {
+}
@@ -2,6 +2,8 @@ package com.PinoyHeritage.Backend.repository;
 
 import com.PinoyHeritage.Backend.entity.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,16 @@ import java.util.List;
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByCustomerIdOrderByCreatedAtDesc(Long customerId);
     long countByCustomerIdAndReadFalse(Long customerId);
+
+    // Total, unread and newest id: changes on every create, mark-read and delete
+    @Query("SELECT COUNT(n) AS count, " +
+           "SUM(CASE WHEN n.read = false THEN 1 ELSE 0 END) AS unread, MAX(n.id) AS maxId " +
+           "FROM Notification n WHERE n.customer.id = :customerId")
+    NotificationVersion findVersionByCustomerId(@Param("customerId") Long customerId);
+
+    interface NotificationVersion {
+        Long getCount();
+        Long getUnread();
+        Long getMaxId();
+    }
 }
@@ -1,12 +1,56 @@
 package com.PinoyHeritage.Backend.repository;
 
 import com.PinoyHeritage.Backend.entity.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
     List<Order> findByCustomerId(Long customerId);
+
+    // Order history, newest first, header columns only (served by idx_order_customer_created)
+    @Query("SELECT o.id AS id, o.totalAmount AS totalAmount, o.status AS status, o.createdAt AS createdAt " +
+           "FROM Order o WHERE o.customer.id = :customerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHeader> findHistory(@Param("customerId") Long customerId, Pageable page);
+
+    // Next history page after (createdAt, id) of the previous page's last order
+    @Query("SELECT o.id AS id, o.totalAmount AS totalAmount, o.status AS status, o.createdAt AS createdAt " +
+           "FROM Order o WHERE o.customer.id = :customerId " +
+           "AND (o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.id < :afterId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHeader> findHistoryAfter(@Param("customerId") Long customerId,
+                                       @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                       @Param("afterId") Long afterId, Pageable page);
+
+    // Status changes: current status of the given orders, row-locked until the transaction ends
+    @Query(value = "SELECT id, status, customer_id AS customerId FROM order_table WHERE id IN (:ids) FOR UPDATE",
+           nativeQuery = true)
+    List<StatusRow> lockStatuses(@Param("ids") Collection<Long> ids);
+
+    // One set-based status change, guarded by the states the transition is allowed from
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status IN :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids, @Param("from") Collection<String> from,
+                         @Param("to") String to);
+
+    interface StatusRow {
+        Long getId();
+        String getStatus();
+        Long getCustomerId();
+    }
+
+    interface OrderHeader {
+        Long getId();
+        Double getTotalAmount();
+        String getStatus();
+        LocalDateTime getCreatedAt();
+    }
 }
@@ -0,0 +1,15 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.dto.AdminOrderQuery;
+import com.PinoyHeritage.Backend.dto.AdminOrderSummary;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    // Keyset page for the admin list: at most `limit` rows after the query's cursor (limit <= 0: no limit)
+    List<AdminOrderSummary> findAdminPage(AdminOrderQuery query, int limit);
+
+    // The same page over the archive (order_archive / product_order_archive)
+    List<AdminOrderSummary> findArchivedAdminPage(AdminOrderQuery query, int limit);
+}
@@ -0,0 +1,121 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.dto.AdminOrderQuery;
+import com.PinoyHeritage.Backend.dto.AdminOrderSummary;
+import com.PinoyHeritage.Backend.entity.ArchivedOrder;
+import com.PinoyHeritage.Backend.entity.ArchivedProductOrder;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.entity.ProductOrder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admin order list as one statement: the order columns, the customer's name (joined) and the
+ * number of units (a correlated SUM over product_order, evaluated only for the rows on the
+ * page). Each sort ends with id as a tie-breaker and has a matching (key, id) index on
+ * order_table, so a page is an index range scan however deep it is; the status and customer
+ * filters have (status, created_at, id) and (customer_id, created_at, id) indexes as well.
+ * The archive tables have the same columns and indexes, so the same query serves both.
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AdminOrderSummary> findAdminPage(AdminOrderQuery query, int limit) {
+        return adminPage(Order.class, ProductOrder.class, query, limit);
+    }
+
+    @Override
+    public List<AdminOrderSummary> findArchivedAdminPage(AdminOrderQuery query, int limit) {
+        return adminPage(ArchivedOrder.class, ArchivedProductOrder.class, query, limit);
+    }
+
+    private List<AdminOrderSummary> adminPage(Class<?> orderType, Class<?> lineType, AdminOrderQuery query, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdminOrderSummary> cq = cb.createQuery(AdminOrderSummary.class);
+        Root<?> o = cq.from(orderType);
+        Join<?, Customer> c = o.join("customer", JoinType.LEFT);
+
+        Path<Long> id = o.get("id");
+        Path<LocalDateTime> createdAt = o.get("createdAt");
+        Path<Double> total = o.get("totalAmount");
+
+        Subquery<Long> items = cq.subquery(Long.class);
+        Root<?> po = items.from(lineType);
+        items.select(cb.coalesce(cb.sumAsLong(po.get("quantity")), 0L))
+             .where(cb.equal(po.get("order"), o));
+
+        Expression<String> customerName = cb.concat(
+                cb.concat(cb.coalesce(c.<String>get("firstName"), ""), " "),
+                cb.coalesce(c.<String>get("lastName"), ""));
+
+        List<Predicate> where = new ArrayList<>();
+        if (query.getStatus() != null) {
+            where.add(cb.equal(o.get("status"), query.getStatus()));
+        }
+        if (query.getCustomerId() != null) {
+            where.add(cb.equal(c.get("id"), query.getCustomerId()));
+        }
+        if (query.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(createdAt, query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            where.add(cb.lessThan(createdAt, query.getTo()));
+        }
+
+        switch (query.getSort()) {
+            case NEWEST -> {
+                if (query.hasCursor()) {
+                    where.add(cb.or(cb.lessThan(createdAt, query.getAfterCreatedAt()),
+                            cb.and(cb.equal(createdAt, query.getAfterCreatedAt()), cb.lessThan(id, query.getAfterId()))));
+                }
+                cq.orderBy(cb.desc(createdAt), cb.desc(id));
+            }
+            case OLDEST -> {
+                if (query.hasCursor()) {
+                    where.add(cb.or(cb.greaterThan(createdAt, query.getAfterCreatedAt()),
+                            cb.and(cb.equal(createdAt, query.getAfterCreatedAt()), cb.greaterThan(id, query.getAfterId()))));
+                }
+                cq.orderBy(cb.asc(createdAt), cb.asc(id));
+            }
+            case TOTAL_DESC -> {
+                if (query.hasCursor()) {
+                    where.add(cb.or(cb.lessThan(total, query.getAfterTotal()),
+                            cb.and(cb.equal(total, query.getAfterTotal()), cb.lessThan(id, query.getAfterId()))));
+                }
+                cq.orderBy(cb.desc(total), cb.desc(id));
+            }
+            case TOTAL_ASC -> {
+                if (query.hasCursor()) {
+                    where.add(cb.or(cb.greaterThan(total, query.getAfterTotal()),
+                            cb.and(cb.equal(total, query.getAfterTotal()), cb.greaterThan(id, query.getAfterId()))));
+                }
+                cq.orderBy(cb.asc(total), cb.asc(id));
+            }
+        }
+
+        cq.select(cb.construct(AdminOrderSummary.class,
+                id, c.get("id"), customerName, total, o.get("status"), createdAt, items))
+          .where(where.toArray(new Predicate[0]));
+        TypedQuery<AdminOrderSummary> typed = entityManager.createQuery(cq);
+        if (limit > 0) typed.setMaxResults(limit);
+        return typed.getResultList();
+    }
+}
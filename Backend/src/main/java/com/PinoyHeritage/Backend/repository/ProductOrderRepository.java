@@ -0,0 +1,62 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.entity.ProductOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductOrderRepository extends JpaRepository<ProductOrder, Long> {
+
+    // Units ordered per product, used as popularity for suggestions
+    @Query("SELECT po.product.id AS productId, SUM(po.quantity) AS units FROM ProductOrder po " +
+           "WHERE po.product IS NOT NULL GROUP BY po.product.id")
+    List<ProductUnits> sumQuantityByProduct();
+
+    interface ProductUnits {
+        Long getProductId();
+        Long getUnits();
+    }
+
+    // Order history lines: snapshot columns plus the product's name, price and (only when the
+    // line has no image snapshot) its image URL; never loads the product entity
+    String HISTORY_LINE_SELECT =
+            "SELECT po.order.id AS orderId, p.id AS productId, p.name AS productName, po.quantity AS quantity, " +
+            "COALESCE(po.unitPrice, p.price) AS unitPrice, po.productImage AS productImage, " +
+            "CASE WHEN po.productImage IS NULL OR po.productImage = '' THEN p.imageUrl ELSE NULL END AS fallbackImage " +
+            "FROM ProductOrder po LEFT JOIN po.product p ";
+
+    @Query(HISTORY_LINE_SELECT + "WHERE po.order.id IN :orderIds ORDER BY po.id")
+    List<HistoryLine> findHistoryLines(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query(HISTORY_LINE_SELECT + "WHERE po.order.customer.id = :customerId ORDER BY po.id")
+    List<HistoryLine> findHistoryLinesByCustomer(@Param("customerId") Long customerId);
+
+    interface HistoryLine {
+        Long getOrderId();
+        Long getProductId();
+        String getProductName();
+        Integer getQuantity();
+        Double getUnitPrice();
+        String getProductImage();
+        String getFallbackImage();
+    }
+
+    // Image migration: order line snapshots still holding an inline Base64 image
+    @Query("SELECT po.id FROM ProductOrder po WHERE po.productImage LIKE 'data:%'")
+    List<Long> findIdsWithInlineImage();
+
+    @Query("SELECT po.productImage FROM ProductOrder po WHERE po.id = :id")
+    String findProductImageById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProductOrder po SET po.productImage = :productImage WHERE po.id = :id")
+    int updateProductImage(@Param("id") Long id, @Param("productImage") String productImage);
+}
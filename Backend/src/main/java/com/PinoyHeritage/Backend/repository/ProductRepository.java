@@ -1,14 +1,57 @@
 package com.PinoyHeritage.Backend.repository;
 
+import com.PinoyHeritage.Backend.dto.ProductSummary;
 import com.PinoyHeritage.Backend.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     // Custom query methods can be added here if needed (e.g., findByCategory)
 
     Optional<Product> findByName(String name);
+
+    // Checkout: every product named in the cart, with its category, in one query
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.name IN :names")
+    List<Product> findByNameIn(@Param("names") java.util.Collection<String> names);
+
+    List<Product> findByCategoryId(Long categoryId);
+
+    // Id and name only, for the autocomplete index
+    @Query("SELECT p.id AS id, p.name AS name, p.category.id AS categoryId FROM Product p")
+    List<ProductName> findAllNames();
+
+    interface ProductName {
+        Long getId();
+        String getName();
+        Long getCategoryId();
+    }
+
+    // Batch scan in id order (used to rebuild in-memory indexes without loading the whole table at once)
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // List view: only the grid columns, selected straight into the summary DTO
+    @Query("SELECT new com.PinoyHeritage.Backend.dto.ProductSummary(p.id, p.name, p.price, p.stock, c.name, p.imageUrl) " +
+           "FROM Product p LEFT JOIN p.category c ORDER BY p.name, p.id")
+    List<ProductSummary> findAllSummaries();
+
+    // Image migration: ids of rows still holding an inline Base64 image
+    @Query("SELECT p.id FROM Product p WHERE p.imageUrl LIKE 'data:%'")
+    List<Long> findIdsWithInlineImage();
+
+    @Query("SELECT p.imageUrl FROM Product p WHERE p.id = :id")
+    String findImageUrlById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.imageUrl = :imageUrl WHERE p.id = :id")
+    int updateImageUrl(@Param("id") Long id, @Param("imageUrl") String imageUrl);
 }
@@ -0,0 +1,12 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.dto.ProductListQuery;
+import com.PinoyHeritage.Backend.dto.ProductSummary;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // Keyset page: at most `limit` rows strictly after the query's cursor position
+    List<ProductSummary> findPage(ProductListQuery query, int limit);
+}
@@ -0,0 +1,94 @@
+package com.PinoyHeritage.Backend.repository;
+
+import com.PinoyHeritage.Backend.dto.ProductListQuery;
+import com.PinoyHeritage.Backend.dto.ProductSummary;
+import com.PinoyHeritage.Backend.entity.Category;
+import com.PinoyHeritage.Backend.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset pagination for the product listing.
+ * Every sort order ends with id as a tie-breaker and has a matching (key, id) index on
+ * the product table, so each page is an index range scan of `limit` rows no matter how deep.
+ * Price sorts skip products without a price (they cannot be ordered or bought anyway).
+ * Rows are selected straight into ProductSummary, so only the grid columns are read.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductSummary> findPage(ProductListQuery query, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> cq = cb.createQuery(ProductSummary.class);
+        Root<Product> p = cq.from(Product.class);
+        Join<Product, Category> c = p.join("category", JoinType.LEFT);
+
+        Path<Long> id = p.get("id");
+        Path<String> name = p.get("name");
+        Path<Double> price = p.get("price");
+
+        List<Predicate> where = new ArrayList<>();
+        if (query.getCategoryId() != null) {
+            where.add(cb.equal(c.get("id"), query.getCategoryId()));
+        }
+        if (query.getMinPrice() != null) {
+            where.add(cb.greaterThanOrEqualTo(price, query.getMinPrice()));
+        }
+        if (query.getMaxPrice() != null) {
+            where.add(cb.lessThanOrEqualTo(price, query.getMaxPrice()));
+        }
+
+        switch (query.getSort()) {
+            case NAME -> {
+                if (query.hasCursor()) {
+                    where.add(cb.or(cb.greaterThan(name, query.getAfterName()),
+                            cb.and(cb.equal(name, query.getAfterName()), cb.greaterThan(id, query.getAfterId()))));
+                }
+                cq.orderBy(cb.asc(name), cb.asc(id));
+            }
+            case PRICE_ASC -> {
+                where.add(cb.isNotNull(price));
+                if (query.hasCursor()) {
+                    where.add(cb.or(cb.greaterThan(price, query.getAfterPrice()),
+                            cb.and(cb.equal(price, query.getAfterPrice()), cb.greaterThan(id, query.getAfterId()))));
+                }
+                cq.orderBy(cb.asc(price), cb.asc(id));
+            }
+            case PRICE_DESC -> {
+                where.add(cb.isNotNull(price));
+                if (query.hasCursor()) {
+                    where.add(cb.or(cb.lessThan(price, query.getAfterPrice()),
+                            cb.and(cb.equal(price, query.getAfterPrice()), cb.lessThan(id, query.getAfterId()))));
+                }
+                cq.orderBy(cb.desc(price), cb.desc(id));
+            }
+            case NEWEST -> {
+                // Identity ids grow with insertion order, so id doubles as "newest first"
+                if (query.hasCursor()) {
+                    where.add(cb.lessThan(id, query.getAfterId()));
+                }
+                cq.orderBy(cb.desc(id));
+            }
+        }
+
+        cq.select(cb.construct(ProductSummary.class,
+                id, name, price, p.get("stock"), c.get("name"), p.get("imageUrl")))
+          .where(where.toArray(new Predicate[0]));
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -31,6 +31,16 @@ public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
     
     // Count wishlist items for a customer
     long countByCustomerId(Long customerId);
+
+    // Item count and newest id: any add raises the max id and any removal lowers the count,
+    // so together they version the customer's wishlist in one indexed lookup
+    @Query("SELECT COUNT(w) AS count, MAX(w.id) AS maxId FROM Wishlist w WHERE w.customer.id = :customerId")
+    WishlistVersion findVersionByCustomerId(@Param("customerId") Long customerId);
+
+    interface WishlistVersion {
+        Long getCount();
+        Long getMaxId();
+    }
     
     // Clear entire wishlist for a customer
     @Modifying
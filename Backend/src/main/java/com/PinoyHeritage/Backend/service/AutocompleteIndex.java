@@ -0,0 +1,248 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.Suggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix index: a sorted array of normalized name keys with parallel primitive arrays.
+ *
+ * Every word start of a name is a key ("barong tagalog", "tagalog"), so typing any word of the
+ * name finds it. A lookup binary-searches the key range for the prefix and then pulls the N most
+ * popular entries out of that range with a max segment tree, so even a one-letter prefix costs
+ * O(N log n) rather than a scan. Changes produce a new snapshot by merging into the existing
+ * sorted arrays, so readers never need a lock.
+ */
+public final class AutocompleteIndex {
+
+    public static final byte PRODUCT = 0;
+    public static final byte CATEGORY = 1;
+
+    public record Entry(byte type, long id, String name, long popularity) {}
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private record Key(String key, int owner) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key o) {
+            return key.compareTo(o.key);
+        }
+    }
+
+    // Sorted keys; keyEntry[i] points into the entry columns below
+    private final String[] keys;
+    private final int[] keyEntry;
+
+    private final byte[] types;
+    private final long[] ids;
+    private final String[] names;
+    private final long[] popularity;
+
+    // Segment tree over key positions: tree[node] = key position with the best entry in that span
+    private final int leaves;
+    private final int[] tree;
+
+    public static final AutocompleteIndex EMPTY = build(List.of());
+
+    private AutocompleteIndex(String[] keys, int[] keyEntry, byte[] types, long[] ids, String[] names, long[] popularity) {
+        this.keys = keys;
+        this.keyEntry = keyEntry;
+        this.types = types;
+        this.ids = ids;
+        this.names = names;
+        this.popularity = popularity;
+
+        int size = 1;
+        while (size < Math.max(1, keys.length)) size <<= 1;
+        this.leaves = size;
+        this.tree = new int[2 * size];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < keys.length; i++) tree[size + i] = i;
+        for (int node = size - 1; node >= 1; node--) tree[node] = betterKey(tree[2 * node], tree[2 * node + 1]);
+    }
+
+    public static AutocompleteIndex build(List<Entry> entries) {
+        int n = entries.size();
+        byte[] types = new byte[n];
+        long[] ids = new long[n];
+        String[] names = new String[n];
+        long[] popularity = new long[n];
+        List<Key> all = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Entry e = entries.get(i);
+            types[i] = e.type();
+            ids[i] = e.id();
+            names[i] = e.name();
+            popularity[i] = e.popularity();
+            for (String key : keysOf(e.name())) all.add(new Key(key, i));
+        }
+        Key[] sorted = all.toArray(new Key[0]);
+        Arrays.sort(sorted);
+        String[] keys = new String[sorted.length];
+        int[] keyEntry = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key();
+            keyEntry[i] = sorted[i].owner();
+        }
+        return new AutocompleteIndex(keys, keyEntry, types, ids, names, popularity);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public List<Entry> entries() {
+        List<Entry> out = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) out.add(new Entry(types[i], ids[i], names[i], popularity[i]));
+        }
+        return out;
+    }
+
+    /**
+     * New snapshot with one entry replaced (or removed when name is null).
+     * The untouched keys are already sorted, so this is a linear merge rather than a re-sort.
+     */
+    public AutocompleteIndex with(byte type, long id, String name, long pop) {
+        int n = names.length;
+        int slot = -1;
+        for (int i = 0; i < n; i++) {
+            if (types[i] == type && ids[i] == id) { slot = i; break; }
+        }
+        byte[] t = types;
+        long[] d = ids;
+        String[] nm = names.clone();
+        long[] p = popularity.clone();
+        if (slot < 0) {
+            if (name == null) return this;
+            slot = n;
+            t = Arrays.copyOf(types, n + 1);
+            d = Arrays.copyOf(ids, n + 1);
+            nm = Arrays.copyOf(names, n + 1);
+            p = Arrays.copyOf(popularity, n + 1);
+            t[slot] = type;
+            d[slot] = id;
+        }
+        nm[slot] = name;
+        p[slot] = pop;
+
+        // Keep every key not owned by the slot, then merge in the slot's new keys
+        int kept = 0;
+        for (int e : keyEntry) if (e != slot) kept++;
+        List<String> added = name == null ? List.of() : keysOf(name);
+        String[] newKeys = new String[kept + added.size()];
+        int[] newOwners = new int[newKeys.length];
+        added = new ArrayList<>(added);
+        added.sort(null);
+        int ai = 0, w = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keyEntry[i] == slot) continue;
+            while (ai < added.size() && added.get(ai).compareTo(keys[i]) <= 0) {
+                newKeys[w] = added.get(ai++);
+                newOwners[w++] = slot;
+            }
+            newKeys[w] = keys[i];
+            newOwners[w++] = keyEntry[i];
+        }
+        while (ai < added.size()) {
+            newKeys[w] = added.get(ai++);
+            newOwners[w++] = slot;
+        }
+        return new AutocompleteIndex(newKeys, newOwners, t, d, nm, p);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String norm = normalize(prefix);
+        if (norm.isEmpty() || limit <= 0) return List.of();
+
+        int from = lowerBound(norm);
+        int to = lowerBound(norm + Character.MAX_VALUE);
+        if (from >= to) return List.of();
+
+        // Best-first walk of the segment tree restricted to [from, to): each pop yields the next
+        // most popular key; an entry reached through several of its keys is reported once
+        PriorityQueue<int[]> heap = new PriorityQueue<>((a, b) -> isBetter(keyEntry[a[1]], keyEntry[b[1]]) ? -1 : 1);
+        pushRange(heap, 1, 0, leaves, from, to);
+        List<Suggestion> out = new ArrayList<>(limit);
+        List<Integer> seen = new ArrayList<>(limit);
+        while (!heap.isEmpty() && out.size() < limit) {
+            int[] top = heap.poll();
+            int node = top[0];
+            if (node >= leaves) {
+                int e = keyEntry[top[1]];
+                if (names[e] != null && !seen.contains(e)) {
+                    seen.add(e);
+                    out.add(new Suggestion(types[e] == CATEGORY ? "category" : "product", ids[e], names[e]));
+                }
+            } else {
+                push(heap, 2 * node);
+                push(heap, 2 * node + 1);
+            }
+        }
+        return out;
+    }
+
+    // Decompose [from, to) into maximal tree nodes fully inside the range
+    private void pushRange(PriorityQueue<int[]> heap, int node, int lo, int hi, int from, int to) {
+        if (to <= lo || hi <= from) return;
+        if (from <= lo && hi <= to) {
+            push(heap, node);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        pushRange(heap, 2 * node, lo, mid, from, to);
+        pushRange(heap, 2 * node + 1, mid, hi, from, to);
+    }
+
+    private void push(PriorityQueue<int[]> heap, int node) {
+        if (tree[node] >= 0) heap.offer(new int[] {node, tree[node]});
+    }
+
+    private int betterKey(int a, int b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        return isBetter(keyEntry[b], keyEntry[a]) ? b : a;
+    }
+
+    // Live entries first, then popularity, then shorter names (closer to what was typed)
+    private boolean isBetter(int a, int b) {
+        if ((names[a] == null) != (names[b] == null)) return names[a] != null;
+        if (names[a] == null) return false;
+        if (popularity[a] != popularity[b]) return popularity[a] > popularity[b];
+        return names[a].length() < names[b].length();
+    }
+
+    private int lowerBound(String prefix) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // Lowercase, accents folded, single spaces between words
+    static String normalize(String text) {
+        if (text == null) return "";
+        String folded = MARKS.matcher(Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded).replaceAll(" ").trim();
+    }
+
+    // The whole name plus the remainder from each later word
+    private static List<String> keysOf(String name) {
+        String norm = normalize(name);
+        List<String> out = new ArrayList<>();
+        if (norm.isEmpty()) return out;
+        out.add(norm);
+        for (int i = norm.indexOf(' '); i >= 0; i = norm.indexOf(' ', i + 1)) {
+            out.add(norm.substring(i + 1));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,98 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.Suggestion;
+import com.PinoyHeritage.Backend.entity.Category;
+import com.PinoyHeritage.Backend.repository.CategoryRepository;
+import com.PinoyHeritage.Backend.repository.ProductOrderRepository;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type-ahead suggestions for product and category names, ranked by units sold.
+ * Built from the database at startup and on a schedule (to pick up new sales);
+ * name changes are merged into the current snapshot as soon as they commit.
+ */
+@Service
+public class AutocompleteService {
+
+    public static final int MAX_LIMIT = 20;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductOrderRepository productOrderRepository;
+
+    private volatile AutocompleteIndex index = AutocompleteIndex.EMPTY;
+
+    // Current popularity per product / category, reused for incremental updates
+    private volatile Map<Long, Long> productPopularity = Map.of();
+    private volatile Map<Long, Long> categoryPopularity = Map.of();
+
+    public AutocompleteService(ProductRepository productRepository,
+                               CategoryRepository categoryRepository,
+                               ProductOrderRepository productOrderRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productOrderRepository = productOrderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.autocomplete.refresh-ms:900000}",
+               fixedDelayString = "${app.autocomplete.refresh-ms:900000}")
+    public synchronized void rebuild() {
+        Map<Long, Long> units = new HashMap<>();
+        for (ProductOrderRepository.ProductUnits u : productOrderRepository.sumQuantityByProduct()) {
+            units.put(u.getProductId(), u.getUnits() == null ? 0L : u.getUnits());
+        }
+
+        List<AutocompleteIndex.Entry> entries = new ArrayList<>();
+        Map<Long, Long> catUnits = new HashMap<>();
+        for (ProductRepository.ProductName p : productRepository.findAllNames()) {
+            long pop = units.getOrDefault(p.getId(), 0L);
+            entries.add(new AutocompleteIndex.Entry(AutocompleteIndex.PRODUCT, p.getId(), p.getName(), pop));
+            if (p.getCategoryId() != null) catUnits.merge(p.getCategoryId(), pop, Long::sum);
+        }
+        for (Category c : categoryRepository.findAll()) {
+            entries.add(new AutocompleteIndex.Entry(AutocompleteIndex.CATEGORY, c.getId(), c.getName(),
+                    catUnits.getOrDefault(c.getId(), 0L)));
+        }
+
+        productPopularity = units;
+        categoryPopularity = catUnits;
+        index = AutocompleteIndex.build(entries);
+    }
+
+    public List<Suggestion> suggest(String prefix, Integer limit) {
+        int n = limit == null ? 8 : Math.max(1, Math.min(MAX_LIMIT, limit));
+        return index.suggest(prefix, n);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        long id = event.productId();
+        String name = event.deleted() ? null
+                : productRepository.findById(id).map(p -> p.getName()).orElse(null);
+        index = index.with(AutocompleteIndex.PRODUCT, id, name, productPopularity.getOrDefault(id, 0L));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCategoryChanged(CategoryChangedEvent event) {
+        long id = event.categoryId();
+        String name = event.deleted() ? null
+                : categoryRepository.findById(id).map(Category::getName).orElse(null);
+        index = index.with(AutocompleteIndex.CATEGORY, id, name, categoryPopularity.getOrDefault(id, 0L));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild();
+    }
+}
@@ -0,0 +1,124 @@
+package com.PinoyHeritage.Backend.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small in-process cache with a size bound (LRU) and a time-to-live per entry.
+ * Loads run outside the lock; a load that races with an invalidation is returned to its
+ * caller but not stored, so an evicted key can never be refilled with pre-write data.
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    // Bumped by every invalidation; a load only stores its value if no invalidation happened meanwhile
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    public BoundedCache(String name, int maxSize, long ttlSeconds) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        long gen;
+        synchronized (this) {
+            Entry<V> e = map.get(key);
+            if (e != null) {
+                if (e.expiresAt() - now > 0) {
+                    hits.increment();
+                    return e.value();
+                }
+                map.remove(key);
+                expirations.increment();
+            }
+            gen = generation.get();
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation.get() == gen) {
+                    map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    // For values known to be current (e.g. just committed), so the next get() is a hit
+    public synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized void invalidate(K key) {
+        generation.incrementAndGet();
+        if (map.remove(key) != null) invalidations.increment();
+    }
+
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.add(map.size());
+        map.clear();
+    }
+
+    // Drop expired entries so idle keys do not hold memory until they are touched again
+    public synchronized void cleanUp() {
+        long now = System.nanoTime();
+        Iterator<Entry<V>> it = map.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt() - now <= 0) {
+                it.remove();
+                expirations.increment();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlNanos / 1_000_000_000L);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+}
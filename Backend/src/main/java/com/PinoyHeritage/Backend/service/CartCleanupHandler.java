@@ -0,0 +1,41 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.PinoyHeritage.Backend.repository.CartItemRepository;
+import com.PinoyHeritage.Backend.repository.CartRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Removes the checked-out lines from the cart after an order is placed.
+ *
+ * Only lines up to the highest cart item id seen at checkout are deleted, so anything the
+ * customer added since stays. Until this runs, checkout already skips those lines (the cart's
+ * checked-out watermark), and both statements are safe to repeat.
+ */
+@Service
+public class CartCleanupHandler implements OutboxHandler {
+
+    private final CartItemRepository cartItemRepository;
+    private final CartRepository cartRepository;
+
+    public CartCleanupHandler(CartItemRepository cartItemRepository, CartRepository cartRepository) {
+        this.cartItemRepository = cartItemRepository;
+        this.cartRepository = cartRepository;
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(OutboxEvent.ORDER_PLACED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, JsonNode payload) {
+        if (!payload.hasNonNull("customerId") || !payload.hasNonNull("cartItemMaxId")) return;
+        Long customerId = payload.get("customerId").asLong();
+        cartItemRepository.deleteCheckedOut(customerId, payload.get("cartItemMaxId").asLong());
+        cartRepository.recalculateForCustomer(customerId);
+    }
+}
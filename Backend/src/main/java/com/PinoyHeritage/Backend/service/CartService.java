@@ -15,4 +15,6 @@ public interface CartService {
     void clearCart(Long customerId);
     List<CartItem> getCartItems(Long customerId);
     Double getCartTotal(Long customerId);
+    // Strong ETag from the cart's version counter (one indexed lookup, no items loaded)
+    String getCartEtag(Long customerId);
 }
@@ -15,7 +15,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -90,12 +89,12 @@ public class CartServiceImpl implements CartService {
         Double unitPrice = cartItem.getUnitPrice() != null ? cartItem.getUnitPrice() : 0.0;
         Double amount = quantity * unitPrice;
         String productName = cartItem.getProductName();
-        String productImage = cartItem.getProductImage();
+        // Cart and order lines show a thumbnail, never the full-size original
+        String productImage = ImageStorageService.renditionUrl(cartItem.getProductImage(), ImageStorageService.Rendition.THUMB);
         String size = cartItem.getSize();
 
-        // Check if item already exists in cart
-        Optional<CartItem> existingItem = cartItemRepository
-                .findByCartIdAndProductName(cart.getId(), productName);
+        // Check if item already exists in cart (lines already ordered don't count)
+        Optional<CartItem> existingItem = findOpenLine(cart, productName);
 
         if (existingItem.isPresent()) {
             // Update existing item
@@ -127,22 +126,16 @@ public class CartServiceImpl implements CartService {
             System.out.println("Created new cart item: " + newItem.getId());
         }
 
-        // Calculate total from all items for this customer
-        List<CartItem> allItems = cartItemRepository.findByCustomerId(customerId);
-        double total = 0.0;
-        for (CartItem item : allItems) {
-            if (item.getAmount() != null) {
-                total += item.getAmount();
-            }
-        }
-        cart.setTotalAmount(total);
+        // Calculate total from all open items for this customer
+        double total = openTotal(customerId);
         System.out.println("Cart total: " + total);
-        return cartRepository.save(cart);
+        return saveTotal(cart, total);
     }
 
     @Override
     public Cart updateCartItemQuantity(Long customerId, Long itemId, Integer quantity) {
-        Cart cart = getCartByCustomerId(customerId);
+        Cart cart = cartRepository.findByCustomerIdForUpdate(customerId)
+                .orElseThrow(() -> new RuntimeException("Cart not found for customer id: " + customerId));
 
         CartItem cartItem = cartItemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Cart item not found with id: " + itemId));
@@ -150,18 +143,21 @@ public class CartServiceImpl implements CartService {
         if (!cartItem.getCart().getId().equals(cart.getId())) {
             throw new RuntimeException("Cart item does not belong to customer's cart");
         }
+        if (isCheckedOut(cart, cartItem)) {
+            throw new RuntimeException("Cart item not found with id: " + itemId);
+        }
 
         cartItem.setQuantity(quantity);
-        cartItemRepository.save(cartItem);
+        cartItem.calculateAmount();
+        cartItemRepository.saveAndFlush(cartItem);
 
-        cart.calculateTotalAmount();
-        return cartRepository.save(cart);
+        return saveTotal(cart, openTotal(customerId));
     }
 
     @Override
     public Cart removeItemFromCart(Long customerId, Long itemId) {
         // Get cart without loading items to avoid Hibernate issues
-        Cart cart = cartRepository.findByCustomerId(customerId)
+        Cart cart = cartRepository.findByCustomerIdForUpdate(customerId)
                 .orElseThrow(() -> new RuntimeException("Cart not found for customer: " + customerId));
 
         CartItem cartItem = cartItemRepository.findById(itemId)
@@ -170,43 +166,37 @@ public class CartServiceImpl implements CartService {
         if (!cartItem.getCart().getId().equals(cart.getId())) {
             throw new RuntimeException("Cart item does not belong to customer's cart");
         }
+        if (isCheckedOut(cart, cartItem)) {
+            throw new RuntimeException("Cart item not found with id: " + itemId);
+        }
 
         cartItemRepository.delete(cartItem);
         cartItemRepository.flush();
 
-        // Recalculate total from remaining items
-        List<CartItem> remainingItems = cartItemRepository.findByCustomerId(customerId);
-        double total = remainingItems.stream()
-                .mapToDouble(item -> item.getAmount() != null ? item.getAmount() : 0.0)
-                .sum();
-        cart.setTotalAmount(total);
-        return cartRepository.save(cart);
+        // Recalculate total from remaining open items
+        return saveTotal(cart, openTotal(customerId));
     }
 
     @Override
     public void clearCart(Long customerId) {
-        // Get cart without loading items to avoid Hibernate cascade issues
-        Cart cart = cartRepository.findByCustomerId(customerId).orElse(null);
-        if (cart == null) return;
-        
-        // Delete items directly by customer_id to avoid cascade issues
-        cartItemRepository.deleteByCartId(cart.getId());
-        cartItemRepository.flush();
-
-        cart.setTotalAmount(0.0);
-        cartRepository.save(cart);
+        // Two bulk statements, no entities loaded (avoids Hibernate cascade issues too)
+        cartItemRepository.deleteAllForCustomer(customerId);
+        cartRepository.resetForCustomer(customerId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CartItem> getCartItems(Long customerId) {
-        // Use direct query to avoid lazy loading issues
-        List<CartItem> items = cartItemRepository.findByCustomerId(customerId);
-        if (items == null || items.isEmpty()) {
-            // Fallback: try via cart relationship
-            items = cartItemRepository.findByCartCustomerId(customerId);
-        }
-        return items != null ? items : new ArrayList<>();
+        // One query by customer_id or through the cart, without lines already checked out
+        return cartItemRepository.findOpenLines(customerId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCartEtag(Long customerId) {
+        return cartRepository.findVersionByCustomerId(customerId)
+                .map(v -> "\"cart-" + v.getId() + "-" + (v.getVersion() == null ? 0 : v.getVersion()) + "\"")
+                .orElse("\"cart-none\"");
     }
 
     @Override
@@ -240,7 +230,7 @@ public class CartServiceImpl implements CartService {
         double price = unitPrice != null ? unitPrice : 0.0;
         double amount = qty * price;
 
-        Optional<CartItem> existingItem = cartItemRepository.findByCartIdAndProductName(cart.getId(), productName);
+        Optional<CartItem> existingItem = findOpenLine(cart, productName);
 
         if (existingItem.isPresent()) {
             CartItem item = existingItem.get();
@@ -266,18 +256,34 @@ public class CartServiceImpl implements CartService {
             System.out.println("Created cart item ID: " + newItem.getId());
         }
 
-        List<CartItem> allItems = cartItemRepository.findByCustomerId(customerId);
-        double total = allItems.stream()
-                .mapToDouble(item -> item.getAmount() != null ? item.getAmount() : 0.0)
-                .sum();
-        cart.setTotalAmount(total);
+        double total = openTotal(customerId);
         System.out.println("Cart total: " + total);
-        
-        return cartRepository.save(cart);
+        return saveTotal(cart, total);
+    }
+
+    // Lines at or below the checkout watermark belong to a placed order and are about to be deleted
+    private static boolean isCheckedOut(Cart cart, CartItem item) {
+        return cart.getCheckedOutItemId() != null && item.getId() <= cart.getCheckedOutItemId();
+    }
+
+    private Optional<CartItem> findOpenLine(Cart cart, String productName) {
+        return cartItemRepository.findOpenLinesByProductName(cart.getId(), productName).stream().findFirst();
+    }
+
+    private double openTotal(Long customerId) {
+        Double total = cartItemRepository.sumOpenAmount(customerId);
+        return total != null ? total : 0.0;
+    }
+
+    // Writes the total and bumps the version in one UPDATE, then returns the fresh cart
+    private Cart saveTotal(Cart cart, double total) {
+        cartRepository.updateTotal(cart.getId(), total);
+        return cartRepository.findById(cart.getId()).orElseThrow();
     }
 
+    // Locked: a checkout running at the same time finishes first, or waits for this change
     private Cart getOrCreateCart(Long customerId) {
-        Optional<Cart> existingCart = cartRepository.findByCustomerId(customerId);
+        Optional<Cart> existingCart = cartRepository.findByCustomerIdForUpdate(customerId);
         if (existingCart.isPresent()) {
             return existingCart.get();
         }
@@ -0,0 +1,132 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.Category;
+import com.PinoyHeritage.Backend.entity.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the catalog (products and categories).
+ * The catalog only changes through the admin endpoints, so ProductService and CategoryService
+ * invalidate the affected entries on every write; the TTL only bounds staleness for changes
+ * made outside the application (e.g. direct SQL).
+ */
+@Component
+public class CatalogCache {
+
+    private static final String ALL = "all";
+
+    // Row count plus newest updated_at of both catalog tables: any insert, update or delete
+    // moves at least one of them, whichever instance (or SQL session) made the change
+    private static final String FINGERPRINT =
+            "SELECT (SELECT COUNT(*) FROM product), (SELECT MAX(updated_at) FROM product), " +
+            "(SELECT COUNT(*) FROM category), (SELECT MAX(updated_at) FROM category)";
+
+    private final BoundedCache<String, List<Product>> productLists;
+    private final BoundedCache<Long, Product> productsById;
+    private final BoundedCache<String, List<Category>> categoryLists;
+    private final BoundedCache<String, String> etags;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Bumped on every catalog write; anything rendered from an older version is stale
+    private final AtomicLong version = new AtomicLong();
+
+    public CatalogCache(JdbcTemplate jdbcTemplate,
+                        @Value("${app.cache.catalog.max-size:10000}") int maxSize,
+                        @Value("${app.cache.catalog.ttl-seconds:300}") long ttlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.etags = new BoundedCache<>("catalogEtag", 1, ttlSeconds);
+        this.productLists = new BoundedCache<>("productLists", 16, ttlSeconds);
+        this.productsById = new BoundedCache<>("productsById", maxSize, ttlSeconds);
+        this.categoryLists = new BoundedCache<>("categoryLists", 16, ttlSeconds);
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Strong ETag of everything derived from the current catalog, taken from persisted state
+     * so it survives restarts and agrees across instances. Cached like the catalog itself:
+     * local writes drop it, changes made elsewhere show up within the TTL.
+     */
+    public String etag() {
+        return etags.get(ALL, k -> jdbcTemplate.queryForObject(FINGERPRINT, (rs, n) ->
+                "\"cat-" + Long.toHexString(rs.getLong(1)) + "-" + micros(rs.getTimestamp(2))
+                        + "-" + Long.toHexString(rs.getLong(3)) + "-" + micros(rs.getTimestamp(4)) + "\""));
+    }
+
+    private static String micros(Timestamp ts) {
+        if (ts == null) return "0";
+        return Long.toHexString(ts.getTime() / 1000 * 1_000_000 + ts.getNanos() / 1000);
+    }
+
+    public List<Product> allProducts(Supplier<List<Product>> loader) {
+        return productLists.get(ALL, k -> List.copyOf(loader.get()));
+    }
+
+    public Product productById(Long id, Function<Long, Product> loader) {
+        return productsById.get(id, loader);
+    }
+
+    public List<Category> allCategories(Supplier<List<Category>> loader) {
+        return categoryLists.get(ALL, k -> List.copyOf(loader.get()));
+    }
+
+    // A single product changed (created, edited, image, stock, deleted)
+    public void evictProduct(Long id) {
+        evictNowAndAfterCommit(() -> {
+            if (id != null) productsById.invalidate(id);
+            productLists.invalidateAll();
+        });
+    }
+
+    // Categories are embedded in every product, so a category change also drops the products
+    public void evictCategories() {
+        evictNowAndAfterCommit(() -> {
+            categoryLists.invalidateAll();
+            productLists.invalidateAll();
+            productsById.invalidateAll();
+        });
+    }
+
+    // Inside a transaction a concurrent reader could still load the pre-commit row, so evict again once committed
+    private void evictNowAndAfterCommit(Runnable eviction) {
+        version.incrementAndGet();
+        etags.invalidateAll();
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                    etags.invalidateAll();
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.catalog.cleanup-ms:60000}")
+    public void cleanUp() {
+        productLists.cleanUp();
+        productsById.cleanUp();
+        categoryLists.cleanUp();
+        etags.cleanUp();
+    }
+
+    public List<Map<String, Object>> stats() {
+        return List.of(productLists.stats(), productsById.stats(), categoryLists.stats());
+    }
+}
@@ -0,0 +1,7 @@
+package com.PinoyHeritage.Backend.service;
+
+/**
+ * Published after a bulk write (e.g. a product import) that touched too many products
+ * to report one by one; listeners rebuild their in-memory structures from scratch.
+ */
+public record CatalogReloadedEvent(long productsChanged) {}
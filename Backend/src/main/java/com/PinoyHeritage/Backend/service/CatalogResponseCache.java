@@ -0,0 +1,125 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized-once responses for the catalog read endpoints.
+ * The JSON (and a pre-gzipped copy) is rendered once per catalog version and query string,
+ * then copied straight to the servlet output stream; Jackson only runs again after
+ * ProductService / CategoryService bump the catalog version.
+ */
+@Component
+public class CatalogResponseCache {
+
+    // Below this size gzip costs more than it saves
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final CatalogCache catalogCache;
+    private final ObjectMapper objectMapper;
+    private final BoundedCache<String, Rendered> rendered;
+
+    public record Rendered(long version, byte[] json, byte[] gzip) {}
+
+    public CatalogResponseCache(CatalogCache catalogCache, ObjectMapper objectMapper,
+                                @Value("${app.cache.responses.max-size:512}") int maxSize,
+                                @Value("${app.cache.catalog.ttl-seconds:300}") long ttlSeconds) {
+        this.catalogCache = catalogCache;
+        this.objectMapper = objectMapper;
+        this.rendered = new BoundedCache<>("catalogResponses", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Write the cached rendering of the body for this request, rendering it first if needed.
+     * A null body is answered with 404 and not cached.
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, Supplier<?> body) throws IOException {
+        // Conditional GET: the catalog fingerprint is the ETag, so a 304 loads no entity at all
+        boolean gzip = acceptsGzip(request);
+        String etag = catalogCache.etag();
+        if (gzip) etag = etag.substring(0, etag.length() - 1) + "-gz\"";
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        String key = keyOf(request);
+        long version = catalogCache.version();
+        Rendered r = rendered.get(key, k -> render(version, body));
+        if (r != null && r.version() != version) {
+            // Rendered before the last catalog write: replace it
+            rendered.invalidate(key);
+            r = rendered.get(key, k -> render(version, body));
+        }
+        if (r == null) {
+            response.setHeader(HttpHeaders.ETAG, null);
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        byte[] bytes = r.json();
+        if (r.gzip() != null && gzip) {
+            bytes = r.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    public Map<String, Object> stats() {
+        return rendered.stats();
+    }
+
+    private Rendered render(long version, Supplier<?> body) {
+        Object value = body.get();
+        if (value == null) return null;
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Rendered(version, json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+
+    // Path plus query parameters in a canonical order, so ?a=1&b=2 and ?b=2&a=1 share an entry
+    private static String keyOf(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+        char sep = '?';
+        for (Map.Entry<String, String[]> e : params.entrySet()) {
+            for (String v : e.getValue()) {
+                key.append(sep).append(e.getKey()).append('=').append(v);
+                sep = '&';
+            }
+        }
+        return key.toString();
+    }
+}
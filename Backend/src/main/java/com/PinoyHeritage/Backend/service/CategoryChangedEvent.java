@@ -0,0 +1,6 @@
+package com.PinoyHeritage.Backend.service;
+
+/**
+ * Published by CategoryService after a category is created, renamed or deleted.
+ */
+public record CategoryChangedEvent(Long categoryId, boolean deleted) {}
@@ -2,6 +2,7 @@ package com.PinoyHeritage.Backend.service;
 
 import com.PinoyHeritage.Backend.entity.Category;
 import com.PinoyHeritage.Backend.repository.CategoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,13 +12,18 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository repository;
+    private final CatalogCache catalogCache;
+    private final ApplicationEventPublisher events;
 
-    public CategoryService(CategoryRepository repository) {
+    public CategoryService(CategoryRepository repository, CatalogCache catalogCache,
+                           ApplicationEventPublisher events) {
         this.repository = repository;
+        this.catalogCache = catalogCache;
+        this.events = events;
     }
 
     public List<Category> getAllCategories() {
-        return repository.findAll();
+        return catalogCache.allCategories(repository::findAll);
     }
 
     public Optional<Category> getCategoryById(Long id) {
@@ -25,20 +31,28 @@ public class CategoryService {
     }
 
     public Category addCategory(Category category) {
-        return repository.save(category);
+        Category saved = repository.save(category);
+        catalogCache.evictCategories();
+        events.publishEvent(new CategoryChangedEvent(saved.getId(), false));
+        return saved;
     }
 
     public Category updateCategory(Long id, Category updatedCategory) {
         return repository.findById(id)
                 .map(category -> {
                     category.setName(updatedCategory.getName());
-                    return repository.save(category);
+                    Category saved = repository.save(category);
+                    catalogCache.evictCategories();
+                    events.publishEvent(new CategoryChangedEvent(id, false));
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Category not found"));
     }
 
     public void deleteCategory(Long id) {
         repository.deleteById(id);
+        catalogCache.evictCategories();
+        events.publishEvent(new CategoryChangedEvent(id, true));
     }
 
     // New helper: find by name
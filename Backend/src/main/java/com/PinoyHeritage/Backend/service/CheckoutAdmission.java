@@ -0,0 +1,204 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.CheckoutTicket;
+import com.PinoyHeritage.Backend.dto.CheckoutTicket.Status;
+import com.PinoyHeritage.Backend.entity.Order;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for checkout.
+ *
+ * At most max-in-flight checkouts run at once (each holds a database connection for several
+ * round trips), which leaves the rest of the connection pool to browsing. When a permit is free
+ * and nobody is waiting the checkout runs on the request thread as before. Otherwise it gets a
+ * ticket in a bounded FIFO queue, the request returns immediately, and the customer polls the
+ * ticket while a fixed set of workers drains the queue in arrival order. A full queue is
+ * rejected straight away instead of tying up a Tomcat thread.
+ */
+@Service
+public class CheckoutAdmission {
+
+    private static final class Entry {
+        final String ticketId;
+        final Long customerId;
+        final long seq;
+        final long createdAt = System.currentTimeMillis();
+        final Callable<Order> checkout;
+        volatile Status status = Status.QUEUED;
+        volatile Long orderId;
+        volatile String error;
+        volatile Object errorDetails;
+        volatile Long finishedAt;
+
+        Entry(String ticketId, Long customerId, long seq, Callable<Order> checkout) {
+            this.ticketId = ticketId;
+            this.customerId = customerId;
+            this.seq = seq;
+            this.checkout = checkout;
+        }
+    }
+
+    private final int maxInFlight;
+    private final int queueCapacity;
+    private final long retentionMs;
+    private final Semaphore permits;
+    private final BlockingQueue<Entry> queue;
+    private final Thread[] workers;
+
+    private final Map<String, Entry> tickets = new ConcurrentHashMap<>();
+    // One live ticket per customer: a second click is refused with the first ticket, never a second order
+    private final Map<Long, Entry> activeByCustomer = new ConcurrentHashMap<>();
+
+    // Tickets handed out / picked up by a worker; the difference is the queue position
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final LongAdder admittedDirect = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CheckoutAdmission(@Value("${app.checkout.max-in-flight:8}") int maxInFlight,
+                             @Value("${app.checkout.queue-capacity:500}") int queueCapacity,
+                             @Value("${app.checkout.ticket-retention-ms:600000}") long retentionMs) {
+        this.maxInFlight = maxInFlight;
+        this.queueCapacity = queueCapacity;
+        this.retentionMs = retentionMs;
+        this.permits = new Semaphore(maxInFlight, true);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity, true);
+        this.workers = new Thread[maxInFlight];
+        for (int i = 0; i < maxInFlight; i++) {
+            workers[i] = new Thread(this::drain, "checkout-worker-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Thread worker : workers) worker.interrupt();
+    }
+
+    // Fast path: a permit is free and nobody is queued. The caller must call exit() when done
+    public boolean tryEnterNow() {
+        if (!queue.isEmpty()) return false;
+        // Timed tryAcquire honours fairness, so the fast path never overtakes a waiting worker
+        try {
+            if (!permits.tryAcquire(0, TimeUnit.SECONDS)) return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        admittedDirect.increment();
+        return true;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    /**
+     * Queue a checkout and return its ticket.
+     * Throws CheckoutAlreadyQueuedException (carrying the existing ticket) when the customer's previous
+     * checkout is still queued or running, and RejectedExecutionException when the queue is full.
+     */
+    public synchronized CheckoutTicket enqueue(Long customerId, Callable<Order> checkout) {
+        Entry existing = activeByCustomer.get(customerId);
+        if (existing != null) throw new CheckoutAlreadyQueuedException(snapshot(existing));
+
+        Entry entry = new Entry(UUID.randomUUID().toString(), customerId, enqueued.get(), checkout);
+        if (!queue.offer(entry)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Checkout queue is full");
+        }
+        enqueued.incrementAndGet();
+        tickets.put(entry.ticketId, entry);
+        activeByCustomer.put(customerId, entry);
+        return snapshot(entry);
+    }
+
+    public CheckoutTicket ticket(String ticketId) {
+        Entry entry = tickets.get(ticketId);
+        return entry == null ? null : snapshot(entry);
+    }
+
+    // Seconds a rejected client should wait: roughly one queue turnover at the current limit
+    public long retryAfterSeconds() {
+        return Math.max(1, Math.min(30, queue.size() / Math.max(1, maxInFlight)));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("maxInFlight", maxInFlight);
+        m.put("inFlight", maxInFlight - permits.availablePermits());
+        m.put("queued", queue.size());
+        m.put("queueCapacity", queueCapacity);
+        m.put("admittedDirect", admittedDirect.sum());
+        m.put("admittedFromQueue", started.get());
+        m.put("rejected", rejected.sum());
+        return m;
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Entry entry;
+            try {
+                entry = queue.take();
+                permits.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            started.incrementAndGet();
+            entry.status = Status.PROCESSING;
+            try {
+                Order order = entry.checkout.call();
+                entry.orderId = order != null ? order.getId() : null;
+                entry.status = Status.DONE;
+            } catch (OutOfStockException e) {
+                entry.error = e.getMessage();
+                entry.errorDetails = e.getShortages();
+                entry.status = Status.FAILED;
+            } catch (Exception e) {
+                entry.error = e.getMessage();
+                entry.status = Status.FAILED;
+            } finally {
+                entry.finishedAt = System.currentTimeMillis();
+                activeByCustomer.remove(entry.customerId, entry);
+                permits.release();
+            }
+        }
+    }
+
+    private CheckoutTicket snapshot(Entry entry) {
+        CheckoutTicket t = new CheckoutTicket(entry.ticketId, entry.customerId);
+        Status status = entry.status;
+        t.setStatus(status);
+        t.setCreatedAt(entry.createdAt);
+        t.setPosition(status == Status.QUEUED ? Math.max(0, entry.seq - started.get()) : 0);
+        t.setOrderId(entry.orderId);
+        t.setError(entry.error);
+        t.setErrorDetails(entry.errorDetails);
+        t.setFinishedAt(entry.finishedAt);
+        return t;
+    }
+
+    // Finished tickets stay pollable for a while, then go
+    @Scheduled(fixedDelayString = "${app.checkout.ticket-cleanup-ms:60000}")
+    public void purgeFinished() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        tickets.values().removeIf(e -> e.finishedAt != null && e.finishedAt < cutoff);
+    }
+}
@@ -0,0 +1,21 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.CheckoutTicket;
+
+/**
+ * Thrown when a customer starts a checkout while an earlier one is still waiting or running.
+ * The new request is not queued; the ticket is the one already in progress.
+ */
+public class CheckoutAlreadyQueuedException extends RuntimeException {
+
+    private final CheckoutTicket ticket;
+
+    public CheckoutAlreadyQueuedException(CheckoutTicket ticket) {
+        super("A checkout for this customer is already in progress");
+        this.ticket = ticket;
+    }
+
+    public CheckoutTicket getTicket() {
+        return ticket;
+    }
+}
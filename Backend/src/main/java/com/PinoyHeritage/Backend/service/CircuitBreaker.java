@@ -0,0 +1,91 @@
+package com.PinoyHeritage.Backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consecutive-failure circuit breaker around a remote dependency.
+ *
+ * Closed: calls go through; `threshold` failures in a row open it. Open: calls are refused for
+ * `openMs`, so a provider outage costs one refused check per call instead of a timeout each.
+ * Half-open: after that, a single trial call is let through; its success closes the breaker,
+ * its failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int threshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public CircuitBreaker(String name, int threshold, long openMs) {
+        this.name = name;
+        this.threshold = Math.max(1, threshold);
+        this.openMs = openMs;
+    }
+
+    /** True if a call may be made now; every permitted call must end in recordSuccess, recordFailure or release. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMs) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        boolean allowed = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> !trialInFlight;
+        };
+        if (!allowed) {
+            rejected.increment();
+        } else if (state == State.HALF_OPEN) {
+            trialInFlight = true;
+        }
+        return allowed;
+    }
+
+    /** A permitted call that was not made after all (nothing to call for). */
+    public synchronized void release() {
+        trialInFlight = false;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= threshold)) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            opened.increment();
+            System.out.println("[CircuitBreaker] " + name + " opened after " + consecutiveFailures + " failures");
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("name", name);
+        m.put("state", state.name());
+        m.put("consecutiveFailures", consecutiveFailures);
+        m.put("rejected", rejected.sum());
+        m.put("opened", opened.sum());
+        return m;
+    }
+}
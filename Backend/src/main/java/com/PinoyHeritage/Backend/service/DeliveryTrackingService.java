@@ -0,0 +1,365 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.BulkStatusResult;
+import com.PinoyHeritage.Backend.dto.DeliveryIngestReport;
+import com.PinoyHeritage.Backend.dto.DeliveryTracking;
+import com.PinoyHeritage.Backend.entity.DeliveryEvent;
+import com.PinoyHeritage.Backend.entity.OrderStatus;
+import com.PinoyHeritage.Backend.repository.DeliveryEventRepository;
+import com.PinoyHeritage.Backend.repository.DeliveryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delivery tracking fed by courier status updates.
+ *
+ * Updates arrive as JSON Lines, one scan per line:
+ *   {"orderId": 42, "status": "In Transit", "location": "Pasig Hub", "at": "2026-03-14T09:30:00",
+ *    "courier": "LBC", "trackingNumber": "LBC123", "address": "..."}
+ * (trackingNumber may replace orderId once the delivery exists). The input is read in chunks;
+ * each chunk resolves tracking numbers and checks the orders with one IN query each, then in
+ * one transaction sends JDBC batches for the timeline events, the delivery rows of newly
+ * reported orders and the delivery updates (one row per order: its latest scan). Feeds
+ * resend and reorder scans: a duplicate event is ignored and an older scan never replaces a
+ * newer status. Pick-up and delivery scans also move the order to Shipped / Delivered through
+ * the order state machine, which notifies the customer.
+ *
+ * The per-order tracking read is cached briefly and dropped when a chunk touching the order
+ * commits.
+ */
+@Service
+public class DeliveryTrackingService {
+
+    // Courier statuses, as stored
+    public static final List<String> STATUSES =
+            List.of("Pending", "Picked Up", "In Transit", "Out for Delivery", "Delivered", "Failed Attempt", "Returned");
+
+    // Scans that move the order along
+    private static final Set<String> SHIPPED_SCANS = Set.of("Picked Up", "In Transit", "Out for Delivery");
+    private static final String DELIVERED_SCAN = "Delivered";
+
+    private static final String INSERT_EVENT =
+            "INSERT IGNORE INTO delivery_event (order_id, status, location, event_at, received_at) VALUES (?, ?, ?, ?, ?)";
+    // Orders the courier reports for the first time get a row, then every reported order is updated
+    private static final String INSERT_DELIVERY =
+            "INSERT IGNORE INTO delivery (order_id, address, status, updated_at) VALUES (?, '', 'Pending', ?)";
+    // Status, location and time come from the scan only when it is not older than the one already
+    // applied; each CASE reads the old last_event_at, which is assigned last
+    private static final String NEWER = "(last_event_at IS NULL OR last_event_at <= ?)";
+    private static final String UPDATE_DELIVERY =
+            "UPDATE delivery SET address = COALESCE(?, address), courier = COALESCE(?, courier), " +
+            "tracking_number = COALESCE(?, tracking_number), " +
+            "status = CASE WHEN " + NEWER + " THEN ? ELSE status END, " +
+            "location = CASE WHEN " + NEWER + " THEN COALESCE(?, location) ELSE location END, " +
+            "updated_at = ?, " +
+            "last_event_at = CASE WHEN " + NEWER + " THEN ? ELSE last_event_at END " +
+            "WHERE order_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DeliveryRepository deliveryRepository;
+    private final DeliveryEventRepository deliveryEventRepository;
+    private final OrderService orderService;
+    private final BoundedCache<Long, DeliveryTracking> tracking;
+    private final int chunkSize;
+
+    // One parsed input line; orderId is filled in from the tracking number when missing
+    private record Update(long line, Long orderId, String trackingNumber, String status, String location,
+                          LocalDateTime at, String courier, String address) {
+        Update withOrderId(Long id) {
+            return new Update(line, id, trackingNumber, status, location, at, courier, address);
+        }
+    }
+
+    public DeliveryTrackingService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   ObjectMapper objectMapper, DeliveryRepository deliveryRepository,
+                                   DeliveryEventRepository deliveryEventRepository, OrderService orderService,
+                                   @Value("${app.delivery.chunk-size:500}") int chunkSize,
+                                   @Value("${app.delivery.cache-size:10000}") int cacheSize,
+                                   @Value("${app.delivery.cache-ttl-seconds:30}") long cacheTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.deliveryRepository = deliveryRepository;
+        this.deliveryEventRepository = deliveryEventRepository;
+        this.orderService = orderService;
+        this.tracking = new BoundedCache<>("deliveryTracking", cacheSize, cacheTtlSeconds);
+        this.chunkSize = chunkSize;
+    }
+
+    // ---------------------------------------------------------------------
+    // Tracking read
+    // ---------------------------------------------------------------------
+
+    /** The order's delivery with its latest scans, or null if the courier has not reported it yet. */
+    public DeliveryTracking getTracking(Long orderId) {
+        return tracking.get(orderId, this::loadTracking);
+    }
+
+    public Map<String, Object> cacheStats() {
+        return tracking.stats();
+    }
+
+    private DeliveryTracking loadTracking(Long orderId) {
+        DeliveryRepository.DeliveryView d = deliveryRepository.findViewByOrderId(orderId).orElse(null);
+        if (d == null) return null;
+        DeliveryTracking t = new DeliveryTracking();
+        t.setOrderId(d.getOrderId());
+        t.setStatus(d.getStatus());
+        t.setAddress(d.getAddress());
+        t.setCourier(d.getCourier());
+        t.setTrackingNumber(d.getTrackingNumber());
+        t.setLocation(d.getLocation());
+        t.setLastEventAt(d.getLastEventAt());
+        for (DeliveryEvent e : deliveryEventRepository.findTop50ByOrderIdOrderByEventAtDesc(orderId)) {
+            t.getEvents().add(new DeliveryTracking.Event(e.getStatus(), e.getLocation(), e.getEventAt()));
+        }
+        return t;
+    }
+
+    // ---------------------------------------------------------------------
+    // Ingest
+    // ---------------------------------------------------------------------
+
+    public DeliveryIngestReport ingest(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        DeliveryIngestReport report = new DeliveryIngestReport();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024)) {
+            List<Update> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                report.setLinesRead(report.getLinesRead() + 1);
+                try {
+                    chunk.add(parse(lineNo, line));
+                } catch (Exception e) {
+                    report.addError(lineNo, e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) writeChunk(chunk, report);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMs(elapsedNanos / 1_000_000);
+        report.setLinesPerSecond(elapsedNanos == 0 ? 0 : report.getLinesRead() * 1e9 / elapsedNanos);
+        return report;
+    }
+
+    private void writeChunk(List<Update> chunk, DeliveryIngestReport report) {
+        List<Update> rows = resolve(chunk, report);
+        if (rows.isEmpty()) return;
+        try {
+            Long advanced = transactionTemplate.execute(status -> apply(rows));
+            report.setApplied(report.getApplied() + rows.size());
+            report.setOrdersAdvanced(report.getOrdersAdvanced() + (advanced != null ? advanced : 0));
+        } catch (Exception chunkFailure) {
+            // The chunk was rolled back; redo it row by row so only the bad rows are reported
+            for (Update row : rows) {
+                try {
+                    Long advanced = transactionTemplate.execute(status -> apply(List.of(row)));
+                    report.setApplied(report.getApplied() + 1);
+                    report.setOrdersAdvanced(report.getOrdersAdvanced() + (advanced != null ? advanced : 0));
+                } catch (Exception e) {
+                    report.addError(row.line(), rootMessage(e));
+                }
+            }
+        } finally {
+            for (Update row : rows) tracking.invalidate(row.orderId());
+        }
+    }
+
+    // Fill in order ids from tracking numbers and drop lines for unknown orders (two IN queries)
+    private List<Update> resolve(List<Update> chunk, DeliveryIngestReport report) {
+        // A number may be introduced earlier in the same chunk (the pick-up scan carries both)
+        Map<String, Long> byNumber = new HashMap<>();
+        Set<String> numbers = new HashSet<>();
+        for (Update u : chunk) {
+            if (u.orderId() != null && u.trackingNumber() != null) byNumber.put(u.trackingNumber(), u.orderId());
+        }
+        for (Update u : chunk) {
+            if (u.orderId() == null && !byNumber.containsKey(u.trackingNumber())) numbers.add(u.trackingNumber());
+        }
+        if (!numbers.isEmpty()) {
+            namedJdbcTemplate.query("SELECT order_id, tracking_number FROM delivery WHERE tracking_number IN (:numbers)",
+                    new MapSqlParameterSource("numbers", numbers),
+                    rs -> { byNumber.putIfAbsent(rs.getString("tracking_number"), rs.getLong("order_id")); });
+        }
+
+        List<Update> rows = new ArrayList<>(chunk.size());
+        Set<Long> orderIds = new HashSet<>();
+        for (Update u : chunk) {
+            Long orderId = u.orderId() != null ? u.orderId() : byNumber.get(u.trackingNumber());
+            if (orderId == null) {
+                report.addError(u.line(), "Unknown tracking number: " + u.trackingNumber());
+                continue;
+            }
+            rows.add(u.withOrderId(orderId));
+            orderIds.add(orderId);
+        }
+        if (rows.isEmpty()) return rows;
+
+        Set<Long> existing = new HashSet<>();
+        namedJdbcTemplate.query("SELECT id FROM order_table WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", orderIds),
+                rs -> { existing.add(rs.getLong("id")); });
+        List<Update> known = new ArrayList<>(rows.size());
+        for (Update u : rows) {
+            if (existing.contains(u.orderId())) known.add(u);
+            else report.addError(u.line(), "Order not found: " + u.orderId());
+        }
+        return known;
+    }
+
+    // Returns the number of orders whose status changed
+    private long apply(List<Update> rows) {
+        List<Update> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(Update::orderId).thenComparing(Update::at));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> events = new ArrayList<>(sorted.size());
+        // Latest scan per order, plus the courier details seen anywhere in the chunk
+        Map<Long, Update> latest = new LinkedHashMap<>();
+        Map<Long, String[]> details = new HashMap<>();
+        Set<Long> shipped = new LinkedHashSet<>();
+        Set<Long> delivered = new LinkedHashSet<>();
+        for (Update u : sorted) {
+            events.add(new Object[] {u.orderId(), u.status(), u.location(), Timestamp.valueOf(u.at()), now});
+            latest.put(u.orderId(), u);
+            String[] d = details.computeIfAbsent(u.orderId(), k -> new String[3]);
+            if (u.courier() != null) d[0] = u.courier();
+            if (u.trackingNumber() != null) d[1] = u.trackingNumber();
+            if (u.address() != null) d[2] = u.address();
+            if (SHIPPED_SCANS.contains(u.status())) shipped.add(u.orderId());
+            if (DELIVERED_SCAN.equals(u.status())) {
+                // Shipped first, so an order still Pending can reach Delivered in one feed
+                shipped.add(u.orderId());
+                delivered.add(u.orderId());
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events);
+
+        List<Object[]> inserts = new ArrayList<>(latest.size());
+        List<Object[]> updates = new ArrayList<>(latest.size());
+        for (Update u : latest.values()) {
+            String[] d = details.get(u.orderId());
+            Timestamp at = Timestamp.valueOf(u.at());
+            inserts.add(new Object[] {u.orderId(), now});
+            updates.add(new Object[] {d[2], d[0], d[1], at, u.status(), at, u.location(), now, at, at, u.orderId()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_DELIVERY, inserts);
+        jdbcTemplate.batchUpdate(UPDATE_DELIVERY, updates);
+
+        // Orders that cannot make the move (already further along, cancelled) are skipped
+        long advanced = 0;
+        if (!shipped.isEmpty()) {
+            BulkStatusResult r = orderService.bulkUpdateStatus(shipped, OrderStatus.SHIPPED.label());
+            advanced += r.getUpdated().size();
+        }
+        if (!delivered.isEmpty()) {
+            BulkStatusResult r = orderService.bulkUpdateStatus(delivered, OrderStatus.DELIVERED.label());
+            advanced += r.getUpdated().size();
+        }
+        return advanced;
+    }
+
+    // ---------------------------------------------------------------------
+    // Parsing
+    // ---------------------------------------------------------------------
+
+    private Update parse(long lineNo, String line) throws IOException {
+        JsonNode n = objectMapper.readTree(line);
+        if (n == null || !n.isObject()) throw new IllegalArgumentException("Expected a JSON object");
+
+        Long orderId = null;
+        if (n.hasNonNull("orderId")) {
+            if (!n.get("orderId").canConvertToLong()) throw new IllegalArgumentException("Invalid orderId");
+            orderId = n.get("orderId").asLong();
+        }
+        String trackingNumber = limit(text(n.get("trackingNumber")), 64, "trackingNumber");
+        if (orderId == null && trackingNumber == null) {
+            throw new IllegalArgumentException("Missing orderId or trackingNumber");
+        }
+        String status = normalizeStatus(text(n.get("status")));
+        String at = text(n.get("at"));
+        if (at == null) throw new IllegalArgumentException("Missing at");
+
+        return new Update(lineNo, orderId, trackingNumber, status, limit(text(n.get("location")), 255, "location"),
+                parseTime(at), limit(text(n.get("courier")), 64, "courier"), limit(text(n.get("address")), 255, "address"));
+    }
+
+    // "in_transit", "IN TRANSIT" and "In Transit" are the same status
+    static String normalizeStatus(String status) {
+        if (status == null) throw new IllegalArgumentException("Missing status");
+        String s = status.trim().replace('_', ' ').replace('-', ' ');
+        for (String known : STATUSES) {
+            if (known.equalsIgnoreCase(s)) return known;
+        }
+        throw new IllegalArgumentException("Unknown delivery status: " + status);
+    }
+
+    // Local time as stored elsewhere; an offset, if given, is converted to the server's zone
+    private static LocalDateTime parseTime(String at) {
+        try {
+            return LocalDateTime.parse(at);
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(at).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            } catch (DateTimeParseException e2) {
+                throw new IllegalArgumentException("Invalid at: " + at);
+            }
+        }
+    }
+
+    private static String limit(String value, int max, String field) {
+        if (value != null && value.length() > max) throw new IllegalArgumentException(field + " is too long");
+        return value;
+    }
+
+    private static String text(JsonNode node) {
+        if (node == null || node.isNull()) return null;
+        String s = node.asText().trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable t = e;
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage();
+    }
+}
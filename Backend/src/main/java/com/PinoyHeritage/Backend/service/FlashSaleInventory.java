@@ -0,0 +1,346 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.HotProduct;
+import com.PinoyHeritage.Backend.repository.HotProductRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flash-sale ("hot product") inventory.
+ *
+ * For products switched into hot mode, checkout no longer touches the product row. The stock is
+ * split across striped counters and a reservation is a CAS on one stripe (borrowing from the
+ * others when it runs dry), so thousands of buyers of the same product never queue on one row
+ * lock. A background task writes the net decrement to product.stock every flush interval.
+ *
+ * Crash safety: the hot_product row keeps a baseline (stock and the highest order line id at the
+ * time hot mode was switched on). On startup, stock is recomputed as baseline minus the units of
+ * every later order line, which covers decrements that were granted but never flushed.
+ *
+ * Switch hot mode on before the sale opens: a regular checkout that is already past its stock
+ * update when the switch happens can be counted twice by the recovery formula (it errs toward
+ * selling less, never more).
+ */
+@Service
+public class FlashSaleInventory implements SmartInitializingSingleton {
+
+    public enum Outcome { RESERVED, INSUFFICIENT, NOT_HOT }
+
+    // Ints 16 apart sit on different 64-byte cache lines, so stripes do not false-share
+    private static final int PAD = 16;
+    // A stripe holding this value is closed: hot mode is being switched off
+    private static final int CLOSED = Integer.MIN_VALUE;
+
+    private static final class HotStock {
+        final long productId;
+        final int stripes;
+        final AtomicIntegerArray counters;
+        final LongAdder reservations = new LongAdder();
+        // Only touched under the service lock (enable / flush / disable)
+        long allocated;
+        long flushed;
+        long lastReservations;
+        long lastFlushAt = System.currentTimeMillis();
+        long lastRateAt = lastFlushAt;
+        double reservationsPerSecond;
+
+        HotStock(long productId, int stripes, int stock) {
+            this.productId = productId;
+            this.stripes = stripes;
+            this.counters = new AtomicIntegerArray(stripes * PAD);
+            this.allocated = stock;
+            for (int i = 0; i < stripes; i++) {
+                counters.set(i * PAD, stock / stripes + (i < stock % stripes ? 1 : 0));
+            }
+        }
+
+        long available() {
+            long sum = 0;
+            for (int i = 0; i < stripes; i++) {
+                int v = counters.get(i * PAD);
+                if (v > 0) sum += v;
+            }
+            return sum;
+        }
+
+        /**
+         * Take qty units, borrowing across stripes. Returns qty on success; otherwise nothing is
+         * taken and the result is minus the units that could not be handed back because their
+         * stripe was closed meanwhile (those have to go back to the product row).
+         */
+        int tryTake(int qty) {
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            int need = qty;
+            int[] taken = null;
+            for (int k = 0; k < stripes && need > 0; k++) {
+                int idx = ((start + k) % stripes) * PAD;
+                while (true) {
+                    int v = counters.get(idx);
+                    if (v <= 0) break;
+                    int take = Math.min(v, need);
+                    if (counters.compareAndSet(idx, v, v - take)) {
+                        if (take < qty) {
+                            if (taken == null) taken = new int[stripes];
+                            taken[idx / PAD] += take;
+                        }
+                        need -= take;
+                        break;
+                    }
+                }
+            }
+            if (need == 0) return qty;
+            // Not enough across all stripes: hand back the partial take
+            int stranded = 0;
+            if (taken != null) {
+                for (int i = 0; i < stripes; i++) {
+                    if (taken[i] > 0 && !giveBack(i * PAD, taken[i])) stranded += taken[i];
+                }
+            }
+            return -stranded;
+        }
+
+        // False if the stripe was closed meanwhile; the caller returns the units to the row instead
+        boolean giveBack(int idx, int qty) {
+            while (true) {
+                int v = counters.get(idx);
+                if (v == CLOSED) return false;
+                if (counters.compareAndSet(idx, v, v + qty)) return true;
+            }
+        }
+
+        // Close every stripe and return what was left in them
+        long drain() {
+            long left = 0;
+            for (int i = 0; i < stripes; i++) {
+                int v = counters.getAndSet(i * PAD, CLOSED);
+                if (v > 0) left += v;
+            }
+            return left;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNew;
+    private final HotProductRepository hotProductRepository;
+    private final CatalogCache catalogCache;
+    private final int stripeCount;
+
+    private final Map<Long, HotStock> hot = new ConcurrentHashMap<>();
+
+    public FlashSaleInventory(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              HotProductRepository hotProductRepository, CatalogCache catalogCache,
+                              @Value("${app.flash-sale.stripes:0}") int stripes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.hotProductRepository = hotProductRepository;
+        this.catalogCache = catalogCache;
+        this.stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    public boolean isHot(Long productId) {
+        return productId != null && hot.containsKey(productId);
+    }
+
+    public boolean anyHot() {
+        return !hot.isEmpty();
+    }
+
+    // Lock-free; NOT_HOT means the caller should use the regular row update
+    public Outcome tryReserve(Long productId, int qty) {
+        HotStock stock = productId == null ? null : hot.get(productId);
+        if (stock == null) return Outcome.NOT_HOT;
+        int result = stock.tryTake(qty);
+        if (result == qty) {
+            stock.reservations.increment();
+            return Outcome.RESERVED;
+        }
+        if (result < 0) returnToRow(productId, -result);
+        // Closed stripes (hot mode being switched off) also land here: the row is only up to date
+        // once disable() has flushed, so refusing is the safe answer until then
+        return Outcome.INSUFFICIENT;
+    }
+
+    public void release(Long productId, int qty) {
+        HotStock stock = hot.get(productId);
+        int stripe = stock == null ? 0 : ThreadLocalRandom.current().nextInt(stock.stripes) * PAD;
+        if (stock == null || !stock.giveBack(stripe, qty)) {
+            returnToRow(productId, qty);
+        }
+    }
+
+    /**
+     * Units of a placed order coming back (e.g. its payment failed). They are recorded on the
+     * hot_product row in the caller's transaction, so startup recovery counts them, and reach the
+     * counters once that commits. A product that is no longer hot gets them on its row instead.
+     */
+    public void returnUnits(Long productId, int qty) {
+        int recorded = jdbcTemplate.update(
+                "UPDATE hot_product SET returned_units = returned_units + ? WHERE product_id = ?", qty, productId);
+        if (recorded == 0) {
+            jdbcTemplate.update("UPDATE product SET stock = stock + ? WHERE id = ?", qty, productId);
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(productId, qty);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(productId, qty);
+            }
+        });
+    }
+
+    // Units that missed a closing stripe. Own transaction: the caller's may be about to roll back
+    private void returnToRow(Long productId, int qty) {
+        requiresNew.executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE product SET stock = stock + ? WHERE id = ?", qty, productId));
+    }
+
+    public long available(Long productId) {
+        HotStock stock = hot.get(productId);
+        return stock == null ? 0 : stock.available();
+    }
+
+    /**
+     * Move a product's stock into memory. The product row is locked while the baseline is taken so
+     * no regular checkout can change it in between.
+     */
+    public synchronized void enable(Long productId) {
+        if (hot.containsKey(productId)) return;
+        Integer stock;
+        try {
+            stock = transactionTemplate.execute(status -> {
+                List<Integer> rows = jdbcTemplate.queryForList(
+                        "SELECT stock FROM product WHERE id = ? FOR UPDATE", Integer.class, productId);
+                if (rows.isEmpty()) throw new RuntimeException("Product not found with id: " + productId);
+                int current = rows.get(0) == null ? 0 : Math.max(0, rows.get(0));
+                Long maxLine = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM product_order", Long.class);
+                hotProductRepository.save(new HotProduct(productId, current, maxLine));
+                // Hand the stock to the counters before the row lock is released
+                hot.put(productId, new HotStock(productId, stripeCount, current));
+                return current;
+            });
+        } catch (RuntimeException e) {
+            hot.remove(productId);
+            throw e;
+        }
+        System.out.println("[FlashSale] Product " + productId + " is hot with " + stock + " units in " + stripeCount + " stripes");
+    }
+
+    // Flush what was sold and hand the stock back to the product row
+    public synchronized void disable(Long productId) {
+        HotStock stock = hot.get(productId);
+        if (stock == null) return;
+        long left = stock.drain();
+        long delta = (stock.allocated - left) - stock.flushed;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (delta != 0) {
+                jdbcTemplate.update("UPDATE product SET stock = stock - ? WHERE id = ?", delta, productId);
+            }
+            hotProductRepository.deleteById(productId);
+        });
+        hot.remove(productId);
+        catalogCache.evictProduct(productId);
+        System.out.println("[FlashSale] Product " + productId + " is no longer hot (" + left + " units left)");
+    }
+
+    // Write-behind: one batch with the net decrement of every hot product since the last flush
+    @Scheduled(fixedDelayString = "${app.flash-sale.flush-ms:500}")
+    public synchronized void flush() {
+        if (hot.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        List<Object[]> args = new ArrayList<>();
+        List<HotStock> changed = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        for (HotStock stock : hot.values()) {
+            // A level, not a delta: a racing multi-stripe reservation is simply picked up next time
+            long delta = (stock.allocated - stock.available()) - stock.flushed;
+            long reservations = stock.reservations.sum();
+            stock.reservationsPerSecond = (reservations - stock.lastReservations) * 1000.0 / Math.max(1, now - stock.lastRateAt);
+            stock.lastReservations = reservations;
+            stock.lastRateAt = now;
+            if (delta == 0) {
+                stock.lastFlushAt = now;
+                continue;
+            }
+            args.add(new Object[] {delta, stock.productId});
+            changed.add(stock);
+            deltas.add(delta);
+        }
+        if (args.isEmpty()) return;
+        try {
+            jdbcTemplate.batchUpdate("UPDATE product SET stock = stock - ? WHERE id = ?", args);
+        } catch (RuntimeException e) {
+            // Nothing is marked flushed; the same level is written again next time
+            System.out.println("[FlashSale] Flush failed: " + e.getMessage());
+            return;
+        }
+        for (int i = 0; i < changed.size(); i++) {
+            HotStock stock = changed.get(i);
+            stock.flushed += deltas.get(i);
+            stock.lastFlushAt = now;
+            catalogCache.evictProduct(stock.productId);
+        }
+    }
+
+    public synchronized List<Map<String, Object>> stats() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (HotStock stock : hot.values()) {
+            long available = stock.available();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("productId", stock.productId);
+            m.put("stripes", stock.stripes);
+            m.put("available", available);
+            m.put("reservations", stock.reservations.sum());
+            m.put("reservationsPerSecond", Math.round(stock.reservationsPerSecond * 10) / 10.0);
+            m.put("unflushedUnits", (stock.allocated - available) - stock.flushed);
+            m.put("flushLagMs", now - stock.lastFlushAt);
+            out.add(m);
+        }
+        return out;
+    }
+
+    /**
+     * Startup reconciliation, before the web server takes traffic: recompute the stock of every
+     * product that was hot when the application stopped and load it back into memory.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (HotProduct row : hotProductRepository.findAll()) {
+            Long sold = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(quantity), 0) FROM product_order WHERE product_id = ? AND id > ?",
+                    Long.class, row.getProductId(), row.getBaselineLineId());
+            long returned = row.getReturnedUnits() == null ? 0 : row.getReturnedUnits();
+            int stock = (int) Math.max(0, row.getBaselineStock() - sold + returned);
+            int updated = jdbcTemplate.update("UPDATE product SET stock = ? WHERE id = ?", stock, row.getProductId());
+            if (updated == 0) {
+                hotProductRepository.delete(row);
+                continue;
+            }
+            hot.put(row.getProductId(), new HotStock(row.getProductId(), stripeCount, stock));
+            System.out.println("[FlashSale] Recovered product " + row.getProductId() + " with " + stock + " units");
+        }
+    }
+}
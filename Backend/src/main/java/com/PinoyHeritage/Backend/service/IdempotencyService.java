@@ -0,0 +1,214 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.IdempotencyRecord;
+import com.PinoyHeritage.Backend.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for requests that must not run twice (checkout).
+ *
+ * A repeated key is answered from the stored record: first from a small in-memory cache of
+ * recent keys, otherwise with one indexed lookup. A duplicate arriving while the first request
+ * is still running waits for that execution and gets the same response. Only successful
+ * outcomes are recorded, and they are recorded inside the transaction that produced them, so a
+ * failed attempt (out of stock, empty cart, crash) can simply be retried with the same key.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private record InFlight(String requestHash, CompletableFuture<ResponseEntity<?>> result) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BoundedCache<String, IdempotencyRecord> recent;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final long waitMs;
+    private final long retentionMs;
+
+    public IdempotencyService(IdempotencyRecordRepository repository, JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${app.idempotency.cache-ttl-seconds:900}") long cacheTtlSeconds,
+                              @Value("${app.idempotency.wait-ms:30000}") long waitMs,
+                              @Value("${app.idempotency.retention-ms:86400000}") long retentionMs) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.recent = new BoundedCache<>("idempotencyKeys", cacheSize, cacheTtlSeconds);
+        this.waitMs = waitMs;
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * Run the action once per (customer, key). Replays the stored or in-flight response for a
+     * repeated key, and refuses a key reused with different request parameters.
+     */
+    public ResponseEntity<?> execute(Long customerId, String key, String requestHash,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters"));
+        }
+        String cacheKey = customerId + ":" + key;
+
+        IdempotencyRecord stored = find(customerId, key);
+        if (stored != null) return replay(stored, requestHash);
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) return awaitRunning(running, requestHash);
+
+        try {
+            // Re-check: the first execution may have finished between the lookup and putIfAbsent
+            stored = find(customerId, key);
+            ResponseEntity<?> response = stored != null ? replay(stored, requestHash) : action.get();
+            mine.result().complete(response);
+            return response;
+        } catch (DataIntegrityViolationException e) {
+            // Same key committed by another instance first: our order was rolled back, answer with theirs
+            IdempotencyRecord winner = repository.findByCustomerIdAndIdemKey(customerId, key).orElse(null);
+            if (winner == null) {
+                mine.result().completeExceptionally(e);
+                throw e;
+            }
+            ResponseEntity<?> response = replay(winner, requestHash);
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    /**
+     * Record a successful outcome. Must run inside the transaction that produced it; the record
+     * becomes visible (and cached) only once that commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long customerId, String key, String requestHash, int status, Object body, Long orderId) {
+        IdempotencyRecord rec = new IdempotencyRecord();
+        rec.setCustomerId(customerId);
+        rec.setIdemKey(key);
+        rec.setRequestHash(requestHash);
+        rec.setResponseStatus(status);
+        try {
+            rec.setResponseBody(objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Response is not serializable", e);
+        }
+        rec.setOrderId(orderId);
+        IdempotencyRecord saved = repository.saveAndFlush(rec);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recent.put(customerId + ":" + key, saved);
+            }
+        });
+    }
+
+    public static String hash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update((part == null ? "\u0000" : part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0x1f);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = recent.stats();
+        m.put("inFlight", inFlight.size());
+        return m;
+    }
+
+    private IdempotencyRecord find(Long customerId, String key) {
+        return recent.get(customerId + ":" + key,
+                k -> repository.findByCustomerIdAndIdemKey(customerId, key).orElse(null));
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord rec, String requestHash) {
+        if (!rec.getRequestHash().equals(requestHash)) return keyReused();
+        return ResponseEntity.status(rec.getResponseStatus())
+                .header(REPLAYED_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rec.getResponseBody());
+    }
+
+    private ResponseEntity<?> awaitRunning(InFlight running, String requestHash) {
+        if (!running.requestHash().equals(requestHash)) return keyReused();
+        try {
+            ResponseEntity<?> response = running.result().get(waitMs, TimeUnit.MILLISECONDS);
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(h -> {
+                        h.addAll(response.getHeaders());
+                        h.set(REPLAYED_HEADER, "true");
+                    })
+                    .body(response.getBody());
+        } catch (ExecutionException e) {
+            // Same failure as the original (e.g. OutOfStockException), rendered by the same handler
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A request with this Idempotency-Key is still in progress"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Interrupted"));
+        }
+    }
+
+    private static ResponseEntity<?> keyReused() {
+        return ResponseEntity.unprocessableEntity()
+                .body(Map.of("error", "Idempotency-Key was already used with a different request"));
+    }
+
+    // Keys only need to outlive client retries; old records are deleted in small chunks
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-ms:3600000}")
+    public void purgeExpired() {
+        recent.cleanUp();
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(retentionMs)));
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM idempotency_record WHERE created_at < ? LIMIT 1000", cutoff);
+        } while (deleted == 1000);
+    }
+}
@@ -0,0 +1,272 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.service.ImageStorageService.Rendition;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the thumb / card / full JPEG renditions of a stored original.
+ *
+ * Each original is decoded once and scaled down in a cascade (full → card → thumb), so the
+ * smaller sizes are made from an already reduced image. Work runs on a pool with one thread
+ * per core and a bounded queue; when the queue is full the caller does the work itself, which
+ * keeps the number of decoded images in memory bounded under an upload burst.
+ */
+@Service
+public class ImageRenditionService {
+
+    // Anything larger is refused rather than decoded (a 40 MP RGB image is already ~160 MB)
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final String[] ORIGINAL_TYPES = {"jpeg", "png", "gif"};
+
+    private final ImageStorageService imageStorage;
+    private final float jpegQuality;
+    private final ExecutorService pool;
+
+    // One generation per original at a time; concurrent requests for the same image share it
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageRenditionService(ImageStorageService imageStorage,
+                                 @Value("${app.images.rendition-quality:0.82}") float jpegQuality) {
+        this.imageStorage = imageStorage;
+        this.jpegQuality = jpegQuality;
+        int cores = Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(cores, cores, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(cores * 4),
+                r -> {
+                    Thread t = new Thread(r, "image-rendition-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Generate the renditions for a stored image URL and wait for them.
+     * Returns false if the URL is not a decodable original; when the original exists but the decoder
+     * rejects it, its rendition names are linked to the original, so rendition URLs still resolve.
+     */
+    public boolean generate(String imageUrl) {
+        String hash = originalHash(imageUrl);
+        return hash != null && await(submit(hash));
+    }
+
+    /**
+     * Make sure a requested rendition file exists, generating it from its original on first use
+     * (images stored before renditions existed). Returns the file, or null if it cannot be made.
+     */
+    public Path ensure(String fileName) {
+        Path file = imageStorage.resolveStored(fileName);
+        if (file == null || Files.isRegularFile(file)) return file;
+        String key = ImageStorageService.hashOf(fileName);
+        int dash = key.indexOf('-');
+        if (dash < 0) return null;
+        await(submit(key.substring(0, dash)));
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    private CompletableFuture<Boolean> submit(String hash) {
+        CompletableFuture<Boolean> existing = inFlight.get(hash);
+        if (existing != null) return existing;
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(hash, future);
+        if (existing != null) return existing;
+
+        pool.execute(() -> {
+            try {
+                future.complete(render(hash));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                inFlight.remove(hash, future);
+            }
+        });
+        return future;
+    }
+
+    private static boolean await(CompletableFuture<Boolean> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            System.out.println("[ImageRendition] Failed: " + e.getCause().getMessage());
+            return false;
+        }
+    }
+
+    private boolean render(String hash) throws IOException {
+        Path original = findOriginal(hash);
+        if (original == null) return false;
+
+        BufferedImage image;
+        try {
+            image = decode(original);
+        } catch (IOException e) {
+            System.out.println("[ImageRendition] Cannot decode " + original.getFileName() + ": " + e.getMessage());
+            image = null;
+        }
+        if (image == null) {
+            // Rejected by the decoder (e.g. CMYK JPEG, oversized): serve the original under every rendition name
+            for (Rendition rendition : Rendition.values()) {
+                linkOriginal(original, imageStorage.getImagesDir().resolve(ImageStorageService.renditionName(hash, rendition)));
+            }
+            return false;
+        }
+
+        // Largest first; each step scales the previous result
+        for (Rendition rendition : new Rendition[] {Rendition.FULL, Rendition.CARD, Rendition.THUMB}) {
+            image = scaleDown(image, rendition.maxEdge());
+            Path target = imageStorage.getImagesDir().resolve(ImageStorageService.renditionName(hash, rendition));
+            if (!Files.exists(target)) writeJpeg(image, target);
+        }
+        return true;
+    }
+
+    private Path findOriginal(String hash) {
+        for (String type : ORIGINAL_TYPES) {
+            Path p = imageStorage.getImagesDir().resolve(hash + "." + type);
+            if (Files.isRegularFile(p)) return p;
+        }
+        return null;
+    }
+
+    // Reads the header first so oversized images are rejected before any pixels are allocated
+    private static BufferedImage decode(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    System.out.println("[ImageRendition] Skipping oversized image " + file.getFileName());
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Fit within maxEdge, halving with bilinear filtering until the last step so large
+     * reductions do not alias. Always returns an opaque RGB image (JPEG has no alpha),
+     * with transparent areas flattened onto white. Never upscales.
+     */
+    static BufferedImage scaleDown(BufferedImage src, int maxEdge) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(w, h));
+        int targetW = Math.max(1, (int) Math.round(w * scale));
+        int targetH = Math.max(1, (int) Math.round(h * scale));
+
+        BufferedImage current = src;
+        do {
+            int nextW = Math.max(targetW, w / 2);
+            int nextH = Math.max(targetH, h / 2);
+            if (w <= targetW * 2) {
+                nextW = targetW;
+                nextH = targetH;
+            }
+            BufferedImage next = new BufferedImage(nextW, nextH, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, nextW, nextH);
+                g.drawImage(current, 0, 0, nextW, nextH, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+            w = nextW;
+            h = nextH;
+        } while (w != targetW || h != targetH);
+        return current;
+    }
+
+    // Written to a temp file and moved into place, so a half-written rendition is never served
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), "rendition-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Stored files never change, so a hard link is as good as a copy; fall back to copying where links are unsupported
+    private static void linkOriginal(Path original, Path target) throws IOException {
+        if (Files.exists(target)) return;
+        try {
+            Files.createLink(target, original);
+        } catch (FileAlreadyExistsException e) {
+            // Linked concurrently
+        } catch (UnsupportedOperationException | IOException e) {
+            Path tmp = Files.createTempFile(target.getParent(), "rendition-", ".tmp");
+            try {
+                Files.copy(original, tmp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    private static String originalHash(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(ImageStorageService.URL_PREFIX)) return null;
+        String fileName = imageUrl.substring(ImageStorageService.URL_PREFIX.length());
+        String key = ImageStorageService.hashOf(fileName);
+        return key != null && key.indexOf('-') < 0 ? key : null;
+    }
+}
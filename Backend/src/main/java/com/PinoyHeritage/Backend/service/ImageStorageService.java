@@ -0,0 +1,194 @@
+package com.PinoyHeritage.Backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image store under the uploads directory.
+ * Every image is written once to uploads/images/{sha256}.{ext}; the product only keeps the short URL,
+ * so identical uploads share one file and a stored file never changes (safe to cache forever).
+ */
+@Service
+public class ImageStorageService {
+
+    public static final String URL_PREFIX = "/uploads/images/";
+
+    // {64 hex chars}[-{rendition}].{ext} - anything else is not ours and is never served as immutable
+    private static final Pattern STORED_NAME = Pattern.compile("([0-9a-f]{64}(?:-(?:thumb|card|full))?)\\.(jpeg|png|gif|webp)");
+    private static final Pattern ORIGINAL_URL = Pattern.compile(Pattern.quote(URL_PREFIX) + "([0-9a-f]{64})\\.(jpeg|png|gif)");
+    private static final Pattern DATA_URI = Pattern.compile("^data:image/([a-zA-Z]+);base64,(.*)$", Pattern.DOTALL);
+
+    /** Downscaled JPEG copies generated from an original, bounded by their longest edge. */
+    public enum Rendition {
+        THUMB(160), CARD(480), FULL(1200);
+
+        private final int maxEdge;
+
+        Rendition(int maxEdge) {
+            this.maxEdge = maxEdge;
+        }
+
+        public int maxEdge() { return maxEdge; }
+
+        public String suffix() { return "-" + name().toLowerCase(); }
+    }
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int MAGIC_LENGTH = 12;
+
+    private final Path imagesDir;
+
+    public ImageStorageService(@Value("${app.uploads.dir:uploads}") String uploadsDir) {
+        this.imagesDir = Paths.get(uploadsDir, "images").toAbsolutePath().normalize();
+    }
+
+    public Path getImagesDir() {
+        return imagesDir;
+    }
+
+    // Stream an upload to disk while hashing it; the request is never held in memory as a whole
+    public String store(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, getImageType(file.getOriginalFilename()));
+        }
+    }
+
+    public String store(byte[] bytes, String imageType) throws IOException {
+        try (InputStream in = new java.io.ByteArrayInputStream(bytes)) {
+            return store(in, imageType);
+        }
+    }
+
+    /**
+     * Copy a stream into the store through a fixed 64 KB buffer, hashing each chunk as it passes.
+     * The type is taken from the file's magic bytes (imageType is only a hint); anything that is
+     * not JPEG, PNG, GIF or WebP is rejected with IllegalArgumentException before it is stored.
+     */
+    public String store(InputStream in, String imageType) throws IOException {
+        Files.createDirectories(imagesDir);
+        Path tmp = Files.createTempFile(imagesDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            String detected = null;
+            try (ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                // Fill at least the header before sniffing (a channel read may return fewer bytes)
+                while (buffer.position() < MAGIC_LENGTH && source.read(buffer) >= 0) { }
+                detected = sniffType(buffer.array(), buffer.position());
+                if (detected == null) {
+                    throw new IllegalArgumentException("Unsupported image type"
+                            + (imageType != null ? " (declared " + imageType + ")" : ""));
+                }
+                do {
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) target.write(buffer);
+                    buffer.clear();
+                } while (source.read(buffer) >= 0);
+            }
+            String fileName = HexFormat.of().formatHex(digest.digest()) + "." + detected;
+            Path target = imagesDir.resolve(fileName);
+            // Same content already stored: keep the existing file, the temp copy is dropped below
+            if (!Files.exists(target)) {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return URL_PREFIX + fileName;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Image type from the leading bytes, or null if it is not a format we store
+    static String sniffType(byte[] b, int len) {
+        if (len >= 3 && (b[0] & 0xff) == 0xff && (b[1] & 0xff) == 0xd8 && (b[2] & 0xff) == 0xff) return "jpeg";
+        if (len >= 8 && (b[0] & 0xff) == 0x89 && b[1] == 'P' && b[2] == 'N' && b[3] == 'G'
+                && b[4] == 0x0d && b[5] == 0x0a && b[6] == 0x1a && b[7] == 0x0a) return "png";
+        if (len >= 6 && b[0] == 'G' && b[1] == 'I' && b[2] == 'F' && b[3] == '8'
+                && (b[4] == '7' || b[4] == '9') && b[5] == 'a') return "gif";
+        if (len >= 12 && b[0] == 'R' && b[1] == 'I' && b[2] == 'F' && b[3] == 'F'
+                && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') return "webp";
+        return null;
+    }
+
+    /**
+     * Decode a legacy "data:image/...;base64," value into the store.
+     * Returns null if the value is not a data URI.
+     */
+    public String storeDataUri(String dataUri) throws IOException {
+        if (dataUri == null) return null;
+        Matcher m = DATA_URI.matcher(dataUri);
+        if (!m.matches()) return null;
+        byte[] bytes = Base64.getMimeDecoder().decode(m.group(2));
+        return store(bytes, m.group(1));
+    }
+
+    public static boolean isDataUri(String value) {
+        return value != null && value.startsWith("data:");
+    }
+
+    // Resolve a stored file name (as it appears after URL_PREFIX); null if it is not a content-addressed name
+    public Path resolveStored(String fileName) {
+        if (fileName == null || !STORED_NAME.matcher(fileName).matches()) return null;
+        return imagesDir.resolve(fileName);
+    }
+
+    // File name of a rendition of the original {sha256}.{ext}; the original's hash keeps it content-addressed
+    public static String renditionName(String hash, Rendition rendition) {
+        return hash + rendition.suffix() + ".jpeg";
+    }
+
+    /**
+     * URL of a rendition for a stored image URL. Values that are not originals we can decode
+     * (legacy data URIs, external URLs, WebP) are returned unchanged.
+     */
+    public static String renditionUrl(String imageUrl, Rendition rendition) {
+        if (imageUrl == null) return null;
+        Matcher m = ORIGINAL_URL.matcher(imageUrl);
+        return m.matches() ? URL_PREFIX + renditionName(m.group(1), rendition) : imageUrl;
+    }
+
+    // Content key of a stored file name (hash, plus the rendition suffix), used as its strong ETag
+    public static String hashOf(String fileName) {
+        if (fileName == null) return null;
+        Matcher m = STORED_NAME.matcher(fileName);
+        return m.matches() ? m.group(1) : null;
+    }
+
+    // Helper method to determine image type from filename
+    public static String getImageType(String filename) {
+        if (filename == null) return "jpeg";
+        String lower = filename.toLowerCase();
+        if (lower.endsWith(".png")) return "png";
+        if (lower.endsWith(".gif")) return "gif";
+        if (lower.endsWith(".webp")) return "webp";
+        return "jpeg";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.ImageUploadStatus;
+import com.PinoyHeritage.Backend.dto.ImageUploadStatus.State;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous product image uploads.
+ *
+ * The request thread only streams the upload into the image store (bounded buffer, hashed and
+ * type-checked on the way) - that has to happen while the multipart temp file still exists.
+ * Rendition generation and the product update run on a small worker pool, and the caller
+ * polls {@link #status(String)} until the job is DONE or FAILED.
+ */
+@Service
+public class ImageUploadService {
+
+    private final ImageStorageService imageStorage;
+    private final ImageRenditionService renditions;
+    private final ProductService productService;
+    private final long retentionMs;
+    private final ExecutorService workers;
+
+    private final Map<String, ImageUploadStatus> jobs = new ConcurrentHashMap<>();
+
+    public ImageUploadService(ImageStorageService imageStorage, ImageRenditionService renditions,
+                              ProductService productService,
+                              @Value("${app.images.upload-workers:2}") int workerCount,
+                              @Value("${app.images.upload-queue:100}") int queueSize,
+                              @Value("${app.images.upload-status-retention-ms:3600000}") long retentionMs) {
+        this.imageStorage = imageStorage;
+        this.renditions = renditions;
+        this.productService = productService;
+        this.retentionMs = retentionMs;
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "image-upload-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Store the file and queue the rest of the work.
+     * Throws IllegalArgumentException for a non-image upload and RejectedExecutionException
+     * when the queue is full.
+     */
+    public ImageUploadStatus submit(Long productId, MultipartFile file) throws IOException {
+        if (productService.getProductById(productId).isEmpty()) {
+            throw new RuntimeException("Product not found with id: " + productId);
+        }
+        String imageUrl = imageStorage.store(file);
+
+        ImageUploadStatus status = new ImageUploadStatus(UUID.randomUUID().toString(), productId);
+        status.setImageUrl(imageUrl);
+        jobs.put(status.getJobId(), status);
+        try {
+            workers.execute(() -> process(status.getJobId(), productId, imageUrl));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(status.getJobId());
+            throw e;
+        }
+        return status;
+    }
+
+    public ImageUploadStatus status(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private void process(String jobId, Long productId, String imageUrl) {
+        update(jobId, s -> s.setState(State.PROCESSING));
+        try {
+            boolean rendered = renditions.generate(imageUrl);
+            productService.setProductImage(productId, imageUrl);
+            update(jobId, s -> {
+                s.setThumbnailUrl(rendered
+                        ? ImageStorageService.renditionUrl(imageUrl, ImageStorageService.Rendition.THUMB)
+                        : imageUrl);
+                s.setState(State.DONE);
+                s.setFinishedAt(System.currentTimeMillis());
+            });
+        } catch (Exception e) {
+            System.out.println("[ImageUpload] Job " + jobId + " failed: " + e.getMessage());
+            update(jobId, s -> {
+                s.setError(e.getMessage());
+                s.setState(State.FAILED);
+                s.setFinishedAt(System.currentTimeMillis());
+            });
+        }
+    }
+
+    // Mutations go through the map so a polling thread always sees a complete state change
+    private void update(String jobId, java.util.function.Consumer<ImageUploadStatus> change) {
+        jobs.computeIfPresent(jobId, (k, s) -> {
+            change.accept(s);
+            return s;
+        });
+    }
+
+    // Finished jobs are kept for a while so a slow poller still gets the result
+    @Scheduled(fixedDelayString = "${app.images.upload-status-cleanup-ms:300000}")
+    public void purgeFinished() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        jobs.values().removeIf(s -> s.getFinishedAt() != null && s.getFinishedAt() < cutoff);
+    }
+}
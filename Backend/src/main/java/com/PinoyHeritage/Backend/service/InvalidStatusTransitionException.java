@@ -0,0 +1,19 @@
+package com.PinoyHeritage.Backend.service;
+
+/**
+ * Thrown when an order status change is not allowed by OrderStatus (for example Delivered →
+ * Pending, or an unknown status). The order is left unchanged.
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    private final String currentStatus;
+
+    public InvalidStatusTransitionException(String currentStatus, String requestedStatus) {
+        super("Cannot change order status from " + currentStatus + " to " + requestedStatus);
+        this.currentStatus = currentStatus;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+}
@@ -0,0 +1,163 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.StockShortage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock reservation for checkout.
+ *
+ * Every line is a conditional decrement (UPDATE ... SET stock = stock - ? WHERE id = ? AND stock >= ?),
+ * so the check and the write happen in one statement under the row lock and concurrent checkouts
+ * can never take the same unit twice. All lines of an order go to the database as one JDBC batch,
+ * sorted by product id so two orders touching the same products always lock them in the same
+ * order and cannot deadlock each other.
+ *
+ * Products in flash-sale mode are reserved in memory by FlashSaleInventory instead; the row
+ * update only runs for the remaining lines.
+ */
+@Service
+public class InventoryService {
+
+    public record StockLine(Long productId, int quantity) {}
+
+    private static final String DECREMENT = "UPDATE product SET stock = stock - ? WHERE id = ? AND stock >= ?";
+    private static final String INCREMENT = "UPDATE product SET stock = stock + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final FlashSaleInventory flashSale;
+
+    public InventoryService(JdbcTemplate jdbcTemplate, FlashSaleInventory flashSale) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.flashSale = flashSale;
+    }
+
+    /**
+     * Take stock for every line, or for none of them.
+     * Lines for the same product are merged; lines without a product are ignored.
+     * Throws OutOfStockException (rolling back the whole batch) listing every line that fell short.
+     */
+    @Transactional
+    public void reserve(List<StockLine> lines) {
+        Map<Long, Integer> wanted = merge(lines);
+        if (wanted.isEmpty()) return;
+
+        Map<Long, Integer> hotTaken = reserveHot(wanted);
+        if (!hotTaken.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // In-memory units are not part of the transaction: give them back if the caller's transaction
+            // (e.g. the rest of checkout) rolls back, whether it fails here or later
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) hotTaken.forEach(flashSale::release);
+                }
+            });
+            reserveRows(wanted, hotTaken);
+            return;
+        }
+        try {
+            reserveRows(wanted, hotTaken);
+        } catch (RuntimeException e) {
+            hotTaken.forEach(flashSale::release);
+            throw e;
+        }
+    }
+
+    // Lock-free part for flash-sale products; all of them or none
+    private Map<Long, Integer> reserveHot(Map<Long, Integer> wanted) {
+        Map<Long, Integer> taken = new TreeMap<>();
+        List<StockShortage> shortages = new ArrayList<>();
+        for (Map.Entry<Long, Integer> e : wanted.entrySet()) {
+            switch (flashSale.tryReserve(e.getKey(), e.getValue())) {
+                case RESERVED -> taken.put(e.getKey(), e.getValue());
+                case INSUFFICIENT -> shortages.add(new StockShortage(e.getKey(), null, e.getValue(),
+                        (int) flashSale.available(e.getKey())));
+                case NOT_HOT -> { }
+            }
+        }
+        if (!shortages.isEmpty()) {
+            taken.forEach(flashSale::release);
+            throw new OutOfStockException(shortages);
+        }
+        return taken;
+    }
+
+    private void reserveRows(Map<Long, Integer> wanted, Map<Long, Integer> skip) {
+        List<Long> ids = new ArrayList<>(wanted.size());
+        List<Object[]> args = new ArrayList<>(wanted.size());
+        for (Map.Entry<Long, Integer> e : wanted.entrySet()) {
+            if (skip.containsKey(e.getKey())) continue;
+            ids.add(e.getKey());
+            args.add(new Object[] {e.getValue(), e.getKey(), e.getValue()});
+        }
+        if (args.isEmpty()) return;
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT, args);
+
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                // Without per-row counts a short line would go unnoticed; refuse rather than oversell
+                throw new IllegalStateException("JDBC driver did not report update counts for the stock batch");
+            }
+            if (counts[i] == 0) failed.add(ids.get(i));
+        }
+        if (!failed.isEmpty()) {
+            throw new OutOfStockException(shortages(failed, wanted));
+        }
+    }
+
+    // Give stock back, e.g. for a cancelled order
+    @Transactional
+    public void release(List<StockLine> lines) {
+        Map<Long, Integer> returned = merge(lines);
+        List<Object[]> args = new ArrayList<>(returned.size());
+        for (Map.Entry<Long, Integer> e : returned.entrySet()) {
+            if (flashSale.isHot(e.getKey())) {
+                flashSale.returnUnits(e.getKey(), e.getValue());
+            } else {
+                args.add(new Object[] {e.getValue(), e.getKey()});
+            }
+        }
+        if (!args.isEmpty()) jdbcTemplate.batchUpdate(INCREMENT, args);
+    }
+
+    // TreeMap: ascending product id is the lock order
+    private static Map<Long, Integer> merge(List<StockLine> lines) {
+        Map<Long, Integer> merged = new TreeMap<>();
+        for (StockLine line : lines) {
+            if (line.productId() == null || line.quantity() <= 0) continue;
+            merged.merge(line.productId(), line.quantity(), Integer::sum);
+        }
+        return merged;
+    }
+
+    private List<StockShortage> shortages(List<Long> productIds, Map<Long, Integer> wanted) {
+        Map<Long, StockShortage> byId = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, name, stock FROM product WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", productIds),
+                rs -> {
+                    long id = rs.getLong("id");
+                    byId.put(id, new StockShortage(id, rs.getString("name"), wanted.get(id), rs.getInt("stock")));
+                });
+        List<StockShortage> out = new ArrayList<>(productIds.size());
+        for (Long id : productIds) {
+            // A product deleted mid-checkout has nothing left
+            out.add(byId.getOrDefault(id, new StockShortage(id, null, wanted.get(id), 0)));
+        }
+        return out;
+    }
+}
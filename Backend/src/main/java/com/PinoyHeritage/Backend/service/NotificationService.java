@@ -18,9 +18,9 @@ public class NotificationService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    // The customer is only referenced (no SELECT); the foreign key rejects an unknown id
     public Notification createNotification(Long customerId, Long orderId, String message) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        Customer customer = customerRepository.getReferenceById(customerId);
 
         Notification n = new Notification();
         n.setCustomer(customer);
@@ -37,6 +37,12 @@ public class NotificationService {
         return notificationRepository.countByCustomerIdAndReadFalse(customerId);
     }
 
+    public String getNotificationsEtag(Long customerId) {
+        NotificationRepository.NotificationVersion v = notificationRepository.findVersionByCustomerId(customerId);
+        return "\"nt-" + v.getCount() + "-" + (v.getUnread() == null ? 0 : v.getUnread())
+                + "-" + (v.getMaxId() == null ? 0 : v.getMaxId()) + "\"";
+    }
+
     public void markAllAsRead(Long customerId) {
         List<Notification> list = notificationRepository.findByCustomerIdOrderByCreatedAtDesc(customerId);
         for (Notification n : list) {
@@ -0,0 +1,187 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OrderStatus;
+import com.PinoyHeritage.Backend.entity.PaymentStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves finished orders out of the hot tables.
+ *
+ * Orders older than after-days that are Delivered or Cancelled (and whose payment is not still
+ * being charged) are moved, oldest first, in chunks of chunk-size: one transaction per chunk
+ * claims the orders with SELECT ... FOR UPDATE SKIP LOCKED, copies the orders and their lines,
+ * payment, delivery and delivery scans into the *_archive tables with INSERT ... SELECT (ids
+ * kept), and deletes the originals. A chunk moves completely or not at all, so a failure or a
+ * second instance running the job at the same time never leaves an order half in each place.
+ * Chunks are separated by a short pause to keep lock time and replication lag low.
+ *
+ * Orders keep their ids and columns in the archive, so reads (OrderHistoryService, the admin
+ * list and export) run the same query against both sides and merge the results.
+ */
+@Service
+public class OrderArchiveService {
+
+    // Only orders in a final state are archived; queries filtering on any other status skip the archive
+    public static final Set<String> ARCHIVED_STATUSES = Set.of(OrderStatus.DELIVERED.label(), OrderStatus.CANCELLED.label());
+
+    private static final String CLAIM =
+            "SELECT o.id FROM order_table o WHERE o.created_at < ? " +
+            "AND o.status IN (" + OrderStatus.DELIVERED.sqlLiteral() + ", " + OrderStatus.CANCELLED.sqlLiteral() + ") " +
+            "AND NOT EXISTS (SELECT 1 FROM payment p WHERE p.order_id = o.id " +
+            "AND p.status IN (" + PaymentStatus.PENDING.sqlLiteral() + ", " + PaymentStatus.PROCESSING.sqlLiteral() + ")) " +
+            "ORDER BY o.created_at, o.id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // Copies in parent-first order, deletes in child-first order (the hot tables have foreign keys)
+    private static final List<String> COPY = List.of(
+            "INSERT INTO order_archive (id, customer_id, total_amount, status, created_at, archived_at) " +
+            "SELECT id, customer_id, total_amount, status, created_at, :now FROM order_table WHERE id IN (:ids)",
+            "INSERT INTO product_order_archive (id, order_id, product_id, quantity, unit_price, product_image) " +
+            "SELECT id, order_id, product_id, quantity, unit_price, product_image FROM product_order WHERE order_id IN (:ids)",
+            "INSERT INTO payment_archive (id, order_id, method, status, amount, attempts, gateway_reference, last_error, created_at, updated_at) " +
+            "SELECT id, order_id, method, status, amount, attempts, gateway_reference, last_error, created_at, updated_at " +
+            "FROM payment WHERE order_id IN (:ids)",
+            "INSERT INTO delivery_archive (id, order_id, address, status, courier, tracking_number, location, last_event_at, updated_at) " +
+            "SELECT id, order_id, address, status, courier, tracking_number, location, last_event_at, updated_at " +
+            "FROM delivery WHERE order_id IN (:ids)",
+            "INSERT INTO delivery_event_archive (id, order_id, status, location, event_at, received_at) " +
+            "SELECT id, order_id, status, location, event_at, received_at FROM delivery_event WHERE order_id IN (:ids)");
+    private static final List<String> DELETE = List.of(
+            "DELETE FROM delivery_event WHERE order_id IN (:ids)",
+            "DELETE FROM delivery WHERE order_id IN (:ids)",
+            "DELETE FROM payment WHERE order_id IN (:ids)",
+            "DELETE FROM product_order WHERE order_id IN (:ids)",
+            "DELETE FROM order_table WHERE id IN (:ids)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int chunkSize;
+    private final int maxPerRun;
+    private final long pauseMs;
+    private final ExecutorService runner;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder moved = new LongAdder();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public OrderArchiveService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               @Value("${app.archive.enabled:true}") boolean enabled,
+                               @Value("${app.archive.after-days:365}") int afterDays,
+                               @Value("${app.archive.chunk-size:500}") int chunkSize,
+                               @Value("${app.archive.max-per-run:100000}") int maxPerRun,
+                               @Value("${app.archive.pause-ms:50}") long pauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.chunkSize = chunkSize;
+        this.maxPerRun = maxPerRun;
+        this.pauseMs = pauseMs;
+        this.runner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "order-archive");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}", initialDelayString = "${app.archive.initial-delay-ms:600000}")
+    public void scheduledRun() {
+        if (enabled) run(LocalDateTime.now().minusDays(afterDays));
+    }
+
+    /** Start a run in the background (admin trigger); returns false if one is already running. */
+    public boolean startRun() {
+        if (running.get()) return false;
+        runner.execute(() -> run(LocalDateTime.now().minusDays(afterDays)));
+        return true;
+    }
+
+    /**
+     * Archive eligible orders created before cutoff, chunk by chunk, up to max-per-run orders.
+     * Returns the number moved (0 if another run is in progress).
+     */
+    public int run(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) return 0;
+        long start = System.currentTimeMillis();
+        int total = 0;
+        String error = null;
+        try {
+            while (total < maxPerRun) {
+                int n = archiveChunk(cutoff, Math.min(chunkSize, maxPerRun - total));
+                total += n;
+                if (n < chunkSize) break;
+                if (pauseMs > 0) Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            System.out.println("[Archive] Run stopped after " + total + " orders: " + error);
+        } finally {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("cutoff", cutoff.toString());
+            m.put("moved", total);
+            m.put("tookMs", System.currentTimeMillis() - start);
+            m.put("finishedAt", LocalDateTime.now().toString());
+            if (error != null) m.put("error", error);
+            lastRun = m;
+            running.set(false);
+        }
+        if (total > 0) System.out.println("[Archive] Moved " + total + " orders created before " + cutoff);
+        return total;
+    }
+
+    // One chunk in one transaction; returns the number of orders moved
+    private int archiveChunk(LocalDateTime cutoff, int limit) {
+        Integer n = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(CLAIM, Long.class, Timestamp.valueOf(cutoff), limit);
+            if (ids.isEmpty()) return 0;
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                    .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+            for (String sql : COPY) namedJdbc.update(sql, params);
+            for (String sql : DELETE) namedJdbc.update(sql, params);
+            return ids.size();
+        });
+        int count = n != null ? n : 0;
+        moved.add(count);
+        return count;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("afterDays", afterDays);
+        m.put("running", running.get());
+        m.put("movedSinceStart", moved.sum());
+        m.put("lastRun", lastRun);
+        Timestamp newest = jdbcTemplate.queryForObject("SELECT MAX(created_at) FROM order_archive", Timestamp.class);
+        m.put("newestArchivedOrder", newest == null ? null : newest.toLocalDateTime().toString());
+        return m;
+    }
+}
@@ -0,0 +1,226 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.AdminOrderQuery;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams orders with their lines and payment for accounting.
+ *
+ * One forward-only query (orders left-joined to customer, payment, lines and product, in order
+ * id order) is read row by row and written straight to the response. On MySQL a fetch size of
+ * Integer.MIN_VALUE makes Connector/J stream the result instead of buffering it, so memory use
+ * does not depend on the number of rows. CSV has one row per order line (order columns
+ * repeated); JSON Lines has one object per order, assembled from its consecutive rows.
+ * Archived orders (OrderArchiveService) are written first by the same query over the archive
+ * tables, then the live ones; each part is in id order. Both parts read one REPEATABLE READ
+ * snapshot, so orders an archive chunk moves during the export are written exactly once.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format { CSV, JSONL }
+
+    private static final String[] CSV_HEADER = {
+            "order_id", "created_at", "status", "total_amount", "customer_id", "customer_name", "customer_email",
+            "payment_method", "payment_status", "line_id", "product_id", "product_name", "quantity", "unit_price"
+    };
+
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate snapshot;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public OrderExportService(DataSource dataSource, TransactionTemplate transactionTemplate,
+                              @Value("${app.export.fetch-size:-2147483648}") int fetchSize) {
+        // Own template: the fetch size must not leak into ordinary queries
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(fetchSize);
+        this.snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshot.setReadOnly(true);
+    }
+
+    /** Write every order matching the filters (status, date range, customer) to out. */
+    public void export(AdminOrderQuery filters, Format format, OutputStream out) throws IOException {
+        boolean withArchive = filters.getStatus() == null || OrderArchiveService.ARCHIVED_STATUSES.contains(filters.getStatus());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (format == Format.CSV) writeCsvRow(writer, (Object[]) CSV_HEADER);
+            snapshot.executeWithoutResult(status -> {
+                try {
+                    if (withArchive) exportPart(filters, format, true, writer);
+                    exportPart(filters, format, false, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away mid-download: stop reading, which closes the streaming result set
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void exportPart(AdminOrderQuery filters, Format format, boolean archived, Writer writer) throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = buildQuery(filters, args, archived);
+        if (format == Format.CSV) {
+            streamingJdbc.query(sql, rs -> {
+                writeCsvRow(writer, rs.getLong("order_id"), timestamp(rs, "created_at"), rs.getString("status"),
+                        rs.getObject("total_amount"), rs.getObject("customer_id"), customerName(rs),
+                        rs.getString("email"), rs.getString("payment_method"), rs.getString("payment_status"),
+                        rs.getObject("line_id"), rs.getObject("product_id"), rs.getString("product_name"),
+                        rs.getObject("quantity"), rs.getObject("unit_price"));
+            }, args.toArray());
+        } else {
+            writeJsonLines(sql, args, writer);
+        }
+    }
+
+    private void writeJsonLines(String sql, List<Object> args, Writer writer) throws IOException {
+        JsonGenerator json = jsonFactory.createGenerator(writer);
+        json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        long[] current = {-1L};
+        streamingJdbc.query(sql, rs -> {
+            try {
+                long orderId = rs.getLong("order_id");
+                if (orderId != current[0]) {
+                    if (current[0] != -1L) endOrder(json, writer);
+                    current[0] = orderId;
+                    json.writeStartObject();
+                    json.writeNumberField("orderId", orderId);
+                    json.writeStringField("createdAt", timestamp(rs, "created_at"));
+                    json.writeStringField("status", rs.getString("status"));
+                    writeNumber(json, "totalAmount", rs.getObject("total_amount"));
+                    writeNumber(json, "customerId", rs.getObject("customer_id"));
+                    json.writeStringField("customerName", customerName(rs));
+                    json.writeStringField("customerEmail", rs.getString("email"));
+                    json.writeStringField("paymentMethod", rs.getString("payment_method"));
+                    json.writeStringField("paymentStatus", rs.getString("payment_status"));
+                    json.writeArrayFieldStart("lines");
+                }
+                if (rs.getObject("line_id") != null) {
+                    json.writeStartObject();
+                    writeNumber(json, "lineId", rs.getObject("line_id"));
+                    writeNumber(json, "productId", rs.getObject("product_id"));
+                    json.writeStringField("productName", rs.getString("product_name"));
+                    writeNumber(json, "quantity", rs.getObject("quantity"));
+                    writeNumber(json, "unitPrice", rs.getObject("unit_price"));
+                    json.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, args.toArray());
+        if (current[0] != -1L) endOrder(json, writer);
+        json.flush();
+    }
+
+    private static void endOrder(JsonGenerator json, Writer writer) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        json.flush();
+        writer.write('\n');
+    }
+
+    private static void writeNumber(JsonGenerator json, String field, Object value) throws IOException {
+        if (value == null) json.writeNullField(field);
+        else if (value instanceof Integer || value instanceof Long) json.writeNumberField(field, ((Number) value).longValue());
+        else json.writeNumberField(field, ((Number) value).doubleValue());
+    }
+
+    private static String buildQuery(AdminOrderQuery filters, List<Object> args, boolean archived) {
+        String suffix = archived ? "_archive" : "";
+        StringBuilder sql = new StringBuilder(
+                "SELECT o.id AS order_id, o.created_at, o.status, o.total_amount, o.customer_id, " +
+                "c.first_name, c.last_name, c.email, pay.method AS payment_method, pay.status AS payment_status, " +
+                "po.id AS line_id, po.product_id, p.name AS product_name, po.quantity, po.unit_price " +
+                "FROM " + (archived ? "order_archive" : "order_table") + " o " +
+                "LEFT JOIN customer c ON c.id = o.customer_id " +
+                "LEFT JOIN payment" + suffix + " pay ON pay.order_id = o.id " +
+                "LEFT JOIN product_order" + suffix + " po ON po.order_id = o.id " +
+                "LEFT JOIN product p ON p.id = po.product_id WHERE 1 = 1");
+        if (filters.getStatus() != null) {
+            sql.append(" AND o.status = ?");
+            args.add(filters.getStatus());
+        }
+        if (filters.getCustomerId() != null) {
+            sql.append(" AND o.customer_id = ?");
+            args.add(filters.getCustomerId());
+        }
+        if (filters.getFrom() != null) {
+            sql.append(" AND o.created_at >= ?");
+            args.add(Timestamp.valueOf(filters.getFrom()));
+        }
+        if (filters.getTo() != null) {
+            sql.append(" AND o.created_at < ?");
+            args.add(Timestamp.valueOf(filters.getTo()));
+        }
+        // Only the order id is sorted on: the join walks order_table's primary key and picks up each
+        // order's lines through the order_id index, so rows stream without a filesort and an
+        // order's lines arrive together
+        sql.append(" ORDER BY o.id");
+        return sql.toString();
+    }
+
+    private static String customerName(ResultSet rs) throws SQLException {
+        String first = rs.getString("first_name");
+        String last = rs.getString("last_name");
+        String name = ((first == null ? "" : first) + " " + (last == null ? "" : last)).trim();
+        return name.isEmpty() ? null : name;
+    }
+
+    private static String timestamp(ResultSet rs, String column) throws SQLException {
+        Timestamp ts = rs.getTimestamp(column);
+        return ts == null ? null : ts.toLocalDateTime().toString();
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                Object v = values[i];
+                if (v != null) writer.write(csvEscape(v.toString()));
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralised so spreadsheets do not evaluate it
+    static String csvEscape(String value) {
+        String v = value;
+        if (!v.isEmpty() && "=+-@".indexOf(v.charAt(0)) >= 0 && !isNumber(v)) v = "'" + v;
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean isNumber(String v) {
+        try {
+            Double.parseDouble(v);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.CursorPage;
+import com.PinoyHeritage.Backend.dto.OrderHistoryItem;
+import com.PinoyHeritage.Backend.repository.ArchivedOrderRepository;
+import com.PinoyHeritage.Backend.repository.ArchivedProductOrderRepository;
+import com.PinoyHeritage.Backend.repository.OrderRepository;
+import com.PinoyHeritage.Backend.repository.OrderRepository.OrderHeader;
+import com.PinoyHeritage.Backend.repository.ProductOrderRepository;
+import com.PinoyHeritage.Backend.repository.ProductOrderRepository.HistoryLine;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Customer order history in two queries whatever the number of orders: the order headers
+ * (one page of them, newest first, keyset-paginated on created_at/id) and then all their lines
+ * as a projection, with product name and price joined in and no entities loaded.
+ *
+ * Archived orders (OrderArchiveService) are read with the same queries from the archive tables
+ * and merged in. A page whose hot orders are all newer than the customer's newest archived
+ * order cannot contain archived ones, so recent pages only touch the hot tables.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderHistoryService {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private static final Comparator<OrderHeader> NEWEST_FIRST =
+            Comparator.comparing(OrderHeader::getCreatedAt).thenComparing(OrderHeader::getId).reversed();
+
+    private final OrderRepository orderRepository;
+    private final ProductOrderRepository productOrderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedProductOrderRepository archivedProductOrderRepository;
+
+    public OrderHistoryService(OrderRepository orderRepository, ProductOrderRepository productOrderRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               ArchivedProductOrderRepository archivedProductOrderRepository) {
+        this.orderRepository = orderRepository;
+        this.productOrderRepository = productOrderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedProductOrderRepository = archivedProductOrderRepository;
+    }
+
+    /** Full history, unpaginated (the original endpoint's shape). */
+    public List<OrderHistoryItem> getHistory(Long customerId) {
+        List<OrderHeader> headers = orderRepository.findHistory(customerId, Pageable.unpaged());
+        List<HistoryLine> lines = new ArrayList<>();
+        if (!headers.isEmpty()) lines.addAll(productOrderRepository.findHistoryLinesByCustomer(customerId));
+
+        List<OrderHeader> archived = archivedOrderRepository.findHistory(customerId, Pageable.unpaged());
+        if (!archived.isEmpty()) {
+            headers = merge(headers, archived, Integer.MAX_VALUE);
+            lines.addAll(archivedProductOrderRepository.findHistoryLinesByCustomer(customerId));
+        }
+        if (headers.isEmpty()) return List.of();
+        return assemble(headers, lines);
+    }
+
+    /** One page of history; cursor is the previous page's nextCursor (null for the first page). */
+    public CursorPage<OrderHistoryItem> getHistoryPage(Long customerId, Integer size, String cursor) {
+        int limit = size == null ? DEFAULT_SIZE : Math.max(1, Math.min(MAX_SIZE, size));
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<OrderHeader> headers;
+        Object[] after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        if (after == null) {
+            headers = orderRepository.findHistory(customerId, page);
+        } else {
+            headers = orderRepository.findHistoryAfter(customerId, (LocalDateTime) after[0], (Long) after[1], page);
+        }
+
+        Set<Long> archivedIds = Set.of();
+        if (mayIncludeArchived(customerId, headers, limit)) {
+            List<OrderHeader> archived = after == null
+                    ? archivedOrderRepository.findHistory(customerId, page)
+                    : archivedOrderRepository.findHistoryAfter(customerId, (LocalDateTime) after[0], (Long) after[1], page);
+            if (!archived.isEmpty()) {
+                archivedIds = new HashSet<>();
+                for (OrderHeader h : archived) archivedIds.add(h.getId());
+                headers = merge(headers, archived, limit + 1);
+            }
+        }
+
+        String nextCursor = null;
+        if (headers.size() > limit) {
+            headers = headers.subList(0, limit);
+            OrderHeader last = headers.get(limit - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        if (headers.isEmpty()) return new CursorPage<>(List.of(), null);
+
+        List<Long> ids = new ArrayList<>(headers.size());
+        List<Long> archivedOnPage = new ArrayList<>();
+        for (OrderHeader h : headers) {
+            if (archivedIds.contains(h.getId())) archivedOnPage.add(h.getId());
+            else ids.add(h.getId());
+        }
+        List<HistoryLine> lines = new ArrayList<>();
+        if (!ids.isEmpty()) lines.addAll(productOrderRepository.findHistoryLines(ids));
+        if (!archivedOnPage.isEmpty()) lines.addAll(archivedProductOrderRepository.findHistoryLines(archivedOnPage));
+        return new CursorPage<>(assemble(headers, lines), nextCursor);
+    }
+
+    // False when the page is full of hot orders that are all newer than anything archived for the customer
+    private boolean mayIncludeArchived(Long customerId, List<OrderHeader> hot, int limit) {
+        LocalDateTime newestArchived = archivedOrderRepository.findNewestCreatedAt(customerId);
+        if (newestArchived == null) return false;
+        return hot.size() <= limit || !newestArchived.isBefore(hot.get(limit).getCreatedAt());
+    }
+
+    // Both lists are newest first; an order is only ever in one of them
+    private static List<OrderHeader> merge(List<OrderHeader> hot, List<OrderHeader> archived, int limit) {
+        List<OrderHeader> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    private static List<OrderHistoryItem> assemble(List<OrderHeader> headers, List<HistoryLine> lines) {
+        Map<Long, OrderHistoryItem> byId = new LinkedHashMap<>();
+        for (OrderHeader h : headers) {
+            byId.put(h.getId(), new OrderHistoryItem(h.getId(), h.getTotalAmount(), h.getStatus(), h.getCreatedAt()));
+        }
+        for (HistoryLine l : lines) {
+            OrderHistoryItem item = byId.get(l.getOrderId());
+            if (item == null) continue;
+
+            OrderHistoryItem.Line line = new OrderHistoryItem.Line();
+            line.setProductId(l.getProductId());
+            line.setProductName(l.getProductName() != null ? l.getProductName() : "Unknown");
+            line.setQuantity(l.getQuantity());
+            line.setUnitPrice(l.getUnitPrice() != null ? l.getUnitPrice() : 0.0);
+            line.setProductImage(l.getProductImage() != null && !l.getProductImage().isEmpty()
+                    ? l.getProductImage()
+                    : ImageStorageService.renditionUrl(l.getFallbackImage(), ImageStorageService.Rendition.THUMB));
+            item.getProducts().add(line);
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    // Cursor format (before Base64url): {createdAt ISO}|{id}
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) throw new IllegalArgumentException("Invalid cursor");
+            return new Object[] {LocalDateTime.parse(parts[0]), Long.parseLong(parts[1])};
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Customer notifications for order events, created off the checkout / status-update path.
+ * The notification row commits with the event's DONE mark, so a retry never duplicates it.
+ */
+@Service
+public class OrderNotificationHandler implements OutboxHandler {
+
+    private final NotificationService notificationService;
+
+    public OrderNotificationHandler(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(OutboxEvent.ORDER_PLACED, OutboxEvent.ORDER_STATUS_CHANGED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, JsonNode payload) {
+        if (!payload.hasNonNull("customerId")) return;
+        Long orderId = event.getAggregateId();
+        String message = OutboxEvent.ORDER_PLACED.equals(event.getEventType())
+                ? "Your order #" + orderId + " has been placed."
+                : "Your order #" + orderId + " is now " + payload.path("status").asText();
+        notificationService.createNotification(payload.get("customerId").asLong(), orderId, message);
+    }
+}
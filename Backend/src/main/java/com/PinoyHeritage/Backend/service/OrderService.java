@@ -0,0 +1,339 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.AdminOrderQuery;
+import com.PinoyHeritage.Backend.dto.AdminOrderSummary;
+import com.PinoyHeritage.Backend.dto.BulkStatusResult;
+import com.PinoyHeritage.Backend.dto.CursorPage;
+import com.PinoyHeritage.Backend.entity.CartItem;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.entity.OrderStatus;
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.PinoyHeritage.Backend.entity.PaymentStatus;
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.repository.ArchivedOrderRepository;
+import com.PinoyHeritage.Backend.repository.CartItemRepository;
+import com.PinoyHeritage.Backend.repository.CartRepository;
+import com.PinoyHeritage.Backend.repository.CustomerRepository;
+import com.PinoyHeritage.Backend.repository.OrderRepository;
+import com.PinoyHeritage.Backend.repository.OrderRepository.StatusRow;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checkout.
+ *
+ * One transaction with a fixed number of round trips whatever the cart size: cart lines (one
+ * query), products (one IN query), stock (one batch), order insert, order lines (one batch),
+ * payment insert, cart update and an outbox event (one statement each). Anything failing rolls
+ * all of it back, stock included. Removing the ordered lines from the cart and notifying the
+ * customer happen after commit, from the outbox (CartCleanupHandler, OrderNotificationHandler), as
+ * does charging the payment, which is written Pending here (PaymentHandler).
+ */
+@Service
+public class OrderService {
+
+    private static final String INSERT_LINE =
+            "INSERT INTO product_order (order_id, product_id, quantity, unit_price, product_image) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_PAYMENT =
+            "INSERT INTO payment (order_id, method, status, amount, attempts, next_attempt_at, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 0, ?, ?, ?)";
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CartRepository cartRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final OutboxService outboxService;
+    private final IdempotencyService idempotencyService;
+    private final CatalogCache catalogCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final int bulkStatusMax;
+
+    public OrderService(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                        CartItemRepository cartItemRepository,
+                        CartRepository cartRepository, CustomerRepository customerRepository,
+                        ProductRepository productRepository, InventoryService inventoryService,
+                        OutboxService outboxService, IdempotencyService idempotencyService, CatalogCache catalogCache,
+                        JdbcTemplate jdbcTemplate, @Value("${app.orders.bulk-status-max:1000}") int bulkStatusMax) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.cartRepository = cartRepository;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.outboxService = outboxService;
+        this.idempotencyService = idempotencyService;
+        this.catalogCache = catalogCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.bulkStatusMax = bulkStatusMax;
+    }
+
+    /**
+     * Turn the customer's cart into an order. Throws OutOfStockException if any line cannot be
+     * reserved, RuntimeException if the cart is empty.
+     */
+    @Transactional
+    public Order placeOrderFromCart(Long customerId, String paymentMethod) {
+        return placeOrderFromCart(customerId, paymentMethod, null, null);
+    }
+
+    /**
+     * As above; with an idempotency key the order's response is recorded under that key in the
+     * same transaction, and a duplicate key (from a concurrent retry) rolls this order back.
+     */
+    @Transactional
+    public Order placeOrderFromCart(Long customerId, String paymentMethod, String idempotencyKey, String requestHash) {
+        // Held until commit: a cart change waits, so it cannot add to a line being ordered here
+        cartRepository.findByCustomerIdForUpdate(customerId);
+        List<CartItem> cartItems = cartItemRepository.findCheckoutLines(customerId);
+        if (cartItems.isEmpty()) {
+            throw new RuntimeException("Cart is empty; cannot create order.");
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        for (CartItem ci : cartItems) {
+            if (ci.getProductName() != null) names.add(ci.getProductName());
+        }
+        Map<String, Product> productsByName = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Product p : productRepository.findByNameIn(names)) {
+                productsByName.putIfAbsent(p.getName(), p);
+            }
+        }
+
+        List<Object[]> lines = new ArrayList<>(cartItems.size());
+        List<InventoryService.StockLine> stockLines = new ArrayList<>();
+        double total = 0.0;
+        for (CartItem ci : cartItems) {
+            int qty = ci.getQuantity() != null ? ci.getQuantity() : 1;
+            Product product = ci.getProductName() != null ? productsByName.get(ci.getProductName()) : null;
+
+            Double unitPriceSnapshot = ci.getUnitPrice() != null ? ci.getUnitPrice()
+                    : (product != null && product.getPrice() != null ? product.getPrice() : 0.0);
+            String imgSnapshot = ci.getProductImage() != null ? ci.getProductImage()
+                    : (product != null ? product.getThumbnailUrl() : null);
+            // order_id is filled in once the order row exists
+            lines.add(new Object[] {null, product != null ? product.getId() : null, qty, unitPriceSnapshot, imgSnapshot});
+
+            // Products without a stock figure are not tracked
+            if (product != null && product.getStock() != null) {
+                stockLines.add(new InventoryService.StockLine(product.getId(), qty));
+            }
+
+            double lineAmount = (ci.getAmount() != null && ci.getAmount() > 0)
+                    ? ci.getAmount()
+                    : unitPriceSnapshot * qty;
+            total += lineAmount;
+        }
+
+        // All lines or none; OutOfStockException rolls the whole checkout back
+        inventoryService.reserve(stockLines);
+        for (InventoryService.StockLine line : stockLines) {
+            catalogCache.evictProduct(line.productId());
+        }
+
+        Customer customer = customerRepository.getReferenceById(customerId);
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.PENDING.label());
+        order.setTotalAmount(total);
+        Order saved = orderRepository.saveAndFlush(order);
+
+        // Lines and payment go in over JDBC: IDENTITY ids would make Hibernate insert them one by one
+        for (Object[] line : lines) line[0] = saved.getId();
+        jdbcTemplate.batchUpdate(INSERT_LINE, lines,
+                new int[] {Types.BIGINT, Types.BIGINT, Types.INTEGER, Types.DOUBLE, Types.LONGVARCHAR});
+        // Charged after commit by PaymentProcessor (PaymentHandler), which moves the order to Paid or Cancelled
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_PAYMENT, saved.getId(), paymentMethod != null ? paymentMethod : "Unknown",
+                PaymentStatus.PENDING.label(), total, now, now, now);
+
+        // Lines come back in id order, so the last one is the cart watermark
+        Long cartItemMaxId = cartItems.get(cartItems.size() - 1).getId();
+        if (cartRepository.markCheckedOut(customerId, cartItemMaxId) == 0 && cartRepository.existsByCustomerId(customerId)) {
+            // Another checkout of the same lines committed first (waited on the cart row lock): roll this one back
+            throw new OptimisticLockingFailureException("Cart was already checked out; reload the cart and try again");
+        }
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("customerId", customerId);
+        event.put("cartItemMaxId", cartItemMaxId);
+        event.put("totalAmount", total);
+        outboxService.publish(OutboxEvent.ORDER_PLACED, saved.getId(), event);
+
+        if (idempotencyKey != null) {
+            idempotencyService.record(customerId, idempotencyKey, requestHash, 200, saved, saved.getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Keyset-paginated admin list; fetches one extra row to know whether a next page exists.
+     * Archived orders are read with the same query and merged in, unless the filters or the
+     * hot rows already rule them out (see archiveMayContribute).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AdminOrderSummary> getAdminOrderPage(AdminOrderQuery query) {
+        List<AdminOrderSummary> rows = orderRepository.findAdminPage(query, query.getSize() + 1);
+        if (archiveMayContribute(query, rows)) {
+            rows = mergeByQuerySort(query.getSort(), rows,
+                    orderRepository.findArchivedAdminPage(query, query.getSize() + 1), query.getSize() + 1);
+        }
+        String nextCursor = null;
+        if (rows.size() > query.getSize()) {
+            rows = rows.subList(0, query.getSize());
+            AdminOrderSummary last = rows.get(rows.size() - 1);
+            nextCursor = AdminOrderQuery.encodeCursor(query.getSort(), last.getId(), last.getCreatedAt(), last.getTotalAmount());
+        }
+        return new CursorPage<>(List.copyOf(rows), nextCursor);
+    }
+
+    // Every order, live and archived, newest first (the unpaginated admin list)
+    @Transactional(readOnly = true)
+    public List<AdminOrderSummary> getAllAdminOrders() {
+        AdminOrderQuery all = new AdminOrderQuery();
+        return mergeByQuerySort(all.getSort(), orderRepository.findAdminPage(all, 0),
+                orderRepository.findArchivedAdminPage(all, 0), Integer.MAX_VALUE);
+    }
+
+    // Archived orders are all Delivered or Cancelled and no newer than the newest one archived
+    private boolean archiveMayContribute(AdminOrderQuery query, List<AdminOrderSummary> hotRows) {
+        if (query.getStatus() != null && !OrderArchiveService.ARCHIVED_STATUSES.contains(query.getStatus())) return false;
+        LocalDateTime newestArchived = archivedOrderRepository.findNewestCreatedAt();
+        if (newestArchived == null) return false;
+        if (query.getFrom() != null && newestArchived.isBefore(query.getFrom())) return false;
+        // Newest first and the page is full of hot orders newer than anything archived
+        return query.getSort() != AdminOrderQuery.Sort.NEWEST || hotRows.size() <= query.getSize()
+                || !newestArchived.isBefore(hotRows.get(query.getSize()).getCreatedAt());
+    }
+
+    private static List<AdminOrderSummary> mergeByQuerySort(AdminOrderQuery.Sort sort, List<AdminOrderSummary> hot,
+                                                            List<AdminOrderSummary> archived, int limit) {
+        if (archived.isEmpty()) return hot;
+        Comparator<AdminOrderSummary> order = switch (sort) {
+            case NEWEST -> Comparator.comparing(AdminOrderSummary::getCreatedAt)
+                    .thenComparing(AdminOrderSummary::getId).reversed();
+            case OLDEST -> Comparator.comparing(AdminOrderSummary::getCreatedAt).thenComparing(AdminOrderSummary::getId);
+            case TOTAL_DESC -> Comparator.comparing(AdminOrderSummary::getTotalAmount)
+                    .thenComparing(AdminOrderSummary::getId).reversed();
+            case TOTAL_ASC -> Comparator.comparing(AdminOrderSummary::getTotalAmount).thenComparing(AdminOrderSummary::getId);
+        };
+        List<AdminOrderSummary> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(order);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    /**
+     * Set an order's status if OrderStatus allows the change (setting the current status again
+     * does nothing). Throws InvalidStatusTransitionException otherwise, IllegalArgumentException
+     * for an unknown status. The customer is notified from the outbox.
+     */
+    @Transactional
+    public void updateStatus(Long orderId, String status) {
+        OrderStatus target = parseStatus(status);
+        List<StatusRow> rows = orderRepository.lockStatuses(List.of(orderId));
+        if (rows.isEmpty()) throw new RuntimeException("Order not found.");
+        StatusRow row = rows.get(0);
+        if (target.label().equals(row.getStatus())) return;
+
+        OrderStatus current = OrderStatus.fromLabel(row.getStatus());
+        if (current == null || !current.canMoveTo(target)) {
+            throw new InvalidStatusTransitionException(row.getStatus(), target.label());
+        }
+        applyTransition(target, rows);
+    }
+
+    /**
+     * Move many orders to one status in a fixed number of statements: the orders' current
+     * status (one locking IN query), one guarded UPDATE and one batch of outbox events. Orders
+     * that are missing, already there, or not allowed to move are reported as skipped.
+     */
+    @Transactional
+    public BulkStatusResult bulkUpdateStatus(Collection<Long> orderIds, String status) {
+        OrderStatus target = parseStatus(status);
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        ids.remove(null);
+        if (ids.isEmpty()) throw new IllegalArgumentException("No order ids given");
+        if (ids.size() > bulkStatusMax) {
+            throw new IllegalArgumentException("At most " + bulkStatusMax + " orders per request");
+        }
+
+        Map<Long, StatusRow> found = new HashMap<>();
+        for (StatusRow row : orderRepository.lockStatuses(ids)) found.put(row.getId(), row);
+
+        BulkStatusResult result = new BulkStatusResult();
+        result.setStatus(target.label());
+        List<StatusRow> eligible = new ArrayList<>();
+        for (Long id : ids) {
+            StatusRow row = found.get(id);
+            if (row == null) {
+                result.getSkipped().add(new BulkStatusResult.Skipped(id, null, "Order not found"));
+                continue;
+            }
+            OrderStatus current = OrderStatus.fromLabel(row.getStatus());
+            if (current == target) {
+                result.getSkipped().add(new BulkStatusResult.Skipped(id, row.getStatus(), "Already " + target.label()));
+            } else if (current == null || !current.canMoveTo(target)) {
+                result.getSkipped().add(new BulkStatusResult.Skipped(id, row.getStatus(),
+                        "Cannot change from " + row.getStatus() + " to " + target.label()));
+            } else {
+                eligible.add(row);
+                result.getUpdated().add(id);
+            }
+        }
+        applyTransition(target, eligible);
+        return result;
+    }
+
+    private void applyTransition(OrderStatus target, List<StatusRow> rows) {
+        if (rows.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (StatusRow row : rows) ids.add(row.getId());
+        List<String> sources = new ArrayList<>();
+        for (OrderStatus s : target.sources()) sources.add(s.label());
+
+        int changed = orderRepository.transitionStatus(ids, sources, target.label());
+        // The rows are locked, so this only fails for a status stored in a different spelling
+        if (changed != ids.size()) {
+            throw new IllegalStateException("Expected to update " + ids.size() + " orders, updated " + changed);
+        }
+
+        Map<Long, Map<String, Object>> events = new LinkedHashMap<>();
+        for (StatusRow row : rows) {
+            Map<String, Object> event = new HashMap<>();
+            if (row.getCustomerId() != null) event.put("customerId", row.getCustomerId());
+            event.put("status", target.label());
+            events.put(row.getId(), event);
+        }
+        outboxService.publishAll(OutboxEvent.ORDER_STATUS_CHANGED, events);
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        OrderStatus target = OrderStatus.fromLabel(status);
+        if (target == null) throw new IllegalArgumentException("Unknown order status: " + status);
+        return target;
+    }
+}
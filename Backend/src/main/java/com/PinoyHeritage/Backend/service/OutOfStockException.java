@@ -0,0 +1,23 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.StockShortage;
+
+import java.util.List;
+
+/**
+ * Thrown when at least one line of an order cannot be reserved. Nothing was decremented:
+ * the reservation runs in one transaction and this exception rolls it back.
+ */
+public class OutOfStockException extends RuntimeException {
+
+    private final List<StockShortage> shortages;
+
+    public OutOfStockException(List<StockShortage> shortages) {
+        super("Insufficient stock for " + shortages.size() + " item(s)");
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<StockShortage> getShortages() {
+        return shortages;
+    }
+}
@@ -0,0 +1,339 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers outbox events to their handlers.
+ *
+ * A single poller claims due events in batches with SELECT ... FOR UPDATE SKIP LOCKED, so several
+ * app instances can poll the same table without handing out an event twice, and marks them
+ * PROCESSING with an attempt number that acts as the claim token. The batch is spread over a
+ * worker pool, with events of the same aggregate kept in order on one worker. Each event's
+ * handlers and its DONE update share one transaction. A failure rolls that back and reschedules
+ * the event with exponential backoff, up to max-attempts, after which it is parked as FAILED;
+ * the aggregate's later events in the batch are handed back unattempted with the same due time,
+ * and later polls do not claim an event while an earlier one of its aggregate is waiting, so
+ * they never overtake it.
+ * A claim that is never finished (the instance died) is picked up again once its lease expires.
+ *
+ * The poller sleeps between polls but is woken as soon as a transaction writing events commits,
+ * so delivery normally follows the commit within milliseconds.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final String CLAIMABLE =
+            "((%1$s.status = 'PENDING' AND %1$s.available_at <= ?) OR (%1$s.status = 'PROCESSING' AND %1$s.claimed_at < ?))";
+    // An event waits while an earlier event of its aggregate is unfinished and not claimable now
+    // (backing off, held by another poller, or parked as FAILED)
+    private static final String CLAIM_SELECT =
+            "SELECT o.id, o.event_type, o.aggregate_id, o.payload, o.attempts FROM outbox_event o " +
+            "WHERE " + CLAIMABLE.formatted("o") + " " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_event e2 WHERE e2.aggregate_id = o.aggregate_id AND e2.id < o.id " +
+            "AND e2.status <> 'DONE' AND NOT " + CLAIMABLE.formatted("e2") + ") " +
+            "ORDER BY o.id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String CLAIM_UPDATE =
+            "UPDATE outbox_event SET status = 'PROCESSING', claimed_at = ?, attempts = ? WHERE id = ?";
+    private static final String MARK_DONE =
+            "UPDATE outbox_event SET status = 'DONE', processed_at = ?, last_error = NULL " +
+            "WHERE id = ? AND status = 'PROCESSING' AND attempts = ?";
+    private static final String MARK_RETRY =
+            "UPDATE outbox_event SET status = ?, available_at = ?, claimed_at = NULL, last_error = ? " +
+            "WHERE id = ? AND status = 'PROCESSING' AND attempts = ?";
+    // Handing back an event that was claimed but not tried does not count as an attempt
+    private static final String RELEASE =
+            "UPDATE outbox_event SET status = 'PENDING', available_at = ?, claimed_at = NULL, attempts = attempts - 1 " +
+            "WHERE id = ? AND status = 'PROCESSING' AND attempts = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, List<OutboxHandler>> handlers = new HashMap<>();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long pollMs;
+    private final long leaseMs;
+    private final long backoffMs;
+    private final long retentionMs;
+    private final boolean pollerEnabled;
+    private final ExecutorService workers;
+
+    private final Object signal = new Object();
+    private boolean wakeRequested;
+    private volatile Thread poller;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder parked = new LongAdder();
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper, List<OutboxHandler> handlerBeans,
+                            @Value("${app.outbox.workers:4}") int workerCount,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.max-attempts:8}") int maxAttempts,
+                            @Value("${app.outbox.poll-ms:1000}") long pollMs,
+                            @Value("${app.outbox.lease-ms:60000}") long leaseMs,
+                            @Value("${app.outbox.backoff-ms:1000}") long backoffMs,
+                            @Value("${app.outbox.retention-ms:604800000}") long retentionMs,
+                            @Value("${app.outbox.poller-enabled:true}") boolean pollerEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        for (OutboxHandler h : handlerBeans) {
+            for (String type : h.eventTypes()) {
+                handlers.computeIfAbsent(type, k -> new ArrayList<>()).add(h);
+            }
+        }
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.pollMs = pollMs;
+        this.leaseMs = leaseMs;
+        this.backoffMs = backoffMs;
+        this.retentionMs = retentionMs;
+        this.pollerEnabled = pollerEnabled;
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "outbox-worker-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    // Started once the schema is in place; events written before a restart are picked up here.
+    // Instances with the poller disabled still write events for the others to deliver
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!pollerEnabled) return;
+        Thread t = new Thread(this::pollLoop, "outbox-poller");
+        t.setDaemon(true);
+        poller = t;
+        t.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread t = poller;
+        if (t != null) t.interrupt();
+        workers.shutdown();
+    }
+
+    public void wakeUp() {
+        synchronized (signal) {
+            wakeRequested = true;
+            signal.notifyAll();
+        }
+    }
+
+    private void pollLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            int claimed = 0;
+            try {
+                claimed = dispatchOnce();
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.out.println("[Outbox] Poll failed: " + e.getMessage());
+            }
+            // A full batch means there is probably more waiting: go again straight away
+            if (claimed < batchSize) {
+                synchronized (signal) {
+                    try {
+                        if (!wakeRequested) signal.wait(pollMs);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    wakeRequested = false;
+                }
+            }
+        }
+    }
+
+    /** Claim one batch and deliver it; returns the number of events claimed. */
+    public int dispatchOnce() throws InterruptedException {
+        List<OutboxEvent> batch = claim();
+        if (batch.isEmpty()) return 0;
+
+        Map<Long, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent e : batch) {
+            // Events without an aggregate have no ordering constraint
+            Long key = e.getAggregateId() != null ? e.getAggregateId() : -e.getId();
+            byAggregate.computeIfAbsent(key, k -> new ArrayList<>()).add(e);
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(byAggregate.size());
+        for (List<OutboxEvent> group : byAggregate.values()) {
+            tasks.add(() -> {
+                for (int i = 0; i < group.size(); i++) {
+                    Timestamp retryAt = deliver(group.get(i));
+                    if (retryAt != null) {
+                        release(group.subList(i + 1, group.size()), retryAt);
+                        break;
+                    }
+                }
+                return null;
+            });
+        }
+        for (Future<Void> f : workers.invokeAll(tasks)) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                // Unfinished events stay PROCESSING and are re-claimed when their lease expires
+                System.out.println("[Outbox] Delivery failed: " + e.getCause());
+            }
+        }
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claim() {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp leaseCutoff = Timestamp.valueOf(now.minus(Duration.ofMillis(leaseMs)));
+            List<OutboxEvent> rows = jdbcTemplate.query(CLAIM_SELECT, (rs, i) -> {
+                OutboxEvent e = new OutboxEvent(rs.getString("event_type"),
+                        rs.getObject("aggregate_id") != null ? rs.getLong("aggregate_id") : null,
+                        rs.getString("payload"));
+                e.setId(rs.getLong("id"));
+                e.setAttempts(rs.getInt("attempts") + 1);
+                e.setClaimedAt(now);
+                return e;
+            }, Timestamp.valueOf(now), leaseCutoff, Timestamp.valueOf(now), leaseCutoff, batchSize);
+            if (!rows.isEmpty()) {
+                List<Object[]> args = new ArrayList<>(rows.size());
+                for (OutboxEvent e : rows) args.add(new Object[] {Timestamp.valueOf(now), e.getAttempts(), e.getId()});
+                jdbcTemplate.batchUpdate(CLAIM_UPDATE, args);
+            }
+            return rows;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    // Returns null once delivered, otherwise when the event's aggregate is due again
+    private Timestamp deliver(OutboxEvent event) {
+        List<OutboxHandler> targets = handlers.getOrDefault(event.getEventType(), List.of());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                JsonNode payload = readPayload(event);
+                for (OutboxHandler h : targets) h.handle(event, payload);
+                int updated = jdbcTemplate.update(MARK_DONE, Timestamp.valueOf(LocalDateTime.now()),
+                        event.getId(), event.getAttempts());
+                if (updated == 0) {
+                    // Lease expired and another poller re-claimed it: let that delivery win
+                    throw new ClaimLostException();
+                }
+            });
+            delivered.increment();
+            return null;
+        } catch (ClaimLostException e) {
+            System.out.println("[Outbox] Claim on event " + event.getId() + " was lost; rolled back");
+            return Timestamp.valueOf(LocalDateTime.now());
+        } catch (Exception e) {
+            return reschedule(event, e);
+        }
+    }
+
+    private Timestamp reschedule(OutboxEvent event, Exception cause) {
+        boolean giveUp = event.getAttempts() >= maxAttempts;
+        long delay = backoffMs << Math.min(event.getAttempts() - 1, 16);
+        String error = String.valueOf(cause.getMessage());
+        if (error.length() > 1000) error = error.substring(0, 1000);
+        Timestamp retryAt = Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+        jdbcTemplate.update(MARK_RETRY, giveUp ? "FAILED" : "PENDING", retryAt, error,
+                event.getId(), event.getAttempts());
+        if (giveUp) {
+            parked.increment();
+            System.out.println("[Outbox] Event " + event.getId() + " (" + event.getEventType()
+                    + ") failed " + event.getAttempts() + " times, parked: " + error);
+        } else {
+            retried.increment();
+        }
+        return retryAt;
+    }
+
+    private void release(List<OutboxEvent> events, Timestamp availableAt) {
+        if (events.isEmpty()) return;
+        List<Object[]> args = new ArrayList<>(events.size());
+        for (OutboxEvent e : events) args.add(new Object[] {availableAt, e.getId(), e.getAttempts()});
+        jdbcTemplate.batchUpdate(RELEASE, args);
+    }
+
+    private JsonNode readPayload(OutboxEvent event) {
+        if (event.getPayload() == null) return objectMapper.createObjectNode();
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable payload for outbox event " + event.getId(), e);
+        }
+    }
+
+    /** Put a FAILED event back in the queue. Returns false if it is not FAILED. */
+    public boolean retry(Long eventId) {
+        int updated = jdbcTemplate.update(
+                "UPDATE outbox_event SET status = 'PENDING', attempts = 0, available_at = ? WHERE id = ? AND status = 'FAILED'",
+                Timestamp.valueOf(LocalDateTime.now()), eventId);
+        if (updated > 0) wakeUp();
+        return updated > 0;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (OutboxEvent.Status s : OutboxEvent.Status.values()) byStatus.put(s.name(), 0L);
+        jdbcTemplate.query("SELECT status, COUNT(*) AS n FROM outbox_event GROUP BY status",
+                rs -> { byStatus.put(rs.getString("status"), rs.getLong("n")); });
+        m.put("byStatus", byStatus);
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM outbox_event WHERE status IN ('PENDING', 'PROCESSING')", Timestamp.class);
+        m.put("oldestPendingAgeMs", oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTime()));
+        m.put("delivered", delivered.sum());
+        m.put("retried", retried.sum());
+        m.put("parked", parked.sum());
+        m.put("handlers", handlers.keySet());
+        return m;
+    }
+
+    // Delivered events are only kept for a while; deleted in small chunks to keep lock times short
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-ms:3600000}")
+    public void purgeDelivered() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(retentionMs)));
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM outbox_event WHERE status = 'DONE' AND processed_at < ? LIMIT 1000", cutoff);
+        } while (deleted == 1000);
+    }
+
+    private static final class ClaimLostException extends RuntimeException {
+        ClaimLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
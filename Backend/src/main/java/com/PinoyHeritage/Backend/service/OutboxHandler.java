@@ -0,0 +1,20 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Set;
+
+/**
+ * A consumer of outbox events. Every handler bean is picked up by OutboxDispatcher.
+ *
+ * handle() runs inside the transaction that marks the event done, so database work either
+ * commits together with that or is rolled back and retried. Delivery is at least once:
+ * anything outside the database must tolerate seeing the same event again.
+ */
+public interface OutboxHandler {
+
+    Set<String> eventTypes();
+
+    void handle(OutboxEvent event, JsonNode payload);
+}
@@ -0,0 +1,81 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.PinoyHeritage.Backend.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records outbox events. Must be called inside the transaction making the change, so the event
+ * exists exactly when the change does; the dispatcher is nudged once that transaction commits.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, OutboxDispatcher dispatcher,
+                         ObjectMapper objectMapper, JdbcTemplate jdbcTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent publish(String eventType, Long aggregateId, Map<String, Object> payload) {
+        OutboxEvent saved = outboxEventRepository.save(new OutboxEvent(eventType, aggregateId, toJson(payload)));
+        wakeDispatcherAfterCommit();
+        return saved;
+    }
+
+    /**
+     * Record many events of one type in a single JDBC batch (bulk operations); payloads are
+     * keyed by aggregate id.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(String eventType, Map<Long, Map<String, Object>> payloads) {
+        if (payloads.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(payloads.size());
+        for (Map.Entry<Long, Map<String, Object>> e : payloads.entrySet()) {
+            rows.add(new Object[] {eventType, e.getKey(), toJson(e.getValue()), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_event (event_type, aggregate_id, payload, status, attempts, " +
+                "available_at, created_at) VALUES (?, ?, ?, 'PENDING', 0, ?, ?)", rows);
+        wakeDispatcherAfterCommit();
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+
+    // Deliver right after commit instead of waiting for the next poll
+    private void wakeDispatcherAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package com.PinoyHeritage.Backend.service;
+
+/**
+ * Published by PaymentHandler when an order's payment should be charged; PaymentProcessor
+ * picks it up once the publishing transaction has committed.
+ */
+public record PaymentDueEvent(Long orderId) {}
@@ -0,0 +1,34 @@
+package com.PinoyHeritage.Backend.service;
+
+/**
+ * Payment provider SPI. PaymentProcessor calls it off the request path, with a timeout, retries
+ * and a circuit breaker around it; exactly one bean is active (app.payment.gateway selects it).
+ *
+ * charge() may be called more than once for the same payment (a retry after a timeout whose
+ * call actually went through, or after a restart), so implementations must pass the
+ * idempotency key to the provider or otherwise return the first outcome for a repeated key.
+ */
+public interface PaymentGateway {
+
+    record ChargeRequest(String idempotencyKey, Long orderId, String method, double amount) {}
+
+    /** A definite answer: approved with the provider's reference, or declined with a reason. */
+    record ChargeResult(boolean approved, String reference, String declineReason) {
+
+        public static ChargeResult approved(String reference) {
+            return new ChargeResult(true, reference, null);
+        }
+
+        public static ChargeResult declined(String reason) {
+            return new ChargeResult(false, null, reason);
+        }
+    }
+
+    String name();
+
+    /**
+     * Charge the payment. Throw for transient problems (network, provider unavailable); they are
+     * retried. A decline is a result, not an exception, and is not retried.
+     */
+    ChargeResult charge(ChargeRequest request) throws Exception;
+}
@@ -0,0 +1,34 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Starts charging an order's payment once the order has committed. Only announces it
+ * (PaymentDueEvent, which also keeps PaymentProcessor out of the dispatcher's dependencies):
+ * the gateway call happens on PaymentProcessor's workers, and a redelivered event finds the
+ * payment no longer Pending and does nothing.
+ */
+@Service
+public class PaymentHandler implements OutboxHandler {
+
+    private final ApplicationEventPublisher events;
+
+    public PaymentHandler(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(OutboxEvent.ORDER_PLACED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, JsonNode payload) {
+        events.publishEvent(new PaymentDueEvent(event.getAggregateId()));
+    }
+}
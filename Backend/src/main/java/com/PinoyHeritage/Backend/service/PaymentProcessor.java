@@ -0,0 +1,352 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.BulkStatusResult;
+import com.PinoyHeritage.Backend.entity.OrderStatus;
+import com.PinoyHeritage.Backend.entity.PaymentStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Charges payments through the PaymentGateway off the request path.
+ *
+ * Checkout writes the payment as Pending; the ORDER_PLACED outbox event (PaymentHandler) submits
+ * it here once the order has committed. A worker claims the payment with a guarded update
+ * (Pending → Processing, attempts + 1; the attempt number is the claim token, as in the outbox)
+ * that only matches while the order is still Pending; a payment whose order was cancelled or
+ * settled another way is marked Failed without a charge. The worker then calls the gateway on
+ * a separate pool, waiting at most timeout-ms. Then, in one transaction each:
+ *
+ *   approved → payment Completed, order Paid
+ *   declined, or still failing after max-attempts → payment Failed, order Cancelled, stock returned
+ *   exception or timeout → payment back to Pending, due again after exponential backoff
+ *
+ * Every finishing update is guarded by status and attempt number, so a late answer for an
+ * attempt that was already given up on changes nothing. Gateway errors feed a circuit breaker;
+ * while it is open nothing is claimed and payments simply wait. A poller picks up payments that
+ * are due (retries, anything the queue refused, payments from before a restart) and returns
+ * claims that were never finished to Pending. The gateway is asked to charge with the same
+ * idempotency key on every attempt, so a retry after a lost answer cannot charge twice.
+ */
+@Service
+public class PaymentProcessor {
+
+    // Status literals for the SQL below, taken from the enum so the labels live in one place
+    private static final String PENDING = PaymentStatus.PENDING.sqlLiteral();
+    private static final String PROCESSING = PaymentStatus.PROCESSING.sqlLiteral();
+    private static final String COMPLETED = PaymentStatus.COMPLETED.sqlLiteral();
+    private static final String FAILED = PaymentStatus.FAILED.sqlLiteral();
+
+    // Only charged while its order is still Pending: an order cancelled, or settled outside the
+    // gateway and moved on (Processing, Shipped, a courier scan), must not be billed
+    private static final String ORDER_PENDING =
+            "EXISTS (SELECT 1 FROM order_table o WHERE o.id = payment.order_id AND o.status = " +
+            OrderStatus.PENDING.sqlLiteral() + ")";
+    private static final String CLAIM =
+            "UPDATE payment SET status = " + PROCESSING + ", attempts = attempts + 1, updated_at = ? " +
+            "WHERE id = ? AND status = " + PENDING + " AND " + ORDER_PENDING;
+    private static final String MARK_NOT_CHARGED =
+            "UPDATE payment SET status = " + FAILED + ", last_error = 'Order no longer Pending; not charged', " +
+            "updated_at = ? WHERE id = ? AND status = " + PENDING + " AND NOT " + ORDER_PENDING;
+    private static final String LOAD =
+            "SELECT order_id, method, amount, attempts FROM payment WHERE id = ?";
+    private static final String MARK_COMPLETED =
+            "UPDATE payment SET status = " + COMPLETED + ", gateway_reference = ?, last_error = NULL, updated_at = ? " +
+            "WHERE id = ? AND status = " + PROCESSING + " AND attempts = ?";
+    private static final String MARK_FAILED =
+            "UPDATE payment SET status = " + FAILED + ", last_error = ?, updated_at = ? " +
+            "WHERE id = ? AND status = " + PROCESSING + " AND attempts = ?";
+    private static final String MARK_RETRY =
+            "UPDATE payment SET status = " + PENDING + ", last_error = ?, next_attempt_at = ?, updated_at = ? " +
+            "WHERE id = ? AND status = " + PROCESSING + " AND attempts = ?";
+    private static final String DUE =
+            "SELECT id FROM payment WHERE status = " + PENDING + " AND (next_attempt_at IS NULL OR next_attempt_at <= ?) " +
+            "ORDER BY next_attempt_at LIMIT ?";
+    private static final String RELEASE_ABANDONED =
+            "UPDATE payment SET status = " + PENDING + ", last_error = 'Attempt abandoned', next_attempt_at = ?, updated_at = ? " +
+            "WHERE status = " + PROCESSING + " AND updated_at < ?";
+
+    private record Claimed(long paymentId, long orderId, String method, double amount, int attempt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentGateway gateway;
+    private final OrderService orderService;
+    private final InventoryService inventoryService;
+    private final CatalogCache catalogCache;
+    private final CircuitBreaker breaker;
+    private final ThreadPoolExecutor workers;
+    private final ThreadPoolExecutor calls;
+    private final long timeoutMs;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final int pollBatch;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+
+    public PaymentProcessor(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            PaymentGateway gateway, OrderService orderService,
+                            InventoryService inventoryService, CatalogCache catalogCache,
+                            @Value("${app.payment.workers:8}") int workerCount,
+                            @Value("${app.payment.queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.payment.timeout-ms:5000}") long timeoutMs,
+                            @Value("${app.payment.max-attempts:5}") int maxAttempts,
+                            @Value("${app.payment.backoff-ms:2000}") long backoffMs,
+                            @Value("${app.payment.poll-batch:200}") int pollBatch,
+                            @Value("${app.payment.breaker-threshold:5}") int breakerThreshold,
+                            @Value("${app.payment.breaker-open-ms:30000}") long breakerOpenMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.gateway = gateway;
+        this.orderService = orderService;
+        this.inventoryService = inventoryService;
+        this.catalogCache = catalogCache;
+        this.breaker = new CircuitBreaker("payment-gateway:" + gateway.name(), breakerThreshold, breakerOpenMs);
+        this.timeoutMs = timeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.pollBatch = pollBatch;
+        this.workers = pool("payment-worker-", workerCount, queueCapacity);
+        // Gateway calls get their own threads: a call that times out is abandoned, not waited for,
+        // and a hung provider can use up these threads without stalling the workers
+        this.calls = pool("payment-call-", workerCount * 2, workerCount * 2);
+    }
+
+    private static ThreadPoolExecutor pool(String prefix, int threads, int queueCapacity) {
+        AtomicInteger seq = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, prefix + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        calls.shutdownNow();
+    }
+
+    /** Queue the payment of an order for an attempt; payments that are not Pending are left alone. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentDue(PaymentDueEvent event) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM payment WHERE order_id = ?", Long.class, event.orderId());
+        for (Long id : ids) submit(id);
+    }
+
+    /** Queue a payment; returns false if it was not queued (the poller will get to it). */
+    public boolean submit(Long paymentId) {
+        try {
+            workers.execute(() -> attempt(paymentId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            refused.increment();
+            return false;
+        }
+    }
+
+    /** One attempt at a Pending payment, on the calling thread. */
+    public void attempt(Long paymentId) {
+        if (!breaker.tryAcquire()) return;
+        Claimed claimed = claim(paymentId);
+        if (claimed == null) {
+            // Not Pending any more (done, claimed elsewhere, or its order moved on): the breaker permit was not used
+            breaker.release();
+            return;
+        }
+        if (claimed.attempt() > maxAttempts) {
+            breaker.release();
+            fail(claimed, "Gave up after " + maxAttempts + " attempts");
+            return;
+        }
+
+        PaymentGateway.ChargeResult result;
+        try {
+            Future<PaymentGateway.ChargeResult> call = calls.submit(() -> gateway.charge(new PaymentGateway.ChargeRequest(
+                    "payment-" + claimed.paymentId(), claimed.orderId(), claimed.method(), claimed.amount())));
+            try {
+                result = call.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                call.cancel(true);
+                timedOut.increment();
+                throw new IllegalStateException("Gateway timed out after " + timeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.recordFailure();
+            retryLater(claimed, "Interrupted");
+            return;
+        } catch (Exception e) {
+            breaker.recordFailure();
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            retryLater(claimed, String.valueOf(cause.getMessage()));
+            return;
+        }
+
+        // A decline is a healthy gateway
+        breaker.recordSuccess();
+        if (result.approved()) {
+            complete(claimed, result.reference());
+        } else {
+            declined.increment();
+            fail(claimed, "Declined: " + result.declineReason());
+        }
+    }
+
+    private Claimed claim(Long paymentId) {
+        return transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int updated = jdbcTemplate.update(CLAIM, now, paymentId);
+            if (updated == 0) {
+                // Settle a payment whose order left Pending some other way, so the poller stops offering it
+                if (jdbcTemplate.update(MARK_NOT_CHARGED, now, paymentId) > 0) {
+                    System.out.println("[Payment] Payment " + paymentId + " not charged: its order is no longer Pending");
+                }
+                return null;
+            }
+            return jdbcTemplate.queryForObject(LOAD, (rs, i) -> new Claimed(paymentId, rs.getLong("order_id"),
+                    rs.getString("method"), rs.getDouble("amount"), rs.getInt("attempts")), paymentId);
+        });
+    }
+
+    private void complete(Claimed claimed, String reference) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = jdbcTemplate.update(MARK_COMPLETED, reference, Timestamp.valueOf(LocalDateTime.now()),
+                    claimed.paymentId(), claimed.attempt());
+            if (updated == 0) return;
+            BulkStatusResult moved = orderService.bulkUpdateStatus(List.of(claimed.orderId()), OrderStatus.PAID.label());
+            if (moved.getUpdated().isEmpty()) {
+                // e.g. cancelled by an admin while the charge was in flight; left for a person to refund
+                System.out.println("[Payment] Order " + claimed.orderId() + " was paid but could not be marked Paid: "
+                        + moved.getSkipped().get(0).getReason());
+            }
+            completed.increment();
+        });
+    }
+
+    private void fail(Claimed claimed, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = jdbcTemplate.update(MARK_FAILED, truncate(reason), Timestamp.valueOf(LocalDateTime.now()),
+                    claimed.paymentId(), claimed.attempt());
+            if (updated == 0) return;
+            BulkStatusResult moved = orderService.bulkUpdateStatus(List.of(claimed.orderId()), OrderStatus.CANCELLED.label());
+            // Stock only goes back if this cancelled the order (not if it had already moved on or been cancelled)
+            if (!moved.getUpdated().isEmpty()) releaseStock(claimed.orderId());
+            failed.increment();
+        });
+        System.out.println("[Payment] Payment " + claimed.paymentId() + " for order " + claimed.orderId()
+                + " failed: " + reason);
+    }
+
+    private void releaseStock(long orderId) {
+        List<InventoryService.StockLine> lines = jdbcTemplate.query(
+                "SELECT po.product_id, po.quantity FROM product_order po JOIN product p ON p.id = po.product_id " +
+                "WHERE po.order_id = ? AND p.stock IS NOT NULL",
+                (rs, i) -> new InventoryService.StockLine(rs.getLong("product_id"), rs.getInt("quantity")), orderId);
+        inventoryService.release(lines);
+        for (InventoryService.StockLine line : lines) catalogCache.evictProduct(line.productId());
+    }
+
+    private void retryLater(Claimed claimed, String error) {
+        if (claimed.attempt() >= maxAttempts) {
+            fail(claimed, "Gave up after " + claimed.attempt() + " attempts: " + error);
+            return;
+        }
+        long delay = backoffMs << Math.min(claimed.attempt() - 1, 16);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(MARK_RETRY, truncate(error), Timestamp.valueOf(now.plus(Duration.ofMillis(delay))),
+                Timestamp.valueOf(now), claimed.paymentId(), claimed.attempt());
+        retried.increment();
+    }
+
+    /**
+     * Submit payments that are due and return abandoned claims to Pending. A claim counts as
+     * abandoned once it is well past the call timeout (the instance handling it went away).
+     */
+    @Scheduled(fixedDelayString = "${app.payment.poll-ms:1000}")
+    public void pollDue() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(RELEASE_ABANDONED, Timestamp.valueOf(now), Timestamp.valueOf(now),
+                Timestamp.valueOf(now.minus(Duration.ofMillis(timeoutMs * 2 + 60_000))));
+        if (breaker.state() == CircuitBreaker.State.OPEN) return;
+        // Only top the queue up to what the workers can take in; the rest waits for the next poll
+        int room = Math.min(pollBatch, workers.getQueue().remainingCapacity());
+        if (room <= 0) return;
+        for (Long id : jdbcTemplate.queryForList(DUE, Long.class, Timestamp.valueOf(now), room)) {
+            if (!submit(id)) break;
+        }
+    }
+
+    /** The payment of an order: status, attempts, last error; null if there is none. */
+    public Map<String, Object> statusForOrder(Long orderId) {
+        List<Map<String, Object>> rows = jdbcTemplate.query(
+                "SELECT id, status, method, amount, attempts, last_error, gateway_reference, updated_at " +
+                "FROM payment WHERE order_id = ?",
+                (rs, i) -> {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("paymentId", rs.getLong("id"));
+                    m.put("orderId", orderId);
+                    m.put("status", rs.getString("status"));
+                    m.put("method", rs.getString("method"));
+                    m.put("amount", rs.getObject("amount"));
+                    m.put("attempts", rs.getInt("attempts"));
+                    m.put("lastError", rs.getString("last_error"));
+                    m.put("gatewayReference", rs.getString("gateway_reference"));
+                    Timestamp updated = rs.getTimestamp("updated_at");
+                    m.put("updatedAt", updated == null ? null : updated.toLocalDateTime());
+                    return m;
+                }, orderId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("gateway", gateway.name());
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (PaymentStatus s : PaymentStatus.values()) byStatus.put(s.label(), 0L);
+        jdbcTemplate.query("SELECT status, COUNT(*) AS n FROM payment GROUP BY status",
+                rs -> { byStatus.put(rs.getString("status"), rs.getLong("n")); });
+        m.put("byStatus", byStatus);
+        m.put("completed", completed.sum());
+        m.put("declined", declined.sum());
+        m.put("failed", failed.sum());
+        m.put("retried", retried.sum());
+        m.put("timedOut", timedOut.sum());
+        m.put("refused", refused.sum());
+        m.put("queued", workers.getQueue().size());
+        m.put("active", workers.getActiveCount());
+        m.put("breaker", breaker.stats());
+        return m;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
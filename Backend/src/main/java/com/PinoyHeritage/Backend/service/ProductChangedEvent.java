@@ -0,0 +1,7 @@
+package com.PinoyHeritage.Backend.service;
+
+/**
+ * Published by ProductService after a product is created, edited or deleted,
+ * so derived in-memory structures (search, autocomplete) can update that one product.
+ */
+public record ProductChangedEvent(Long productId, boolean deleted) {}
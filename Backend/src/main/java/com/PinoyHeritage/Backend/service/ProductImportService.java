@@ -0,0 +1,383 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.ImportReport;
+import com.PinoyHeritage.Backend.entity.Product;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming bulk upsert of products from CSV or JSON Lines.
+ *
+ * The input is read line by line and written in chunks: each chunk first creates the categories
+ * it introduces (committed on their own, so a rolled-back chunk never leaves the name map pointing
+ * at a category that does not exist), looks up existing products by name with one IN query, then
+ * sends one JDBC batch of UPDATEs and one of INSERTs inside its own transaction. Memory stays
+ * bounded by the chunk size no matter how large the file is.
+ *
+ * Products are matched by name, the same key the rest of the application uses (cart and order
+ * lines refer to products by name). Rows for a flash-sale product are written on their own with
+ * its hot mode switched off around the write (as ProductService.updateProduct does), so the
+ * imported stock becomes the new in-memory baseline instead of being overwritten by the counters.
+ */
+@Service
+public class ProductImportService {
+
+    public enum Format { CSV, JSONL }
+
+    private static final String[] CSV_COLUMNS = {"name", "description", "price", "stock", "category", "sizes", "imageUrl"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CatalogCache catalogCache;
+    private final FlashSaleInventory flashSale;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+
+    // One parsed input line
+    private record Row(long line, String name, String description, Double price, Integer stock,
+                       String category, String sizes, String imageUrl) {}
+
+    public ProductImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper, CatalogCache catalogCache,
+                                FlashSaleInventory flashSale, ApplicationEventPublisher events,
+                                @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.catalogCache = catalogCache;
+        this.flashSale = flashSale;
+        this.events = events;
+        this.chunkSize = chunkSize;
+    }
+
+    public static Format formatOf(String format, String filename) {
+        if (format != null && !format.isBlank()) {
+            String f = format.trim().toLowerCase();
+            if (f.equals("csv")) return Format.CSV;
+            if (f.equals("jsonl") || f.equals("ndjson") || f.equals("json")) return Format.JSONL;
+            throw new IllegalArgumentException("Unknown import format: " + format);
+        }
+        if (filename != null && filename.toLowerCase().endsWith(".csv")) return Format.CSV;
+        return Format.JSONL;
+    }
+
+    public ImportReport importProducts(InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        Map<String, Long> categories = loadCategories();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024)) {
+            Map<String, Integer> header = null;
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                if (format == Format.CSV && header == null) {
+                    header = csvHeader(line);
+                    continue;
+                }
+                report.setRowsRead(report.getRowsRead() + 1);
+                try {
+                    chunk.add(format == Format.CSV ? parseCsv(lineNo, line, header) : parseJson(lineNo, line));
+                } catch (Exception e) {
+                    report.addError(lineNo, e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, categories, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) writeChunk(chunk, categories, report);
+        } finally {
+            long changed = report.getInserted() + report.getUpdated();
+            if (changed > 0 || report.getCategoriesCreated() > 0) {
+                catalogCache.evictCategories();
+                events.publishEvent(new CatalogReloadedEvent(changed));
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMs(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos == 0 ? 0 : report.getRowsRead() * 1e9 / elapsedNanos);
+        return report;
+    }
+
+    // ---------------------------------------------------------------------
+    // Writing
+    // ---------------------------------------------------------------------
+
+    private void writeChunk(List<Row> chunk, Map<String, Long> categories, ImportReport report) {
+        createCategories(chunk, categories, report);
+        Map<Long, List<Row>> hotRows = takeHotRows(chunk);
+        if (!chunk.isEmpty()) writeRows(chunk, categories, report);
+        for (Map.Entry<Long, List<Row>> hot : hotRows.entrySet()) {
+            flashSale.disable(hot.getKey());
+            try {
+                writeRows(hot.getValue(), categories, report);
+            } finally {
+                flashSale.enable(hot.getKey());
+            }
+        }
+    }
+
+    // Removes the rows of flash-sale products that set a stock from the chunk, grouped by product id
+    private Map<Long, List<Row>> takeHotRows(List<Row> chunk) {
+        Map<Long, List<Row>> hotRows = new LinkedHashMap<>();
+        if (!flashSale.anyHot()) return hotRows;
+        List<String> names = new ArrayList<>();
+        for (Row r : chunk) {
+            if (r.stock() != null) names.add(r.name());
+        }
+        if (names.isEmpty()) return hotRows;
+        Map<String, Long> hotIds = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, name FROM product WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names),
+                rs -> {
+                    long id = rs.getLong("id");
+                    if (flashSale.isHot(id)) hotIds.putIfAbsent(rs.getString("name"), id);
+                });
+        if (hotIds.isEmpty()) return hotRows;
+        // Every row of that name moves, so the last one in the file still wins
+        chunk.removeIf(r -> {
+            Long id = hotIds.get(r.name());
+            if (id == null) return false;
+            hotRows.computeIfAbsent(id, k -> new ArrayList<>()).add(r);
+            return true;
+        });
+        return hotRows;
+    }
+
+    private void writeRows(List<Row> chunk, Map<String, Long> categories, ImportReport report) {
+        try {
+            long[] counts = transactionTemplate.execute(status -> upsert(chunk, categories));
+            report.setInserted(report.getInserted() + counts[0]);
+            report.setUpdated(report.getUpdated() + counts[1]);
+        } catch (Exception chunkFailure) {
+            // The chunk was rolled back; redo it row by row so only the bad rows are reported
+            for (Row row : chunk) {
+                try {
+                    long[] counts = transactionTemplate.execute(status -> upsert(List.of(row), categories));
+                    report.setInserted(report.getInserted() + counts[0]);
+                    report.setUpdated(report.getUpdated() + counts[1]);
+                } catch (Exception e) {
+                    report.addError(row.line(), rootMessage(e));
+                }
+            }
+        }
+    }
+
+    // Returns {inserted, updated}
+    private long[] upsert(List<Row> rows, Map<String, Long> categories) {
+        // Last occurrence of a name within the chunk wins
+        Map<String, Row> byName = new LinkedHashMap<>();
+        for (Row r : rows) byName.put(r.name(), r);
+
+        Map<String, Long> existing = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, name FROM product WHERE name IN (:names)",
+                new MapSqlParameterSource("names", byName.keySet()),
+                rs -> { existing.putIfAbsent(rs.getString("name"), rs.getLong("id")); });
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Row r : byName.values()) {
+            Long categoryId = resolveCategory(r.category(), categories);
+            Long id = existing.get(r.name());
+            if (id != null) {
+                updates.add(new Object[] {r.description(), r.price(), r.stock(), r.sizes(), r.imageUrl(), categoryId, id});
+            } else {
+                inserts.add(new Object[] {r.name(), r.description(), r.price(), r.stock(), r.sizes(), r.imageUrl(), categoryId});
+            }
+        }
+
+        int[] types = {Types.VARCHAR, Types.DOUBLE, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT};
+        if (!updates.isEmpty()) {
+            // COALESCE keeps current values for columns the file leaves empty
+            jdbcTemplate.batchUpdate(
+                    "UPDATE product SET description = COALESCE(?, description), price = COALESCE(?, price), " +
+                    "stock = COALESCE(?, stock), sizes = COALESCE(?, sizes), image_url = COALESCE(?, image_url), " +
+                    "category_id = COALESCE(?, category_id) WHERE id = ?",
+                    updates, types);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO product (name, description, price, stock, sizes, image_url, category_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    inserts,
+                    new int[] {Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.BIGINT});
+        }
+        return new long[] {inserts.size(), updates.size()};
+    }
+
+    private Map<String, Long> loadCategories() {
+        Map<String, Long> map = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM category",
+                rs -> { map.put(rs.getString("name").toLowerCase(), rs.getLong("id")); });
+        return map;
+    }
+
+    // Categories are few: unknown names are created on first use and remembered for the rest of the file.
+    // Runs outside the chunk transaction (auto-commit), so the ids in the map are always committed rows;
+    // INSERT IGNORE plus the re-select also copes with a category created concurrently.
+    private void createCategories(List<Row> chunk, Map<String, Long> categories, ImportReport report) {
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (Row r : chunk) {
+            if (r.category() == null || r.category().isBlank()) continue;
+            String key = r.category().trim().toLowerCase();
+            if (!categories.containsKey(key)) missing.putIfAbsent(key, r.category().trim());
+        }
+        if (missing.isEmpty()) return;
+
+        for (String name : missing.values()) {
+            try {
+                report.setCategoriesCreated(report.getCategoriesCreated()
+                        + jdbcTemplate.update("INSERT IGNORE INTO category (name) VALUES (?)", name));
+            } catch (Exception e) {
+                // Left unresolved: the rows using it fail and are reported one by one
+                System.out.println("[Import] Could not create category '" + name + "': " + rootMessage(e));
+            }
+        }
+        namedJdbcTemplate.query("SELECT id, name FROM category WHERE name IN (:names)",
+                new MapSqlParameterSource("names", missing.values()),
+                rs -> { categories.put(rs.getString("name").toLowerCase(), rs.getLong("id")); });
+    }
+
+    private static Long resolveCategory(String name, Map<String, Long> categories) {
+        if (name == null || name.isBlank()) return null;
+        Long id = categories.get(name.trim().toLowerCase());
+        if (id == null) throw new IllegalArgumentException("Unknown category: " + name.trim());
+        return id;
+    }
+
+    // ---------------------------------------------------------------------
+    // Parsing
+    // ---------------------------------------------------------------------
+
+    private static Map<String, Integer> csvHeader(String line) {
+        List<String> cols = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < cols.size(); i++) {
+            header.put(cols.get(i).trim().toLowerCase(), i);
+        }
+        if (!header.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must contain a 'name' column (columns: "
+                    + String.join(",", CSV_COLUMNS) + ")");
+        }
+        return header;
+    }
+
+    private static Row parseCsv(long lineNo, String line, Map<String, Integer> header) {
+        List<String> cols = splitCsv(line);
+        java.util.function.Function<String, String> col = name -> {
+            Integer i = header.get(name.toLowerCase());
+            if (i == null || i >= cols.size()) return null;
+            String v = cols.get(i).trim();
+            return v.isEmpty() ? null : v;
+        };
+        // Sizes in CSV are separated with ';' or '|' ("S;M;L")
+        String sizes = col.apply("sizes");
+        if (sizes != null && !sizes.startsWith("[")) {
+            Product tmp = new Product();
+            tmp.setSizesList(List.of(sizes.split("[;|]")));
+            sizes = tmp.getSizes();
+        }
+        return row(lineNo, col.apply("name"), col.apply("description"), col.apply("price"), col.apply("stock"),
+                col.apply("category"), sizes, col.apply("imageUrl"));
+    }
+
+    private Row parseJson(long lineNo, String line) throws IOException {
+        JsonNode n = objectMapper.readTree(line);
+        if (n == null || !n.isObject()) throw new IllegalArgumentException("Expected a JSON object");
+        JsonNode category = n.get("category");
+        String categoryName = category == null || category.isNull() ? null
+                : category.isObject() ? text(category.get("name")) : category.asText();
+        JsonNode sizes = n.get("sizes");
+        String sizesJson = sizes == null || sizes.isNull() ? null
+                : sizes.isArray() ? objectMapper.writeValueAsString(sizes) : sizes.asText();
+        return row(lineNo, text(n.get("name")), text(n.get("description")), text(n.get("price")), text(n.get("stock")),
+                categoryName, sizesJson, text(n.get("imageUrl")));
+    }
+
+    private static Row row(long lineNo, String name, String description, String price, String stock,
+                           String category, String sizes, String imageUrl) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("Missing product name");
+        if (ImageStorageService.isDataUri(imageUrl)) {
+            throw new IllegalArgumentException("Inline images are not accepted; upload the image separately");
+        }
+        Double p;
+        Integer s;
+        try {
+            p = price == null ? null : Double.valueOf(price);
+            s = stock == null ? null : Integer.valueOf(stock);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + e.getMessage());
+        }
+        if (p != null && p < 0) throw new IllegalArgumentException("Negative price");
+        if (s != null && s < 0) throw new IllegalArgumentException("Negative stock");
+        return new Row(lineNo, name.trim(), description, p, s, category, sizes, imageUrl);
+    }
+
+    private static String text(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    // RFC 4180 fields on a single line: commas inside quotes, "" as an escaped quote
+    static List<String> splitCsv(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        out.add(cur.toString());
+        return out;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable t = e;
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage();
+    }
+}
@@ -0,0 +1,294 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.ProductSummary;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, description and category name, ranked with BM25.
+ *
+ * Documents are append-only: an update tombstones the old document and appends a new one,
+ * and the index compacts itself once tombstones pile up. Readers share a read lock, so
+ * queries never touch MySQL and run in parallel with each other.
+ */
+public class ProductSearchIndex {
+
+    // BM25 parameters
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Field weights: a hit in the name matters more than one deep in the description
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // English and Filipino function words that carry no meaning for product search
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of",
+            "on", "or", "the", "to", "with",
+            "ang", "ng", "nang", "mga", "sa", "na", "ay", "si", "ni", "kay", "para",
+            "ito", "iyan", "iyon", "din", "rin", "lang", "po", "yung", "ung", "o");
+
+    public static final class Doc {
+        final long productId;
+        final ProductSummary summary;
+        final String category;
+        final int length;
+
+        Doc(long productId, ProductSummary summary, String category, int length) {
+            this.productId = productId;
+            this.summary = summary;
+            this.category = category;
+            this.length = length;
+        }
+    }
+
+    // Growable postings list: doc ordinals (ascending) with their weighted term frequency
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    public record Result(List<ProductSummary> hits, int total, Map<String, Integer> categoryFacets) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    // Per-document columns kept as primitives so scoring does not chase Doc objects
+    private int[] docLength = new int[16];
+    private int[] docCategory = new int[16];
+
+    // Category name (as displayed) by ordinal, and ordinal by lowercase name
+    private final List<String> categoryNames = new ArrayList<>();
+    private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+    private long totalLength;
+    private int liveDocs;
+
+    public void put(ProductSummary summary, String description) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(summary.getId());
+            addLocked(summary, description);
+            if (deleted.cardinality() > 1024 && deleted.cardinality() > liveDocs / 4) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search. Facet counts cover every match of the query; the category filter
+     * (case-insensitive name, optional) only narrows the returned hits.
+     */
+    public Result search(String query, String category, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) return new Result(List.of(), 0, Map.of());
+
+        lock.readLock().lock();
+        try {
+            int n = docs.size();
+            float avgLength = liveDocs == 0 ? 1f : (float) totalLength / liveDocs;
+            float[] scores = new float[n];
+            BitSet matched = new BitSet(n);
+
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Postings p = terms.get(term);
+                if (p == null) continue;
+                int df = 0;
+                for (int i = 0; i < p.size; i++) {
+                    if (!deleted.get(p.docs[i])) df++;
+                }
+                if (df == 0) continue;
+                float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                for (int i = 0; i < p.size; i++) {
+                    int d = p.docs[i];
+                    if (deleted.get(d)) continue;
+                    float tf = p.freqs[i];
+                    float norm = K1 * (1 - B + B * docLength[d] / avgLength);
+                    scores[d] += idf * (tf * (K1 + 1)) / (tf + norm);
+                    matched.set(d);
+                }
+            }
+
+            // Facets are counted per category ordinal, then named once at the end
+            int[] facetCounts = new int[categoryNames.size()];
+            int wanted = category == null || category.isBlank() ? -1 : categoryOrdinals.getOrDefault(category.toLowerCase(), -2);
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, limit),
+                    (a, b) -> Float.compare(scores[a], scores[b]) != 0 ? Float.compare(scores[a], scores[b]) : Integer.compare(b, a));
+            int total = 0;
+            for (int d = matched.nextSetBit(0); d >= 0; d = matched.nextSetBit(d + 1)) {
+                int cat = docCategory[d];
+                if (cat >= 0) facetCounts[cat]++;
+                if (wanted != -1 && cat != wanted) continue;
+                total++;
+                if (top.size() < limit) {
+                    top.offer(d);
+                } else if (scores[d] > scores[top.peek()]) {
+                    top.poll();
+                    top.offer(d);
+                }
+            }
+
+            Map<String, Integer> facets = new LinkedHashMap<>();
+            for (int c = 0; c < facetCounts.length; c++) {
+                if (facetCounts[c] > 0) facets.put(categoryNames.get(c), facetCounts[c]);
+            }
+            ProductSummary[] hits = new ProductSummary[top.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                hits[i] = docs.get(top.poll()).summary;
+            }
+            return new Result(List.of(hits), total, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercase, strip accents (ñ → n, é → e), split on anything that is not a letter or digit,
+     * drop stopwords and fold simple English plurals ("bags" → "bag").
+     */
+    public static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isBlank()) return out;
+        String normalized = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "");
+        for (String raw : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (raw.isEmpty() || STOPWORDS.contains(raw)) continue;
+            out.add(stem(raw));
+        }
+        return out;
+    }
+
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) return token.substring(0, token.length() - 3) + "y";
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss")) return token.substring(0, token.length() - 1);
+        return token;
+    }
+
+    private void addLocked(ProductSummary summary, String description) {
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = 0;
+        length += countTerms(summary.getName(), NAME_WEIGHT, freqs);
+        length += countTerms(summary.getCategoryName(), CATEGORY_WEIGHT, freqs);
+        length += countTerms(description, DESCRIPTION_WEIGHT, freqs);
+
+        int ordinal = docs.size();
+        docs.add(new Doc(summary.getId(), summary, summary.getCategoryName(), Math.max(1, length)));
+        docByProduct.put(summary.getId(), ordinal);
+        setColumnsLocked(ordinal, docs.get(ordinal));
+        for (Map.Entry<String, Integer> e : freqs.entrySet()) {
+            terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(ordinal, e.getValue());
+        }
+        totalLength += Math.max(1, length);
+        liveDocs++;
+    }
+
+    private void setColumnsLocked(int ordinal, Doc doc) {
+        if (ordinal >= docLength.length) {
+            int cap = Math.max(ordinal + 1, docLength.length * 2);
+            docLength = Arrays.copyOf(docLength, cap);
+            docCategory = Arrays.copyOf(docCategory, cap);
+        }
+        docLength[ordinal] = doc.length;
+        docCategory[ordinal] = categoryOrdinalLocked(doc.category);
+    }
+
+    private int categoryOrdinalLocked(String category) {
+        if (category == null) return -1;
+        return categoryOrdinals.computeIfAbsent(category.toLowerCase(), k -> {
+            categoryNames.add(category);
+            return categoryNames.size() - 1;
+        });
+    }
+
+    private static int countTerms(String text, int weight, Map<String, Integer> freqs) {
+        List<String> tokens = tokenize(text);
+        for (String t : tokens) freqs.merge(t, weight, Integer::sum);
+        return tokens.size() * weight;
+    }
+
+    private void removeLocked(Long productId) {
+        Integer ordinal = docByProduct.remove(productId);
+        if (ordinal == null) return;
+        deleted.set(ordinal);
+        totalLength -= docs.get(ordinal).length;
+        liveDocs--;
+    }
+
+    // Rebuild postings without tombstoned documents
+    private void compactLocked() {
+        List<Doc> live = new ArrayList<>(liveDocs);
+        for (int d = 0; d < docs.size(); d++) {
+            if (!deleted.get(d)) live.add(docs.get(d));
+        }
+        Map<Integer, Integer> remap = new HashMap<>();
+        for (int i = 0; i < live.size(); i++) {
+            remap.put(docByProduct.get(live.get(i).productId), i);
+        }
+        for (Postings p : terms.values()) {
+            int w = 0;
+            for (int i = 0; i < p.size; i++) {
+                Integer to = remap.get(p.docs[i]);
+                if (to == null) continue;
+                p.docs[w] = to;
+                p.freqs[w] = p.freqs[i];
+                w++;
+            }
+            p.size = w;
+        }
+        terms.values().removeIf(p -> p.size == 0);
+        docs.clear();
+        docs.addAll(live);
+        docByProduct.clear();
+        for (int i = 0; i < live.size(); i++) {
+            docByProduct.put(live.get(i).productId, i);
+            setColumnsLocked(i, live.get(i));
+        }
+        deleted.clear();
+    }
+}
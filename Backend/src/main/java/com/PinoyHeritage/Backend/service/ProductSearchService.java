@@ -0,0 +1,101 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.ProductSearchResponse;
+import com.PinoyHeritage.Backend.dto.ProductSummary;
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product search served entirely from memory.
+ * The index is built once at startup and then kept current product by product from the
+ * ProductService / CategoryService change events, after the write has committed.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final int REBUILD_BATCH = 1000;
+    public static final int MAX_LIMIT = 100;
+
+    private final ProductRepository productRepository;
+
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+
+    // Products changed while a rebuild was scanning; re-indexed once the new index is live
+    private volatile Set<Long> changedDuringRebuild;
+
+    public ProductSearchService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        ProductSearchIndex fresh = new ProductSearchIndex();
+        long lastId = 0;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH));
+            for (Product p : batch) {
+                fresh.put(ProductSummary.from(p), p.getDescription());
+                lastId = p.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+
+        index = fresh;
+        Set<Long> changed = changedDuringRebuild;
+        changedDuringRebuild = null;
+        changed.forEach(this::reindex);
+        System.out.println("[Search] Indexed " + fresh.size() + " products in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    public ProductSearchResponse search(String query, String category, Integer limit) {
+        long start = System.nanoTime();
+        int n = limit == null ? 20 : Math.max(1, Math.min(MAX_LIMIT, limit));
+        ProductSearchIndex.Result r = index.search(query, category, n);
+        double tookMs = (System.nanoTime() - start) / 1_000_000.0;
+        return new ProductSearchResponse(query, r.total(), r.hits(), r.categoryFacets(), tookMs);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<Long> pending = changedDuringRebuild;
+        if (pending != null) pending.add(event.productId());
+        if (event.deleted()) {
+            index.remove(event.productId());
+        } else {
+            reindex(event.productId());
+        }
+    }
+
+    // A bulk import touched too many rows for per-product events; rebuild from scratch
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogReloaded(CatalogReloadedEvent event) {
+        rebuild();
+    }
+
+    // A rename changes the category tokens of every product in it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.deleted()) return;
+        for (Product p : productRepository.findByCategoryId(event.categoryId())) {
+            index.put(ProductSummary.from(p), p.getDescription());
+        }
+    }
+
+    private void reindex(Long productId) {
+        productRepository.findById(productId).ifPresentOrElse(
+                p -> index.put(ProductSummary.from(p), p.getDescription()),
+                () -> index.remove(productId));
+    }
+}
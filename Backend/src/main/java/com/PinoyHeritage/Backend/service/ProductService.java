@@ -1,14 +1,17 @@
 package com.PinoyHeritage.Backend.service;
 
+import com.PinoyHeritage.Backend.dto.CursorPage;
+import com.PinoyHeritage.Backend.dto.ProductListQuery;
+import com.PinoyHeritage.Backend.dto.ProductSummary;
 import com.PinoyHeritage.Backend.entity.Product;
 import com.PinoyHeritage.Backend.entity.Category;
 import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,42 +21,85 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryService categoryService; 
-
-    public ProductService(ProductRepository productRepository, CategoryService categoryService) {
+    private final ImageStorageService imageStorage;
+    private final ImageRenditionService renditions;
+    private final CatalogCache catalogCache;
+    private final FlashSaleInventory flashSale;
+    private final ApplicationEventPublisher events;
+
+    public ProductService(ProductRepository productRepository, CategoryService categoryService,
+                          ImageStorageService imageStorage, ImageRenditionService renditions,
+                          CatalogCache catalogCache, FlashSaleInventory flashSale,
+                          ApplicationEventPublisher events) {
         this.productRepository = productRepository;
         this.categoryService = categoryService;
+        this.imageStorage = imageStorage;
+        this.renditions = renditions;
+        this.catalogCache = catalogCache;
+        this.flashSale = flashSale;
+        this.events = events;
     }
 
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return catalogCache.allProducts(productRepository::findAll);
+    }
+
+    // Default list shape: summaries only; use getProductById for the full detail view
+    public List<ProductSummary> getProductSummaries() {
+        return productRepository.findAllSummaries();
     }
 
+    // Keyset-paginated listing; fetches one extra row to know whether a next page exists
+    public CursorPage<ProductSummary> getProductPage(ProductListQuery query) {
+        List<ProductSummary> rows = productRepository.findPage(query, query.getSize() + 1);
+        String nextCursor = null;
+        if (rows.size() > query.getSize()) {
+            rows = rows.subList(0, query.getSize());
+            ProductSummary last = rows.get(rows.size() - 1);
+            nextCursor = ProductListQuery.encodeCursor(query.getSort(), last.getId(), last.getName(), last.getPrice());
+        }
+        return new CursorPage<>(List.copyOf(rows), nextCursor);
+    }
 
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return Optional.ofNullable(catalogCache.productById(id, key -> productRepository.findById(key).orElse(null)));
     }
 
     // Simple save
     public Product addProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        catalogCache.evictProduct(saved.getId());
+        events.publishEvent(new ProductChangedEvent(saved.getId(), false));
+        return saved;
     }
 
-    // Transactional save that handles saving the image as Base64 in database
+    // Transactional save that stores the image file and keeps only its URL on the product
     @Transactional
     public Product addProductWithImage(Product product, MultipartFile[] images) throws IOException {
         if (images != null && images.length > 0 && !images[0].isEmpty()) {
-            MultipartFile file = images[0];
-            byte[] imageBytes = file.getBytes();
-            String imageType = getImageType(file.getOriginalFilename());
-            String base64Image = "data:image/" + imageType + ";base64," + 
-                                Base64.getEncoder().encodeToString(imageBytes);
-            product.setImageUrl(base64Image);
+            product.setImageUrl(storeWithRenditions(images[0]));
         }
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        catalogCache.evictProduct(saved.getId());
+        events.publishEvent(new ProductChangedEvent(saved.getId(), false));
+        return saved;
     }
 
     public Product updateProduct(Long id, Product updatedProduct) {
+        // A flash-sale product's stock lives in memory: hand it back to the row, save, take it again
+        if (flashSale.isHot(id)) {
+            flashSale.disable(id);
+            try {
+                return updateProductRow(id, updatedProduct);
+            } finally {
+                flashSale.enable(id);
+            }
+        }
+        return updateProductRow(id, updatedProduct);
+    }
+
+    private Product updateProductRow(Long id, Product updatedProduct) {
         return productRepository.findById(id)
                 .map(product -> {
                     product.setName(updatedProduct.getName());
@@ -67,40 +113,56 @@ public class ProductService {
                         product.setCategory(updatedProduct.getCategory());
                     }
 
-                    return productRepository.save(product);
+                    Product saved = productRepository.save(product);
+                    catalogCache.evictProduct(id);
+                    events.publishEvent(new ProductChangedEvent(id, false));
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
 
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        catalogCache.evictProduct(id);
+        events.publishEvent(new ProductChangedEvent(id, true));
     }
 
-    // Save image(s) for an existing product and update imageUrl (uses first image, stored as Base64)
+    // For writes that bypass this service (e.g. stock changes during checkout)
+    public void evictProduct(Long id) {
+        catalogCache.evictProduct(id);
+    }
+
+    // Save image(s) for an existing product and update imageUrl (uses first image, stored in the image store
+    // together with its thumb / card / full renditions)
     public Product addImageForProduct(Long productId, MultipartFile[] images) throws IOException {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
 
         if (images != null && images.length > 0 && !images[0].isEmpty()) {
-            MultipartFile file = images[0];
-            byte[] imageBytes = file.getBytes();
-            String imageType = getImageType(file.getOriginalFilename());
-            String base64Image = "data:image/" + imageType + ";base64," + 
-                                Base64.getEncoder().encodeToString(imageBytes);
-            product.setImageUrl(base64Image);
-            return productRepository.save(product);
+            return setProductImage(productId, storeWithRenditions(images[0]));
         }
 
         return product;
     }
 
-    // Helper method to determine image type from filename
-    private String getImageType(String filename) {
-        if (filename == null) return "jpeg";
-        String lower = filename.toLowerCase();
-        if (lower.endsWith(".png")) return "png";
-        if (lower.endsWith(".gif")) return "gif";
-        if (lower.endsWith(".webp")) return "webp";
-        return "jpeg";
+    // Point a product at an image that is already in the store
+    public Product setProductImage(Long productId, String imageUrl) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        product.setImageUrl(imageUrl);
+        Product saved = productRepository.save(product);
+        catalogCache.evictProduct(productId);
+        events.publishEvent(new ProductChangedEvent(productId, false));
+        return saved;
+    }
+
+    // Renditions are ready before the URL is published, so list views never point at a missing file
+    private String storeWithRenditions(MultipartFile image) throws IOException {
+        String url = imageStorage.store(image);
+        if (!renditions.generate(url)) {
+            // The rendition URLs derived from it serve the original itself
+            System.out.println("[Product] No renditions for " + url + ", using the original");
+        }
+        return url;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Keeps the sales rollups current as orders are placed and change status. Runs in the event's
+ * delivery transaction, so a redelivered event finds the order's rollup mark already set and
+ * changes nothing.
+ */
+@Service
+public class SalesRollupHandler implements OutboxHandler {
+
+    private final SalesRollupService salesRollupService;
+
+    public SalesRollupHandler(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of(OutboxEvent.ORDER_PLACED, OutboxEvent.ORDER_STATUS_CHANGED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event, JsonNode payload) {
+        if (OutboxEvent.ORDER_PLACED.equals(event.getEventType())) {
+            salesRollupService.orderPlaced(event.getAggregateId());
+        } else if (payload.hasNonNull("status")) {
+            salesRollupService.statusChanged(event.getAggregateId(), payload.get("status").asText());
+        }
+    }
+}
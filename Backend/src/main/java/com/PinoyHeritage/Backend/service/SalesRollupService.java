@@ -0,0 +1,334 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.OrderStatus;
+import com.PinoyHeritage.Backend.entity.SalesRollup.Dimension;
+import com.PinoyHeritage.Backend.entity.SalesRollup.Grain;
+import jakarta.annotation.PreDestroy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hourly and daily sales rollups (orders, units, revenue) per shop, product and category.
+ *
+ * An order counts towards the buckets of the hour and day it was placed in, and stops counting
+ * once it is cancelled. Changes are applied incrementally from the outbox (SalesRollupHandler)
+ * as additive upserts of only the rows the order touches. The backfill rebuilds whole days from
+ * the order tables. Both decide whether to apply an order through its sales_rollup_order row,
+ * so running them at the same time never counts an order twice.
+ *
+ * Revenue is the order total for TOTAL rows and quantity × unit price for product and category
+ * rows; categories are the products' current ones.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final String UPSERT =
+            "INSERT INTO sales_rollup (grain, bucket_start, dimension, dimension_id, orders_count, units, revenue) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE orders_count = orders_count + VALUES(orders_count), " +
+            "units = units + VALUES(units), revenue = revenue + VALUES(revenue)";
+    // One row per order line (or one row for an order without lines), ordered so an order's rows are adjacent
+    private static final String ORDER_LINES = orderLines("order_table", "product_order");
+    // The same over the archive (OrderArchiveService), so a backfill of old days still sees their orders
+    private static final String ARCHIVED_ORDER_LINES = orderLines("order_archive", "product_order_archive");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService backfillExecutor;
+    private final AtomicReference<Map<String, Object>> backfill = new AtomicReference<>();
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.backfillExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "sales-rollup-backfill");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+
+    // ------------------------------------------------------------------
+    // Incremental updates (called by SalesRollupHandler inside the outbox transaction)
+    // ------------------------------------------------------------------
+
+    /** A new order: counted unless it is already (the backfill got there first). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(Long orderId) {
+        String status = jdbcTemplate.query("SELECT status FROM order_table WHERE id = ?",
+                rs -> rs.next() ? rs.getString(1) : null, orderId);
+        if (status == null) return;
+        boolean counted = OrderStatus.fromLabel(status) != OrderStatus.CANCELLED;
+        int inserted = jdbcTemplate.update("INSERT IGNORE INTO sales_rollup_order (order_id, counted) VALUES (?, ?)",
+                orderId, counted);
+        if (inserted == 1 && counted) applyOrder(orderId, 1);
+    }
+
+    /** A status change: only a move into or out of Cancelled changes the rollups. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Long orderId, String newStatus) {
+        boolean counted = OrderStatus.fromLabel(newStatus) != OrderStatus.CANCELLED;
+        int flipped = jdbcTemplate.update(
+                "UPDATE sales_rollup_order SET counted = ? WHERE order_id = ? AND counted <> ?", counted, orderId, counted);
+        // No row: the order predates the rollups and has not been backfilled yet; the backfill will see the new status
+        if (flipped == 1) applyOrder(orderId, counted ? 1 : -1);
+    }
+
+    private void applyOrder(Long orderId, int sign) {
+        Accumulator acc = new Accumulator();
+        jdbcTemplate.query(ORDER_LINES + "WHERE o.id = ?", acc::row, orderId);
+        acc.finishOrder();
+        upsert(acc.rows, sign);
+    }
+
+    // ------------------------------------------------------------------
+    // Backfill
+    // ------------------------------------------------------------------
+
+    /**
+     * Rebuild the rollups for [from, to] (whole days) on a background thread, one transaction
+     * per day. Returns false if a backfill is already running.
+     */
+    public synchronized boolean startBackfill(LocalDate from, LocalDate to) {
+        Map<String, Object> current = backfill.get();
+        if (current != null && "RUNNING".equals(current.get("state"))) return false;
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", "RUNNING");
+        status.put("from", from.toString());
+        status.put("to", to.toString());
+        status.put("daysDone", 0);
+        status.put("daysTotal", (int) ChronoUnit.DAYS.between(from, to) + 1);
+        status.put("ordersCounted", 0L);
+        backfill.set(status);
+
+        backfillExecutor.execute(() -> {
+            try {
+                long counted = 0;
+                for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                    if (Thread.currentThread().isInterrupted()) return;
+                    counted += rebuildDayWithRetry(day);
+                    synchronized (status) {
+                        status.put("daysDone", (Integer) status.get("daysDone") + 1);
+                        status.put("ordersCounted", counted);
+                    }
+                }
+                synchronized (status) {
+                    status.put("state", "DONE");
+                }
+            } catch (RuntimeException e) {
+                synchronized (status) {
+                    status.put("state", "FAILED");
+                    status.put("error", e.getMessage());
+                }
+                System.out.println("[SalesRollup] Backfill failed: " + e.getMessage());
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> backfillStatus() {
+        Map<String, Object> status = backfill.get();
+        if (status == null) return Map.of("state", "IDLE");
+        synchronized (status) {
+            return new LinkedHashMap<>(status);
+        }
+    }
+
+    // Lock waits / deadlocks with concurrent incremental updates are possible; the day is simply redone
+    private long rebuildDayWithRetry(LocalDate day) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Long n = transactionTemplate.execute(s -> rebuildDay(day));
+                return n != null ? n : 0;
+            } catch (DataAccessException e) {
+                if (attempt >= 3) throw e;
+            }
+        }
+    }
+
+    private long rebuildDay(LocalDate day) {
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        // Mark the day's orders (existing marks, made by the incremental path, are kept as they are)
+        for (String orders : List.of("order_table", "order_archive")) {
+            jdbcTemplate.update("INSERT IGNORE INTO sales_rollup_order (order_id, counted) " +
+                    "SELECT id, CASE WHEN status = ? THEN FALSE ELSE TRUE END FROM " + orders + " " +
+                    "WHERE created_at >= ? AND created_at < ?", OrderStatus.CANCELLED.label(), start, end);
+        }
+
+        jdbcTemplate.update("DELETE FROM sales_rollup WHERE bucket_start >= ? AND bucket_start < ?", start, end);
+
+        // An order is in one table or the other, so the two passes never split one
+        Accumulator acc = new Accumulator();
+        for (String lines : List.of(ORDER_LINES, ARCHIVED_ORDER_LINES)) {
+            jdbcTemplate.query(lines + "JOIN sales_rollup_order m ON m.order_id = o.id AND m.counted = TRUE " +
+                    "WHERE o.created_at >= ? AND o.created_at < ? ORDER BY o.id", acc::row, start, end);
+            acc.finishOrder();
+        }
+        upsert(acc.rows, 1);
+        return acc.orders;
+    }
+
+    private static String orderLines(String orders, String lines) {
+        return "SELECT o.id AS order_id, o.created_at, o.total_amount, po.product_id, p.category_id, po.quantity, po.unit_price " +
+               "FROM " + orders + " o LEFT JOIN " + lines + " po ON po.order_id = o.id LEFT JOIN product p ON p.id = po.product_id ";
+    }
+
+    private void upsert(Map<RollupKey, double[]> rows, int sign) {
+        if (rows.isEmpty()) return;
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Map.Entry<RollupKey, double[]> e : rows.entrySet()) {
+            RollupKey k = e.getKey();
+            double[] v = e.getValue();
+            args.add(new Object[] {k.grain().name(), Timestamp.valueOf(k.bucket()), k.dimension().name(), k.id(),
+                    (long) v[0] * sign, (long) v[1] * sign, v[2] * sign});
+        }
+        jdbcTemplate.batchUpdate(UPSERT, args);
+    }
+
+    // ------------------------------------------------------------------
+    // Dashboard queries: a few rows per bucket, independent of the number of orders
+    // ------------------------------------------------------------------
+
+    /** Shop-wide orders / units / revenue per hour or day in [from, to). */
+    public List<Map<String, Object>> timeseries(Grain grain, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT bucket_start, orders_count, units, revenue FROM sales_rollup " +
+                "WHERE grain = ? AND dimension = 'TOTAL' AND dimension_id = 0 AND bucket_start >= ? AND bucket_start < ? " +
+                "ORDER BY bucket_start",
+                (rs, i) -> {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("bucket", rs.getTimestamp("bucket_start").toLocalDateTime());
+                    m.put("orders", rs.getLong("orders_count"));
+                    m.put("units", rs.getLong("units"));
+                    m.put("revenue", rs.getDouble("revenue"));
+                    return m;
+                },
+                grain.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /** Best-selling products or categories by revenue over the days [from, to]. */
+    public List<Map<String, Object>> top(Dimension dimension, LocalDate from, LocalDate to, int limit) {
+        List<Map<String, Object>> rows = jdbcTemplate.query(
+                "SELECT dimension_id, SUM(orders_count) AS orders_count, SUM(units) AS units, SUM(revenue) AS revenue " +
+                "FROM sales_rollup WHERE grain = 'DAY' AND dimension = ? AND bucket_start >= ? AND bucket_start < ? " +
+                "GROUP BY dimension_id ORDER BY SUM(revenue) DESC LIMIT ?",
+                (rs, i) -> {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("id", rs.getLong("dimension_id"));
+                    m.put("name", null);
+                    m.put("orders", rs.getLong("orders_count"));
+                    m.put("units", rs.getLong("units"));
+                    m.put("revenue", rs.getDouble("revenue"));
+                    return m;
+                },
+                dimension.name(), Timestamp.valueOf(from.atStartOfDay()),
+                Timestamp.valueOf(to.plusDays(1).atStartOfDay()), limit);
+
+        Set<Long> ids = new HashSet<>();
+        for (Map<String, Object> r : rows) ids.add((Long) r.get("id"));
+        if (!ids.isEmpty() && dimension != Dimension.TOTAL) {
+            String table = dimension == Dimension.PRODUCT ? "product" : "category";
+            Map<Long, String> names = new HashMap<>();
+            namedJdbc.query("SELECT id, name FROM " + table + " WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids),
+                    rs -> { names.put(rs.getLong("id"), rs.getString("name")); });
+            for (Map<String, Object> r : rows) r.put("name", names.get((Long) r.get("id")));
+        }
+        return rows;
+    }
+
+    // ------------------------------------------------------------------
+
+    private record RollupKey(Grain grain, LocalDateTime bucket, Dimension dimension, long id) {}
+
+    /**
+     * Folds order rows (adjacent per order) into rollup deltas: {orders, units, revenue} per key.
+     * An order counts once per dimension value however many of its lines share it.
+     */
+    private static final class Accumulator {
+        final Map<RollupKey, double[]> rows = new HashMap<>();
+        long orders;
+
+        private long orderId = -1;
+        private LocalDateTime createdAt;
+        private double orderTotal;
+        private long orderUnits;
+        private final Set<RollupKey> seenThisOrder = new HashSet<>();
+
+        void row(ResultSet rs) throws SQLException {
+            long id = rs.getLong("order_id");
+            if (id != orderId) {
+                finishOrder();
+                orderId = id;
+                createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+                orderTotal = rs.getDouble("total_amount");
+                orderUnits = 0;
+                seenThisOrder.clear();
+            }
+            if (rs.getObject("quantity") == null) return;
+            int qty = rs.getInt("quantity");
+            double lineRevenue = qty * rs.getDouble("unit_price");
+            orderUnits += qty;
+            long productId = rs.getLong("product_id");
+            long categoryId = rs.getLong("category_id");
+            for (Grain g : Grain.values()) {
+                addLine(new RollupKey(g, bucket(g), Dimension.PRODUCT, productId), qty, lineRevenue);
+                addLine(new RollupKey(g, bucket(g), Dimension.CATEGORY, categoryId), qty, lineRevenue);
+            }
+        }
+
+        void finishOrder() {
+            if (orderId == -1) return;
+            for (Grain g : Grain.values()) {
+                double[] v = rows.computeIfAbsent(new RollupKey(g, bucket(g), Dimension.TOTAL, 0), k -> new double[3]);
+                v[0] += 1;
+                v[1] += orderUnits;
+                v[2] += orderTotal;
+            }
+            orders++;
+            orderId = -1;
+        }
+
+        private void addLine(RollupKey key, int qty, double revenue) {
+            double[] v = rows.computeIfAbsent(key, k -> new double[3]);
+            if (seenThisOrder.add(key)) v[0] += 1;
+            v[1] += qty;
+            v[2] += revenue;
+        }
+
+        private LocalDateTime bucket(Grain g) {
+            return g == Grain.HOUR ? createdAt.truncatedTo(ChronoUnit.HOURS) : createdAt.toLocalDate().atStartOfDay();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Local stand-in for a courier's status feed, for load-testing delivery ingest without a real
+ * courier. Writes the JSON Lines a courier would send for the most recent orders: a pick-up
+ * scan with the address, hub scans, out for delivery and delivered, interleaved across orders
+ * in time order. About 2% of lines are resent and about 2% arrive after a later scan, as real
+ * feeds do. The same seed gives the same feed.
+ */
+@Service
+public class StubCourierFeed {
+
+    private static final String[] HUBS = {"Pasig Hub", "Quezon City Hub", "Cebu Hub", "Davao Hub", "Iloilo Hub"};
+    private static final String[] COURIERS = {"LBC", "J&T Express", "Ninja Van"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public StubCourierFeed(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Write eventsPerOrder scans (1-10) for each of the latest `orders` orders; returns the line count. */
+    public long write(int orders, int eventsPerOrder, long seed, OutputStream out) throws IOException {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM order_table ORDER BY id DESC LIMIT ?", Long.class, orders);
+        int steps = Math.max(1, Math.min(10, eventsPerOrder));
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusHours(steps);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long lines = 0;
+        String held = null;
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < ids.size(); i++) {
+                long orderId = ids.get(i);
+                LocalDateTime at = start.plusHours(step).plusSeconds(i % 3600);
+                String line = scan(orderId, step, steps, at);
+                if (held != null) {
+                    // The held-back scan goes out after a later one
+                    writer.write(line);
+                    writer.write(held);
+                    lines += 2;
+                    held = null;
+                    continue;
+                }
+                int roll = random.nextInt(100);
+                if (roll < 2) {
+                    held = line;
+                } else {
+                    writer.write(line);
+                    lines++;
+                    if (roll < 4) {
+                        writer.write(line);
+                        lines++;
+                    }
+                }
+            }
+        }
+        if (held != null) {
+            writer.write(held);
+            lines++;
+        }
+        writer.flush();
+        return lines;
+    }
+
+    private String scan(long orderId, int step, int steps, LocalDateTime at) throws IOException {
+        String status;
+        if (step == 0) status = "Picked Up";
+        else if (step == steps - 1 && steps >= 3) status = "Delivered";
+        else if (step == steps - 2 && steps >= 4) status = "Out for Delivery";
+        else status = "In Transit";
+
+        StringWriter line = new StringWriter(256);
+        JsonGenerator json = jsonFactory.createGenerator(line);
+        json.writeStartObject();
+        json.writeNumberField("orderId", orderId);
+        json.writeStringField("status", status);
+        String location = step == 0 ? "Warehouse"
+                : "Delivered".equals(status) ? "Customer address"
+                : HUBS[(int) ((orderId + step) % HUBS.length)];
+        json.writeStringField("location", location);
+        json.writeStringField("at", at.toString());
+        if (step == 0) {
+            json.writeStringField("courier", COURIERS[(int) (orderId % COURIERS.length)]);
+            json.writeStringField("trackingNumber", "STUB-" + orderId);
+            json.writeStringField("address", "Unit " + (orderId % 500 + 1) + ", Test Street, Manila");
+        }
+        json.writeEndObject();
+        json.close();
+        return line.append('\n').toString();
+    }
+}
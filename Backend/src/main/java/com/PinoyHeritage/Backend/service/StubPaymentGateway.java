@@ -0,0 +1,64 @@
+package com.PinoyHeritage.Backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process stand-in for a payment provider, for local runs, tests and benchmarks. Each charge
+ * takes latency-ms (plus up to latency-jitter-ms), fails with an exception at failure-rate (a
+ * provider outage, retried by PaymentProcessor) and is declined at decline-rate. Outcomes are
+ * remembered per idempotency key, as a real provider does, so a retried charge gets the first
+ * answer back.
+ */
+@Service
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "stub", matchIfMissing = true)
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+    private final double declineRate;
+    private final BoundedCache<String, ChargeResult> outcomes;
+
+    public StubPaymentGateway(@Value("${app.payment.stub.latency-ms:200}") long latencyMs,
+                              @Value("${app.payment.stub.latency-jitter-ms:100}") long jitterMs,
+                              @Value("${app.payment.stub.failure-rate:0.0}") double failureRate,
+                              @Value("${app.payment.stub.decline-rate:0.0}") double declineRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+        this.outcomes = new BoundedCache<>("stubPaymentOutcomes", 100_000, 86_400);
+    }
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        if (delay > 0) Thread.sleep(delay);
+        // Failures are not remembered: the retry may go through
+        return outcomes.get(request.idempotencyKey(), key -> {
+            if (random.nextDouble() < failureRate) {
+                throw new IllegalStateException("Stub gateway unavailable");
+            }
+            if (request.amount() <= 0 || random.nextDouble() < declineRate) {
+                return ChargeResult.declined("Card declined");
+            }
+            return ChargeResult.approved("STUB-" + UUID.randomUUID());
+        });
+    }
+
+    public Map<String, Object> stats() {
+        return outcomes.stats();
+    }
+}
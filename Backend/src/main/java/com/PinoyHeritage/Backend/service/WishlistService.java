@@ -26,6 +26,9 @@ public class WishlistService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CatalogCache catalogCache;
+
     // Add product to wishlist
     public Wishlist addToWishlist(Long customerId, Long productId) {
         Customer customer = customerRepository.findById(customerId)
@@ -65,6 +68,14 @@ public class WishlistService {
         return wishlistRepository.existsByCustomerAndProduct(customer, product);
     }
 
+    // Strong ETag for the wishlist view: its own version plus the catalog version,
+    // since each entry shows the product's current name, price and image
+    public String getWishlistEtag(Long customerId) {
+        WishlistRepository.WishlistVersion v = wishlistRepository.findVersionByCustomerId(customerId);
+        String catalog = catalogCache.etag().replace("\"", "");
+        return "\"wl-" + v.getCount() + "-" + (v.getMaxId() == null ? 0 : v.getMaxId()) + "-" + catalog + "\"";
+    }
+
     // Get wishlist count for customer
     public long getWishlistCount(Long customerId) {
         return wishlistRepository.countByCustomerId(customerId);
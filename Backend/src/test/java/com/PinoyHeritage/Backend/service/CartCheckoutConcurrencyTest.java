@@ -0,0 +1,74 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.Cart;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.repository.CartRepository;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * A cart change made while a checkout of the same cart is in progress must not bring the
+ * ordered lines back (the stale cart used to overwrite the checkout watermark).
+ */
+@Import(CartServiceImpl.class)
+class CartCheckoutConcurrencyTest extends OrderFlowTestSupport {
+
+    @Autowired private CartService cartService;
+    @Autowired private OrderService orderService;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void cartAddDuringCheckoutWaitsAndStartsANewLine() throws Exception {
+        Customer customer = customer("racer");
+        Long customerId = customer.getId();
+        Product product = new Product();
+        product.setName("Banig");
+        product.setPrice(10.0);
+        product.setStock(10);
+        productRepository.save(product);
+        cartService.addItemToCartFromRequest(customerId, "Banig", null, 2, 10.0, null, null);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Cart> add = transactionTemplate.execute(status -> {
+                orderService.placeOrderFromCart(customerId, "GCash");
+                // Runs while the checkout is still uncommitted
+                Future<Cart> f = pool.submit(() -> cartService.addItemToCartFromRequest(customerId, "Banig", null, 1, 10.0, null, null));
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                assertFalse(f.isDone());
+                return f;
+            });
+            add.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // The ordered line stays checked out; the add became its own line
+        assertEquals(10.0, cartRepository.findByCustomerId(customerId).orElseThrow().getTotalAmount());
+        assertEquals(1, cartService.getCartItems(customerId).size());
+        assertEquals(1, cartService.getCartItems(customerId).get(0).getQuantity());
+
+        orderService.placeOrderFromCart(customerId, "GCash");
+        assertEquals(2, count("SELECT COUNT(*) FROM order_table"));
+        assertEquals(3, count("SELECT SUM(quantity) FROM product_order"));
+        assertEquals(7, count("SELECT stock FROM product WHERE name = 'Banig'"));
+    }
+}
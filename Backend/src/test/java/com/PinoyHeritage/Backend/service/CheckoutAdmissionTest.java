@@ -0,0 +1,179 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.CheckoutTicket;
+import com.PinoyHeritage.Backend.dto.CheckoutTicket.Status;
+import com.PinoyHeritage.Backend.dto.StockShortage;
+import com.PinoyHeritage.Backend.entity.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckoutAdmissionTest {
+
+    private CheckoutAdmission admission;
+
+    @AfterEach
+    void tearDown() {
+        if (admission != null) admission.shutdown();
+    }
+
+    @Test
+    void fastPathOnlyWhenAPermitIsFreeAndNobodyIsQueued() throws Exception {
+        admission = new CheckoutAdmission(1, 10, 60_000);
+        assertTrue(admission.tryEnterNow());
+        assertFalse(admission.tryEnterNow());
+        admission.exit();
+
+        // A queued checkout holds the only permit while it runs
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CheckoutTicket t = admission.enqueue(1L, () -> {
+            running.countDown();
+            finish.await();
+            return order(100L);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertFalse(admission.tryEnterNow());
+
+        finish.countDown();
+        CheckoutTicket done = awaitFinished(t.getTicketId());
+        assertEquals(Status.DONE, done.getStatus());
+        assertEquals(100L, done.getOrderId());
+        awaitIdle();
+        assertTrue(admission.tryEnterNow());
+        admission.exit();
+        assertEquals(2L, admission.stats().get("admittedDirect"));
+        assertEquals(1L, admission.stats().get("admittedFromQueue"));
+    }
+
+    @Test
+    void queuedCheckoutsRunInArrivalOrderAndReportTheirPosition() throws Exception {
+        admission = new CheckoutAdmission(1, 10, 60_000);
+        // Hold the permit so every checkout has to wait
+        assertTrue(admission.tryEnterNow());
+
+        List<Long> ran = Collections.synchronizedList(new ArrayList<>());
+        List<CheckoutTicket> tickets = new ArrayList<>();
+        for (long c = 1; c <= 4; c++) {
+            long customer = c;
+            tickets.add(admission.enqueue(customer, () -> {
+                ran.add(customer);
+                return order(customer * 10);
+            }));
+        }
+        for (int i = 0; i < tickets.size(); i++) {
+            CheckoutTicket t = admission.ticket(tickets.get(i).getTicketId());
+            assertEquals(Status.QUEUED, t.getStatus());
+            assertEquals(i, t.getPosition());
+        }
+        // Anyone arriving now queues behind them instead of overtaking
+        assertFalse(admission.tryEnterNow());
+
+        admission.exit();
+        for (CheckoutTicket t : tickets) {
+            CheckoutTicket done = awaitFinished(t.getTicketId());
+            assertEquals(Status.DONE, done.getStatus());
+            assertEquals(0, done.getPosition());
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L), ran);
+    }
+
+    @Test
+    void secondCheckoutFromTheSameCustomerIsRefusedWithTheFirstTicket() throws Exception {
+        admission = new CheckoutAdmission(1, 10, 60_000);
+        assertTrue(admission.tryEnterNow());
+
+        CheckoutTicket first = admission.enqueue(7L, () -> order(70L));
+        Callable<Order> second = () -> { throw new AssertionError("duplicate checkout must not run"); };
+        CheckoutAlreadyQueuedException e = assertThrows(CheckoutAlreadyQueuedException.class,
+                () -> admission.enqueue(7L, second));
+        assertEquals(first.getTicketId(), e.getTicket().getTicketId());
+        assertEquals(Status.QUEUED, e.getTicket().getStatus());
+
+        admission.exit();
+        assertEquals(70L, awaitFinished(first.getTicketId()).getOrderId());
+        awaitIdle();
+
+        // Once finished the customer can check out again
+        CheckoutTicket next = admission.enqueue(7L, () -> order(71L));
+        assertEquals(71L, awaitFinished(next.getTicketId()).getOrderId());
+    }
+
+    @Test
+    void failedCheckoutKeepsItsErrorAndAFullQueueIsRejected() throws Exception {
+        admission = new CheckoutAdmission(1, 1, 60_000);
+        assertTrue(admission.tryEnterNow());
+
+        StockShortage shortage = new StockShortage(5L, "Banig Mat", 3, 1);
+        CheckoutTicket failing = admission.enqueue(1L, () -> { throw new OutOfStockException(List.of(shortage)); });
+        // The worker takes it off the queue and waits for the permit; the next one fills the queue
+        await(() -> ((Number) admission.stats().get("queued")).intValue() == 0);
+        admission.enqueue(2L, () -> order(20L));
+        assertThrows(RejectedExecutionException.class, () -> admission.enqueue(3L, () -> order(30L)));
+        assertEquals(1L, admission.stats().get("rejected"));
+
+        admission.exit();
+        CheckoutTicket failed = awaitFinished(failing.getTicketId());
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals(List.of(shortage), failed.getErrorDetails());
+    }
+
+    @Test
+    void purgeDropsOnlyFinishedTicketsPastRetention() throws Exception {
+        admission = new CheckoutAdmission(1, 10, 0);
+        CheckoutTicket done = admission.enqueue(1L, () -> order(10L));
+        awaitFinished(done.getTicketId());
+        awaitIdle();
+
+        assertTrue(admission.tryEnterNow());
+        CheckoutTicket waiting = admission.enqueue(2L, () -> order(20L));
+        Thread.sleep(5);
+        admission.purgeFinished();
+
+        assertNull(admission.ticket(done.getTicketId()));
+        assertNotNull(admission.ticket(waiting.getTicketId()));
+        admission.exit();
+    }
+
+    private CheckoutTicket awaitFinished(String ticketId) throws InterruptedException {
+        await(() -> {
+            Status s = admission.ticket(ticketId).getStatus();
+            return s == Status.DONE || s == Status.FAILED;
+        });
+        return admission.ticket(ticketId);
+    }
+
+    // The worker frees the customer and its permit just after publishing the outcome
+    private void awaitIdle() throws InterruptedException {
+        await(() -> ((Number) admission.stats().get("inFlight")).intValue() == 0);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static Order order(Long id) {
+        Order o = new Order();
+        o.setId(id);
+        return o;
+    }
+}
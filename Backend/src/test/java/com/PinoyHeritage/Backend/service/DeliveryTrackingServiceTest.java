@@ -0,0 +1,93 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.DeliveryIngestReport;
+import com.PinoyHeritage.Backend.dto.DeliveryTracking;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Import({DeliveryTrackingService.class, StubCourierFeed.class})
+@TestPropertySource(properties = "app.delivery.chunk-size=50")
+class DeliveryTrackingServiceTest extends OrderFlowTestSupport {
+
+    @Autowired private DeliveryTrackingService deliveryTrackingService;
+    @Autowired private StubCourierFeed stubCourierFeed;
+    @Autowired private OrderRepository orderRepository;
+
+    @Test
+    void ingestAppliesScansInCourierTimeOrder() throws Exception {
+        Long orderId = orders(1, "track")[0];
+        String feed = String.join("\n",
+                "{\"orderId\":" + orderId + ",\"status\":\"picked_up\",\"at\":\"2026-03-14T08:00:00\",\"courier\":\"LBC\"," +
+                        "\"trackingNumber\":\"LBC-1\",\"address\":\"Makati\"}",
+                "{\"trackingNumber\":\"LBC-1\",\"status\":\"Delivered\",\"location\":\"Makati\",\"at\":\"2026-03-14T15:00:00\"}",
+                // Late and resent scans
+                "{\"trackingNumber\":\"LBC-1\",\"status\":\"In Transit\",\"location\":\"Pasig Hub\",\"at\":\"2026-03-14T10:00:00\"}",
+                "{\"trackingNumber\":\"LBC-1\",\"status\":\"Delivered\",\"location\":\"Makati\",\"at\":\"2026-03-14T15:00:00\"}",
+                "{\"orderId\":999999,\"status\":\"In Transit\",\"at\":\"2026-03-14T10:00:00\"}",
+                "{\"orderId\":" + orderId + ",\"status\":\"Lost in space\",\"at\":\"2026-03-14T10:00:00\"}");
+
+        DeliveryIngestReport report = deliveryTrackingService.ingest(stream(feed));
+        assertEquals(6, report.getLinesRead());
+        assertEquals(4, report.getApplied());
+        assertEquals(2, report.getFailed());
+
+        // Replayed feed and a stale scan on its own: nothing changes
+        deliveryTrackingService.ingest(stream(feed));
+        deliveryTrackingService.ingest(stream(
+                "{\"orderId\":" + orderId + ",\"status\":\"In Transit\",\"location\":\"Cebu Hub\",\"at\":\"2026-03-14T12:00:00\"}"));
+
+        DeliveryTracking t = deliveryTrackingService.getTracking(orderId);
+        assertEquals("Delivered", t.getStatus());
+        assertEquals("Makati", t.getAddress());
+        assertEquals("LBC", t.getCourier());
+        assertEquals("Makati", t.getLocation());
+        assertEquals(4, t.getEvents().size());
+        assertEquals("Delivered", status(orderId));
+    }
+
+    @Test
+    void stubFeedDeliversEveryOrder() throws Exception {
+        Long[] ids = orders(120, "stub");
+        ByteArrayOutputStream feed = new ByteArrayOutputStream();
+        long lines = stubCourierFeed.write(ids.length, 5, 42L, feed);
+
+        DeliveryIngestReport report = deliveryTrackingService.ingest(new ByteArrayInputStream(feed.toByteArray()));
+        assertEquals(lines, report.getLinesRead());
+        assertEquals(0, report.getFailed());
+        for (Long id : ids) {
+            assertEquals("Delivered", status(id));
+            assertEquals("Delivered", deliveryTrackingService.getTracking(id).getStatus());
+        }
+    }
+
+    private Long[] orders(int n, String username) {
+        Customer customer = customer(username);
+        Long[] ids = new Long[n];
+        for (int i = 0; i < n; i++) {
+            Order order = new Order();
+            order.setCustomer(customer);
+            order.setTotalAmount(10.0);
+            ids[i] = orderRepository.save(order).getId();
+        }
+        return ids;
+    }
+
+    private String status(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM order_table WHERE id = ?", String.class, orderId);
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
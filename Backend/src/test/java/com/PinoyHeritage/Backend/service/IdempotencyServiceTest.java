@@ -0,0 +1,106 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.Cart;
+import com.PinoyHeritage.Backend.entity.CartItem;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.repository.CartItemRepository;
+import com.PinoyHeritage.Backend.repository.CartRepository;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyServiceTest extends OrderFlowTestSupport {
+
+    @Autowired private IdempotencyService idempotencyService;
+    @Autowired private OrderService orderService;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private CartItemRepository cartItemRepository;
+    @Autowired private ProductRepository productRepository;
+
+    @Test
+    void retriedCheckoutReplaysTheStoredOrder() {
+        Long customerId = customerWithCart("retry");
+        String hash = IdempotencyService.hash("GCash");
+
+        ResponseEntity<?> first = idempotencyService.execute(customerId, "key-1", hash,
+                () -> ResponseEntity.ok(orderService.placeOrderFromCart(customerId, "GCash", "key-1", hash)));
+        ResponseEntity<?> retry = idempotencyService.execute(customerId, "key-1", hash,
+                () -> ResponseEntity.ok(orderService.placeOrderFromCart(customerId, "GCash", "key-1", hash)));
+
+        Long orderId = ((Order) first.getBody()).getId();
+        assertEquals(1, count("SELECT COUNT(*) FROM order_table"));
+        assertEquals(200, retry.getStatusCode().value());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertTrue(((String) retry.getBody()).contains("\"id\":" + orderId));
+        assertEquals(8, productRepository.findByName("Retry item").orElseThrow().getStock());
+
+        // Same key, different request
+        ResponseEntity<?> misuse = idempotencyService.execute(customerId, "key-1", IdempotencyService.hash("COD"),
+                () -> ResponseEntity.ok(orderService.placeOrderFromCart(customerId, "COD", "key-1", hash)));
+        assertEquals(422, misuse.getStatusCode().value());
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<?>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> idempotencyService.execute(42L, "same", "h", () -> {
+                    executions.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ResponseEntity.ok("done");
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<ResponseEntity<?>> f : results) {
+                assertEquals("done", f.get().getBody());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+    }
+
+    private Long customerWithCart(String name) {
+        Customer customer = customer(name);
+        Cart cart = cartRepository.save(new Cart(customer));
+
+        Product product = new Product();
+        product.setName("Retry item");
+        product.setPrice(5.0);
+        product.setStock(10);
+        productRepository.save(product);
+
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setCustomerId(customer.getId());
+        item.setProductName("Retry item");
+        item.setQuantity(2);
+        item.setUnitPrice(5.0);
+        item.setAmount(10.0);
+        cartItemRepository.save(item);
+        return customer.getId();
+    }
+}
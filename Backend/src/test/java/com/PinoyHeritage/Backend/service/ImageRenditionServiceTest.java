@@ -0,0 +1,74 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.service.ImageStorageService.Rendition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageRenditionServiceTest {
+
+    @TempDir
+    Path uploads;
+
+    private ImageStorageService imageStorage;
+    private ImageRenditionService renditions;
+
+    @BeforeEach
+    void setUp() {
+        imageStorage = new ImageStorageService(uploads.toString());
+        renditions = new ImageRenditionService(imageStorage, 0.8f);
+    }
+
+    @AfterEach
+    void tearDown() {
+        renditions.shutdown();
+    }
+
+    @Test
+    void generatesScaledJpegRenditions() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "png", png);
+        String url = imageStorage.store(png.toByteArray(), "png");
+
+        assertTrue(renditions.generate(url));
+        BufferedImage thumb = ImageIO.read(rendition(url, Rendition.THUMB).toFile());
+        assertEquals(160, thumb.getWidth());
+        assertEquals(120, thumb.getHeight());
+    }
+
+    @Test
+    void renditionUrlsServeTheOriginalWhenTheDecoderRejectsIt() throws Exception {
+        // Valid PNG signature (accepted by the store), unreadable body
+        byte[] broken = new byte[256];
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', 0x0d, 0x0a, 0x1a, 0x0a};
+        System.arraycopy(signature, 0, broken, 0, signature.length);
+        String url = imageStorage.store(broken, "png");
+
+        assertFalse(renditions.generate(url));
+        for (Rendition r : Rendition.values()) {
+            assertArrayEquals(broken, Files.readAllBytes(rendition(url, r)));
+        }
+        // The serving path finds it too
+        Path served = renditions.ensure(ImageStorageService.renditionUrl(url, Rendition.CARD)
+                .substring(ImageStorageService.URL_PREFIX.length()));
+        assertNotNull(served);
+    }
+
+    private Path rendition(String url, Rendition r) {
+        return imageStorage.getImagesDir().resolve(
+                ImageStorageService.renditionUrl(url, r).substring(ImageStorageService.URL_PREFIX.length()));
+    }
+}
@@ -0,0 +1,193 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.repository.HotProductRepository;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against an embedded H2 database; every reserve() commits on its own (no test transaction)
+@DataJpaTest
+@Import({InventoryService.class, FlashSaleInventory.class, CatalogCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class InventoryServiceConcurrencyTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FlashSaleInventory flashSale;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HotProductRepository hotProductRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        int stock = 100;
+        Long productId = product("Banig Mat", stock).getId();
+        hammer(productId, stock);
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getStock());
+    }
+
+    @Test
+    void hotProductReservationsNeverOversellAndFlushToTheRow() throws Exception {
+        int stock = 100;
+        Long productId = product("Festival Salakot", stock).getId();
+        flashSale.enable(productId);
+        try {
+            hammer(productId, stock);
+            assertEquals(0, flashSale.available(productId));
+            flashSale.flush();
+            assertEquals(0, productRepository.findById(productId).orElseThrow().getStock());
+        } finally {
+            flashSale.disable(productId);
+        }
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getStock());
+    }
+
+    // Many threads reserving one unit at a time; exactly `stock` of them may succeed
+    private void hammer(Long productId, int stock) throws Exception {
+
+        int threads = 32;
+        int attemptsPerThread = 20;
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        try {
+                            inventoryService.reserve(List.of(new InventoryService.StockLine(productId, 1)));
+                            granted.incrementAndGet();
+                        } catch (OutOfStockException e) {
+                            refused.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(stock, granted.get());
+        assertEquals(threads * attemptsPerThread - stock, refused.get());
+    }
+
+    @Test
+    void shortLineRollsBackTheWholeOrder() {
+        Long inStock = product("Capiz Lamp", 10).getId();
+        Long scarce = product("Piña Barong", 1).getId();
+
+        OutOfStockException e = assertThrows(OutOfStockException.class, () -> inventoryService.reserve(List.of(
+                new InventoryService.StockLine(inStock, 3),
+                new InventoryService.StockLine(scarce, 2))));
+
+        assertEquals(1, e.getShortages().size());
+        assertEquals(scarce, e.getShortages().get(0).getProductId());
+        assertEquals(2, e.getShortages().get(0).getRequested());
+        assertEquals(1, e.getShortages().get(0).getAvailable());
+        assertEquals(10, productRepository.findById(inStock).orElseThrow().getStock());
+        assertEquals(1, productRepository.findById(scarce).orElseThrow().getStock());
+    }
+
+    @Test
+    void hotUnitsComeBackWhenTheCallersTransactionRollsBackLater() {
+        Long hot = product("Parol Lantern", 10).getId();
+        Long row = product("Abaca Bag", 10).getId();
+        flashSale.enable(hot);
+        try {
+            // Reservation succeeds, then something later in the same transaction fails (as in checkout)
+            assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                inventoryService.reserve(List.of(
+                        new InventoryService.StockLine(hot, 3),
+                        new InventoryService.StockLine(row, 2)));
+                assertEquals(7, flashSale.available(hot));
+                throw new IllegalStateException("checkout failed after reserve");
+            }));
+            assertEquals(10, flashSale.available(hot));
+            assertEquals(10, productRepository.findById(row).orElseThrow().getStock());
+
+            // A committed reservation keeps its units
+            transactionTemplate.executeWithoutResult(status ->
+                    inventoryService.reserve(List.of(new InventoryService.StockLine(hot, 4))));
+            assertEquals(6, flashSale.available(hot));
+        } finally {
+            flashSale.disable(hot);
+        }
+        assertEquals(6, productRepository.findById(hot).orElseThrow().getStock());
+    }
+
+    @Test
+    void hotUnitsReturnedForAFailedOrderSurviveARestart() {
+        Long hot = product("Vinta Sail", 10).getId();
+        flashSale.enable(hot);
+        try {
+            // Checkout: units taken and the order line committed
+            transactionTemplate.executeWithoutResult(status -> {
+                inventoryService.reserve(List.of(new InventoryService.StockLine(hot, 3)));
+                jdbcTemplate.update("INSERT INTO product_order (product_id, quantity, unit_price) VALUES (?, 3, 100.0)", hot);
+            });
+            // Its payment fails: the units come back
+            transactionTemplate.executeWithoutResult(status ->
+                    inventoryService.release(List.of(new InventoryService.StockLine(hot, 3))));
+            assertEquals(10, flashSale.available(hot));
+
+            // Restart: recovery subtracts the order line but counts the returned units
+            FlashSaleInventory restarted = new FlashSaleInventory(jdbcTemplate, transactionTemplate,
+                    hotProductRepository, catalogCache, 2);
+            restarted.afterSingletonsInstantiated();
+            assertEquals(10, restarted.available(hot));
+            assertEquals(10, productRepository.findById(hot).orElseThrow().getStock());
+        } finally {
+            flashSale.disable(hot);
+        }
+    }
+
+    private Product product(String name, int stock) {
+        Product p = new Product();
+        p.setName(name);
+        p.setPrice(100.0);
+        p.setStock(stock);
+        return productRepository.save(p);
+    }
+}
@@ -0,0 +1,136 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.AdminOrderQuery;
+import com.PinoyHeritage.Backend.dto.AdminOrderSummary;
+import com.PinoyHeritage.Backend.dto.OrderHistoryItem;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.repository.CustomerRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hot-path order reads before and after archiving: the first page of a customer's history,
+ * the first page of the admin list, and the admin list of in-flight (Pending) orders. Results
+ * must be identical; timings are printed. Run with: mvn test -Pbenchmark
+ * (-Dbenchmark.orders=N for a bigger data set). On in-memory H2 the gain mostly comes from
+ * skipping the archive and smaller indexes; on MySQL a hot set that fits the buffer pool
+ * matters more.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Import({OrderArchiveService.class, OrderHistoryService.class, OrderService.class, InventoryService.class,
+        FlashSaleInventory.class, CatalogCache.class, OutboxService.class, OutboxDispatcher.class,
+        IdempotencyService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never",
+        "app.outbox.poller-enabled=false",
+        "app.archive.chunk-size=2000",
+        "app.archive.max-per-run=10000000",
+        "app.archive.pause-ms=0"
+})
+class OrderArchiveBenchmarkTest {
+
+    private static final int CUSTOMERS = 100;
+    private static final int ITERATIONS = 500;
+
+    @Autowired private OrderArchiveService orderArchiveService;
+    @Autowired private OrderHistoryService orderHistoryService;
+    @Autowired private OrderService orderService;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void hotPathReadsAfterArchiving() {
+        int orders = Integer.getInteger("benchmark.orders", 100_000);
+        List<Long> customers = seed(orders);
+        Long busiest = customers.get(0);
+
+        Map<String, Supplier<List<Long>>> queries = new LinkedHashMap<>();
+        queries.put("customer history, first page", () -> orderHistoryService.getHistoryPage(busiest, 20, null)
+                .getItems().stream().map(OrderHistoryItem::getOrderId).toList());
+        queries.put("admin list, newest first", () -> adminPage(null));
+        queries.put("admin list, Pending only", () -> adminPage("Pending"));
+
+        Map<String, List<Long>> before = new LinkedHashMap<>();
+        Map<String, Double> beforeUs = new LinkedHashMap<>();
+        queries.forEach((name, q) -> {
+            before.put(name, q.get());
+            beforeUs.put(name, time(q));
+        });
+
+        long start = System.currentTimeMillis();
+        int moved = orderArchiveService.run(LocalDateTime.now().minusDays(365));
+        System.out.println("[Benchmark] Archived " + moved + " of " + orders + " orders in "
+                + (System.currentTimeMillis() - start) + " ms");
+
+        queries.forEach((name, q) -> {
+            assertEquals(before.get(name), q.get(), name);
+            double after = time(q);
+            System.out.printf("[Benchmark] %-30s %9.1f us -> %9.1f us (x%.2f)%n",
+                    name, beforeUs.get(name), after, beforeUs.get(name) / after);
+        });
+    }
+
+    private List<Long> adminPage(String status) {
+        AdminOrderQuery query = new AdminOrderQuery();
+        query.setStatus(status);
+        query.setSize(50);
+        return orderService.getAdminOrderPage(query).getItems().stream().map(AdminOrderSummary::getId).toList();
+    }
+
+    // Mean microseconds per call after a warm-up
+    private static double time(Supplier<List<Long>> query) {
+        for (int i = 0; i < ITERATIONS / 5; i++) query.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) query.get();
+        return (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+    }
+
+    // Nine in ten orders are more than a year old and finished; the rest are recent, a quarter of them Pending
+    private List<Long> seed(int orders) {
+        List<Long> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer c = new Customer();
+            c.setUsername("bench" + i);
+            c.setPassword("secret");
+            c.setEmail("bench" + i + "@example.com");
+            customers.add(customerRepository.save(c).getId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            boolean old = i < orders * 9 / 10;
+            LocalDateTime createdAt = old ? now.minusDays(1500).plusMinutes(i) : now.minusDays(30).plusSeconds(i);
+            String status = old ? (i % 10 == 0 ? "Cancelled" : "Delivered") : (i % 4 == 0 ? "Pending" : "Delivered");
+            // Customer 0 places a tenth of all orders
+            Long customer = customers.get(i % 10 == 0 ? 0 : i % CUSTOMERS);
+            rows.add(new Object[] {customer, 10.0 + i % 500, status, Timestamp.valueOf(createdAt)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO order_table (customer_id, total_amount, status, created_at) VALUES (?, ?, ?, ?)", rows);
+        jdbcTemplate.update("INSERT INTO product_order (order_id, quantity, unit_price) SELECT id, 1, total_amount FROM order_table");
+        jdbcTemplate.update("INSERT INTO payment (order_id, method, status, amount, attempts) " +
+                "SELECT id, 'GCash', 'Completed', total_amount, 1 FROM order_table");
+        return customers;
+    }
+}
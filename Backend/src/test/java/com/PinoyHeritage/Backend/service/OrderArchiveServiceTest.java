@@ -0,0 +1,156 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.AdminOrderQuery;
+import com.PinoyHeritage.Backend.dto.AdminOrderSummary;
+import com.PinoyHeritage.Backend.dto.CursorPage;
+import com.PinoyHeritage.Backend.dto.OrderHistoryItem;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Old finished orders move to the archive with their lines, payment and delivery; the history,
+ * admin list and export still return every order, in the same order as before.
+ */
+@Import({OrderArchiveService.class, OrderHistoryService.class, OrderExportService.class})
+@TestPropertySource(properties = {
+        "app.export.fetch-size=100",
+        "app.archive.chunk-size=2",
+        "app.archive.pause-ms=0"
+})
+class OrderArchiveServiceTest extends OrderFlowTestSupport {
+
+    @Autowired private OrderArchiveService orderArchiveService;
+    @Autowired private OrderHistoryService orderHistoryService;
+    @Autowired private OrderExportService orderExportService;
+    @Autowired private OrderService orderService;
+    @Autowired private OrderRepository orderRepository;
+
+    @Test
+    void movesOldFinishedOrdersAndReadsStayTheSame() throws Exception {
+        Customer customer = customer("archive");
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> archivable = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            archivable.add(order(customer, i % 2 == 0 ? "Delivered" : "Cancelled", now.minusDays(500 - i), "Completed"));
+        }
+        Long oldPending = order(customer, "Pending", now.minusDays(450), "Pending");
+        Long stillCharging = order(customer, "Cancelled", now.minusDays(440), "Processing");
+        Long recent = order(customer, "Delivered", now.minusDays(3), "Completed");
+
+        List<Long> historyBefore = historyIds(customer.getId());
+        List<Long> adminBefore = adminIds(AdminOrderQuery.Sort.NEWEST);
+        List<Long> byTotalBefore = adminIds(AdminOrderQuery.Sort.TOTAL_ASC);
+        String exportBefore = exportCsv();
+
+        // Chunks of 2: three transactions for five orders
+        assertEquals(5, orderArchiveService.run(now.minusDays(365)));
+
+        assertEquals(3, count("SELECT COUNT(*) FROM order_table"));
+        assertEquals(5, count("SELECT COUNT(*) FROM order_archive"));
+        assertEquals(6, count("SELECT COUNT(*) FROM product_order"));
+        assertEquals(10, count("SELECT COUNT(*) FROM product_order_archive"));
+        assertEquals(5, count("SELECT COUNT(*) FROM payment_archive"));
+        assertEquals(5, count("SELECT COUNT(*) FROM delivery_archive"));
+        assertEquals(5, count("SELECT COUNT(*) FROM delivery_event_archive"));
+        assertEquals(0, count("SELECT COUNT(*) FROM delivery_event WHERE order_id = " + archivable.get(0)));
+        // Not finished, payment still being charged, or too recent
+        assertEquals(3, count("SELECT COUNT(*) FROM order_table WHERE id IN (" + oldPending + ", " + stillCharging + ", " + recent + ")"));
+
+        assertEquals(historyBefore, historyIds(customer.getId()));
+        assertEquals(adminBefore, adminIds(AdminOrderQuery.Sort.NEWEST));
+        assertEquals(byTotalBefore, adminIds(AdminOrderQuery.Sort.TOTAL_ASC));
+        assertEquals(8, orderService.getAllAdminOrders().size());
+        // A status filter in any case still reaches the archive
+        AdminOrderQuery delivered = new AdminOrderQuery();
+        delivered.setStatus("delivered");
+        assertEquals(4, orderService.getAdminOrderPage(delivered).getItems().size());
+        assertThrows(IllegalArgumentException.class, () -> delivered.setStatus("Lost"));
+
+        List<OrderHistoryItem> full = orderHistoryService.getHistory(customer.getId());
+        assertEquals(historyBefore, full.stream().map(OrderHistoryItem::getOrderId).toList());
+        for (OrderHistoryItem item : full) assertEquals(2, item.getProducts().size());
+
+        // Same lines, archived orders first
+        String exportAfter = exportCsv();
+        assertEquals(sortedLines(exportBefore), sortedLines(exportAfter));
+
+        // Nothing left to move
+        assertEquals(0, orderArchiveService.run(now.minusDays(365)));
+        Map<?, ?> lastRun = (Map<?, ?>) orderArchiveService.stats().get("lastRun");
+        assertFalse(lastRun.containsKey("error"));
+    }
+
+    private Long order(Customer customer, String status, LocalDateTime createdAt, String paymentStatus) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setTotalAmount(10.0 + createdAt.getDayOfYear());
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        Long id = orderRepository.save(order).getId();
+        for (int line = 0; line < 2; line++) {
+            jdbcTemplate.update("INSERT INTO product_order (order_id, quantity, unit_price) VALUES (?, 1, 5.0)", id);
+        }
+        jdbcTemplate.update("INSERT INTO payment (order_id, method, status, attempts) VALUES (?, 'GCash', ?, 1)", id, paymentStatus);
+        jdbcTemplate.update("INSERT INTO delivery (order_id, address, status) VALUES (?, 'Manila', ?)", id, status);
+        jdbcTemplate.update("INSERT INTO delivery_event (order_id, status, event_at, received_at) VALUES (?, 'Delivered', ?, ?)",
+                id, Timestamp.valueOf(createdAt.plusDays(2)), Timestamp.valueOf(createdAt.plusDays(2)));
+        return id;
+    }
+
+    // Walks the paginated history two orders at a time
+    private List<Long> historyIds(Long customerId) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<OrderHistoryItem> page = orderHistoryService.getHistoryPage(customerId, 2, cursor);
+            for (OrderHistoryItem item : page.getItems()) ids.add(item.getOrderId());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> adminIds(AdminOrderQuery.Sort sort) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            AdminOrderQuery query = new AdminOrderQuery();
+            query.setSort(sort);
+            query.setSize(3);
+            query.applyCursor(cursor);
+            CursorPage<AdminOrderSummary> page = orderService.getAdminOrderPage(query);
+            for (AdminOrderSummary row : page.getItems()) ids.add(row.getId());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private String exportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.export(new AdminOrderQuery(), OrderExportService.Format.CSV, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> sortedLines(String csv) {
+        List<String> lines = new ArrayList<>(List.of(csv.split("\r\n")));
+        lines.sort(null);
+        return lines;
+    }
+}
@@ -0,0 +1,72 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.AdminOrderQuery;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.repository.CustomerRepository;
+import com.PinoyHeritage.Backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(OrderExportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never",
+        // H2 has no streaming mode; any positive fetch size exercises the same code path
+        "app.export.fetch-size=100"
+})
+class OrderExportServiceTest {
+
+    @Autowired private OrderExportService orderExportService;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportsOneCsvRowPerLineAndOneJsonObjectPerOrder() throws Exception {
+        Customer customer = new Customer();
+        customer.setUsername("export");
+        customer.setPassword("secret");
+        customer.setEmail("export@example.com");
+        customer.setFirstName("Maria, Jr.");
+        customer = customerRepository.save(customer);
+
+        for (int i = 1; i <= 3; i++) {
+            Order order = new Order();
+            order.setCustomer(customer);
+            order.setTotalAmount(10.0 * i);
+            order = orderRepository.save(order);
+            jdbcTemplate.update("INSERT INTO payment (order_id, method, status) VALUES (?, 'GCash', 'Completed')", order.getId());
+            for (int line = 0; line < i; line++) {
+                jdbcTemplate.update("INSERT INTO product_order (order_id, quantity, unit_price) VALUES (?, 1, 10.0)", order.getId());
+            }
+        }
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        orderExportService.export(new AdminOrderQuery(), OrderExportService.Format.CSV, csv);
+        String[] rows = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(1 + 6, rows.length);
+        assertTrue(rows[1].contains("\"Maria, Jr.\""));
+
+        ByteArrayOutputStream jsonl = new ByteArrayOutputStream();
+        orderExportService.export(new AdminOrderQuery(), OrderExportService.Format.JSONL, jsonl);
+        String[] orders = jsonl.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, orders.length);
+        assertTrue(orders[2].contains("\"paymentMethod\":\"GCash\""));
+        assertEquals(3, orders[2].split("\"lineId\"").length - 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Shared setup for tests that place and move orders against a real (H2) database: the order
+ * services, committed transactions (the code under test runs its own), and an empty database
+ * after every test. Subclasses add their own beans with @Import and their own properties with
+ * @TestPropertySource; classes with the same additions share one context and database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, InventoryService.class, FlashSaleInventory.class, CatalogCache.class,
+        OutboxService.class, OutboxDispatcher.class, IdempotencyService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        // MySQL mode for INSERT IGNORE; one database per context
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never",
+        "app.outbox.poller-enabled=false"
+})
+abstract class OrderFlowTestSupport {
+
+    @Autowired protected CustomerRepository customerRepository;
+    @Autowired protected JdbcTemplate jdbcTemplate;
+
+    // The context is cached across test classes, so every test leaves the database empty
+    @AfterEach
+    void emptyDatabase() {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'PUBLIC' AND table_type = 'BASE TABLE'",
+                String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            for (String table : tables) jdbcTemplate.execute("TRUNCATE TABLE " + table);
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+
+    protected Customer customer(String username) {
+        Customer customer = new Customer();
+        customer.setUsername(username);
+        customer.setPassword("secret");
+        customer.setEmail(username + "@example.com");
+        return customerRepository.save(customer);
+    }
+
+    protected int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
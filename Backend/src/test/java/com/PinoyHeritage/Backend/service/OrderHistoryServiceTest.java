@@ -0,0 +1,86 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.CursorPage;
+import com.PinoyHeritage.Backend.dto.OrderHistoryItem;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.repository.CustomerRepository;
+import com.PinoyHeritage.Backend.repository.OrderRepository;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@Import(OrderHistoryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class OrderHistoryServiceTest {
+
+    @Autowired private OrderHistoryService orderHistoryService;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pagesWalkTheWholeHistoryNewestFirst() {
+        Customer customer = new Customer();
+        customer.setUsername("history");
+        customer.setPassword("secret");
+        customer.setEmail("history@example.com");
+        customer = customerRepository.save(customer);
+
+        Product product = new Product();
+        product.setName("Salakot");
+        product.setPrice(7.0);
+        product.setStock(0);
+        product = productRepository.save(product);
+
+        // Orders sharing a timestamp must still page without gaps or repeats
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 10, 0);
+        for (int i = 0; i < 7; i++) {
+            Order order = new Order();
+            order.setCustomer(customer);
+            order.setTotalAmount(7.0 * (i + 1));
+            order.setCreatedAt(base.plusMinutes(i / 2));
+            order = orderRepository.save(order);
+            jdbcTemplate.update("INSERT INTO product_order (order_id, product_id, quantity, unit_price) VALUES (?, ?, ?, NULL)",
+                    order.getId(), product.getId(), i + 1);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<OrderHistoryItem> page = orderHistoryService.getHistoryPage(customer.getId(), 3, cursor);
+            for (OrderHistoryItem item : page.getItems()) {
+                seen.add(item.getOrderId());
+                assertEquals(1, item.getProducts().size());
+                assertEquals("Salakot", item.getProducts().get(0).getProductName());
+                assertEquals(7.0, item.getProducts().get(0).getUnitPrice());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<OrderHistoryItem> all = orderHistoryService.getHistory(customer.getId());
+        assertEquals(7, seen.size());
+        assertEquals(all.stream().map(OrderHistoryItem::getOrderId).toList(), seen);
+        assertNull(all.get(0).getProducts().get(0).getProductImage());
+    }
+}
@@ -0,0 +1,57 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.BulkStatusResult;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderStatusTransitionTest extends OrderFlowTestSupport {
+
+    @Autowired private OrderService orderService;
+    @Autowired private OrderRepository orderRepository;
+
+    @Test
+    void bulkUpdateAppliesAllowedTransitionsAndSkipsTheRest() {
+        Customer customer = customer("bulk");
+
+        Long pending = order(customer, "Pending");
+        Long processing = order(customer, "Processing");
+        Long delivered = order(customer, "Delivered");
+        Long shipped = order(customer, "Shipped");
+
+        BulkStatusResult result = orderService.bulkUpdateStatus(
+                List.of(pending, processing, delivered, shipped, 999_999L), "shipped");
+
+        assertEquals(List.of(pending, processing), result.getUpdated());
+        assertEquals(3, result.getSkipped().size());
+        assertEquals("Shipped", status(pending));
+        assertEquals("Shipped", status(processing));
+        assertEquals("Delivered", status(delivered));
+        assertEquals(2, count("SELECT COUNT(*) FROM outbox_event WHERE event_type = 'OrderStatusChanged'"));
+
+        assertThrows(InvalidStatusTransitionException.class, () -> orderService.updateStatus(delivered, "Pending"));
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateStatus(pending, "Lost"));
+        orderService.updateStatus(pending, "Delivered");
+        assertEquals("Delivered", status(pending));
+        assertEquals(3, count("SELECT COUNT(*) FROM outbox_event"));
+    }
+
+    private Long order(Customer customer, String status) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setTotalAmount(10.0);
+        order.setStatus(status);
+        return orderRepository.save(order).getId();
+    }
+
+    private String status(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM order_table WHERE id = ?", String.class, orderId);
+    }
+}
@@ -0,0 +1,147 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.Cart;
+import com.PinoyHeritage.Backend.entity.CartItem;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.entity.OutboxEvent;
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.repository.CartItemRepository;
+import com.PinoyHeritage.Backend.repository.CartRepository;
+import com.PinoyHeritage.Backend.repository.OutboxEventRepository;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checkout writes an OrderPlaced event instead of touching the cart and notifications itself;
+ * the dispatcher then removes only the ordered lines and creates the notification.
+ */
+@Import({NotificationService.class, OrderNotificationHandler.class, CartCleanupHandler.class,
+        OutboxDispatcherTest.FlakyHandler.class})
+class OutboxDispatcherTest extends OrderFlowTestSupport {
+
+    @Autowired private OrderService orderService;
+    @Autowired private OutboxDispatcher dispatcher;
+    @Autowired private OutboxEventRepository outboxEventRepository;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private CartItemRepository cartItemRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private OutboxService outboxService;
+    @Autowired private FlakyHandler flakyHandler;
+
+    // Fails event n=1 while failing is set; records the order in which events are delivered
+    static class FlakyHandler implements OutboxHandler {
+        static final String TYPE = "TestFlaky";
+        final List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean failing = true;
+
+        @Override
+        public Set<String> eventTypes() {
+            return Set.of(TYPE);
+        }
+
+        @Override
+        public void handle(OutboxEvent event, JsonNode payload) {
+            int n = payload.get("n").asInt();
+            if (failing && n == 1) throw new IllegalStateException("downstream unavailable");
+            delivered.add(n);
+        }
+    }
+
+    @Test
+    void orderSideEffectsRunFromTheOutbox() throws Exception {
+        Customer customer = customer("outbox");
+        Cart cart = cartRepository.save(new Cart(customer));
+
+        Product product = new Product();
+        product.setName("Banig");
+        product.setPrice(10.0);
+        product.setStock(10);
+        productRepository.save(product);
+        Long orderedLine = addLine(cart, customer.getId(), 2);
+
+        Order order = orderService.placeOrderFromCart(customer.getId(), "GCash");
+        // A concurrent checkout of the same lines cannot move the watermark again (OrderService then rolls back)
+        Long customerId = customer.getId();
+        assertEquals(0, (int) transactionTemplate.execute(s -> cartRepository.markCheckedOut(customerId, orderedLine)));
+
+        // Committed with the order; nothing delivered yet
+        assertEquals(1, outboxEventRepository.count());
+        assertEquals(0, count("SELECT COUNT(*) FROM notification"));
+        assertEquals(1, count("SELECT COUNT(*) FROM cart_item"));
+
+        // Added after checkout: must survive the cleanup and be the only line a second checkout sees
+        addLine(cart, customer.getId(), 1);
+        assertEquals(1, cartItemRepository.findCheckoutLines(customer.getId()).size());
+
+        dispatcher.dispatchOnce();
+
+        OutboxEvent event = outboxEventRepository.findAll().get(0);
+        assertEquals(OutboxEvent.Status.DONE, event.getStatus());
+        assertEquals(order.getId(), event.getAggregateId());
+        assertEquals(1, count("SELECT COUNT(*) FROM notification"));
+        assertEquals(1, count("SELECT COUNT(*) FROM cart_item"));
+        assertEquals(10.0, cartRepository.findById(cart.getId()).orElseThrow().getTotalAmount());
+
+        orderService.updateStatus(order.getId(), "Shipped");
+        dispatcher.dispatchOnce();
+        assertEquals(2, count("SELECT COUNT(*) FROM notification"));
+    }
+
+    @Test
+    void laterEventsOfAnAggregateWaitForAnEarlierFailedOne() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.publish(FlakyHandler.TYPE, 900L, Map.of("n", 1));
+            outboxService.publish(FlakyHandler.TYPE, 900L, Map.of("n", 2));
+            outboxService.publish(FlakyHandler.TYPE, 901L, Map.of("n", 3));
+        });
+        dispatcher.dispatchOnce();
+
+        // The other aggregate is unaffected; n=2 went back unattempted, due together with n=1
+        assertEquals(List.of(3), flakyHandler.delivered);
+        List<Map<String, Object>> held = jdbcTemplate.queryForList(
+                "SELECT status, attempts, available_at FROM outbox_event WHERE aggregate_id = 900 ORDER BY id");
+        assertEquals("PENDING", held.get(0).get("status"));
+        assertEquals(1, ((Number) held.get(0).get("attempts")).intValue());
+        assertEquals("PENDING", held.get(1).get("status"));
+        assertEquals(0, ((Number) held.get(1).get("attempts")).intValue());
+        assertEquals(held.get(0).get("available_at"), held.get(1).get("available_at"));
+
+        // Published after the failure and due now, but still queued behind n=1
+        transactionTemplate.executeWithoutResult(status -> outboxService.publish(FlakyHandler.TYPE, 900L, Map.of("n", 4)));
+        dispatcher.dispatchOnce();
+        assertEquals(List.of(3), flakyHandler.delivered);
+
+        flakyHandler.failing = false;
+        jdbcTemplate.update("UPDATE outbox_event SET available_at = ? WHERE status = 'PENDING'",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        dispatcher.dispatchOnce();
+        assertEquals(List.of(3, 1, 2, 4), flakyHandler.delivered);
+    }
+
+    private Long addLine(Cart cart, Long customerId, int quantity) {
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setCustomerId(customerId);
+        item.setProductName("Banig");
+        item.setQuantity(quantity);
+        item.setUnitPrice(10.0);
+        item.setAmount(10.0 * quantity);
+        return cartItemRepository.save(item).getId();
+    }
+}
@@ -0,0 +1,167 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.Cart;
+import com.PinoyHeritage.Backend.entity.CartItem;
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.entity.Product;
+import com.PinoyHeritage.Backend.repository.CartItemRepository;
+import com.PinoyHeritage.Backend.repository.CartRepository;
+import com.PinoyHeritage.Backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checkout leaves the payment Pending; the ORDER_PLACED event hands it to the processor, whose
+ * outcome decides the order's status (and, on failure, returns the stock).
+ */
+@Import({PaymentProcessor.class, PaymentHandler.class, StubPaymentGateway.class})
+@TestPropertySource(properties = {
+        "app.payment.stub.latency-ms=0",
+        "app.payment.stub.latency-jitter-ms=0"
+})
+class PaymentProcessorTest extends OrderFlowTestSupport {
+
+    @Autowired private OrderService orderService;
+    @Autowired private OutboxDispatcher dispatcher;
+    @Autowired private InventoryService inventoryService;
+    @Autowired private CatalogCache catalogCache;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private CartItemRepository cartItemRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void approvedPaymentMarksTheOrderPaid() throws Exception {
+        Order order = checkout("approved", 3);
+        assertEquals("Pending", paymentStatus(order.getId()));
+
+        dispatcher.dispatchOnce();
+        waitFor(order.getId(), "Completed");
+
+        assertEquals("Paid", orderStatus(order.getId()));
+        assertEquals(7, stock("approved"));
+    }
+
+    @Test
+    void failingGatewayRetriesThenCancelsAndReturnsStock() {
+        Order order = checkout("failing", 4);
+        PaymentProcessor processor = processor(new StubPaymentGateway(0, 0, 1.0, 0.0), 2, 10);
+        Long paymentId = paymentId(order.getId());
+
+        processor.attempt(paymentId);
+        assertEquals("Pending", paymentStatus(order.getId()));
+        assertEquals("Pending", orderStatus(order.getId()));
+
+        processor.attempt(paymentId);
+        assertEquals("Failed", paymentStatus(order.getId()));
+        assertEquals("Cancelled", orderStatus(order.getId()));
+        assertEquals(10, stock("failing"));
+
+        // Settled: a late or repeated attempt changes nothing
+        processor.attempt(paymentId);
+        assertEquals(2, attempts(order.getId()));
+    }
+
+    @Test
+    void declineIsNotRetried() {
+        Order order = checkout("declined", 1);
+        PaymentProcessor processor = processor(new StubPaymentGateway(0, 0, 0.0, 1.0), 5, 10);
+
+        processor.attempt(paymentId(order.getId()));
+
+        assertEquals("Failed", paymentStatus(order.getId()));
+        assertEquals(1, attempts(order.getId()));
+        assertEquals("Cancelled", orderStatus(order.getId()));
+        assertEquals(10, stock("declined"));
+    }
+
+    @Test
+    void orderCancelledBeforeTheChargeIsNotCharged() {
+        Order order = checkout("cancelled", 2);
+        orderService.updateStatus(order.getId(), "Cancelled");
+        PaymentProcessor processor = processor(new StubPaymentGateway(0, 0, 0.0, 0.0), 5, 10);
+
+        processor.attempt(paymentId(order.getId()));
+
+        // Never claimed, so the gateway was not called; the poller won't offer it again
+        assertEquals(0, attempts(order.getId()));
+        assertEquals("Failed", paymentStatus(order.getId()));
+        assertEquals("Cancelled", orderStatus(order.getId()));
+    }
+
+    @Test
+    void openBreakerStopsCallingTheGateway() {
+        Order first = checkout("breaker", 1);
+        Order second = checkout("breaker2", 1);
+        PaymentProcessor processor = processor(new StubPaymentGateway(0, 0, 1.0, 0.0), 5, 1);
+
+        processor.attempt(paymentId(first.getId()));
+        processor.attempt(paymentId(second.getId()));
+
+        assertEquals(1, attempts(first.getId()));
+        // Refused before being claimed: still Pending, no attempt used
+        assertEquals(0, attempts(second.getId()));
+        assertEquals("Pending", paymentStatus(second.getId()));
+    }
+
+    private PaymentProcessor processor(PaymentGateway gateway, int maxAttempts, int breakerThreshold) {
+        return new PaymentProcessor(jdbcTemplate, transactionTemplate, gateway, orderService, inventoryService,
+                catalogCache, 2, 100, 2000, maxAttempts, 0, 100, breakerThreshold, 60_000);
+    }
+
+    private Order checkout(String name, int quantity) {
+        Customer customer = customer(name);
+        Cart cart = cartRepository.save(new Cart(customer));
+
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(25.0);
+        product.setStock(10);
+        productRepository.save(product);
+
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setCustomerId(customer.getId());
+        item.setProductName(name);
+        item.setQuantity(quantity);
+        item.setUnitPrice(25.0);
+        item.setAmount(25.0 * quantity);
+        cartItemRepository.save(item);
+
+        return orderService.placeOrderFromCart(customer.getId(), "GCash");
+    }
+
+    private void waitFor(Long orderId, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!status.equals(paymentStatus(orderId)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(status, paymentStatus(orderId));
+    }
+
+    private Long paymentId(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM payment WHERE order_id = ?", Long.class, orderId);
+    }
+
+    private String paymentStatus(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM payment WHERE order_id = ?", String.class, orderId);
+    }
+
+    private int attempts(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM payment WHERE order_id = ?", Integer.class, orderId);
+    }
+
+    private String orderStatus(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM order_table WHERE id = ?", String.class, orderId);
+    }
+
+    private int stock(String product) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE name = ?", Integer.class, product);
+    }
+}
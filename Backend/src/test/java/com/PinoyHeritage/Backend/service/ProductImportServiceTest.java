@@ -0,0 +1,99 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.dto.ImportReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductImportService.class, CatalogCache.class, FlashSaleInventory.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        // INSERT IGNORE
+        "spring.datasource.url=jdbc:h2:mem:productimport;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never",
+        "app.import.chunk-size=10"
+})
+class ProductImportServiceTest {
+
+    @Autowired private ProductImportService importService;
+    @Autowired private FlashSaleInventory flashSale;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void badRowInChunkDoesNotLoseTheCategoriesTheChunkCreated() throws Exception {
+        String tooLong = "x".repeat(300);
+        String file = String.join("\n",
+                "{\"name\":\"Banig Mat\",\"price\":450,\"stock\":5,\"category\":\"Weaves\"}",
+                // Fails in the database (description is VARCHAR(255)), so the whole chunk rolls back
+                "{\"name\":\"Broken Mat\",\"price\":300,\"stock\":1,\"category\":\"Weaves\",\"description\":\"" + tooLong + "\"}",
+                "{\"name\":\"Bilao\",\"price\":120,\"stock\":9,\"category\":\"Baskets\"}",
+                "{\"name\":\"Salakot\",\"price\":250,\"stock\":3,\"category\":\"weaves\"}");
+
+        ImportReport report = importService.importProducts(stream(file), ProductImportService.Format.JSONL);
+
+        assertEquals(4, report.getRowsRead());
+        assertEquals(3, report.getInserted());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertEquals(2, report.getCategoriesCreated());
+        assertEquals(2, count("SELECT COUNT(*) FROM category"));
+        // Every imported product points at a category that exists
+        assertEquals(3, count("SELECT COUNT(*) FROM product p JOIN category c ON c.id = p.category_id"));
+        assertEquals(2, count("SELECT COUNT(*) FROM product p JOIN category c ON c.id = p.category_id WHERE c.name = 'Weaves'"));
+
+        // A second run reuses the committed categories
+        ImportReport again = importService.importProducts(stream(file), ProductImportService.Format.JSONL);
+        assertEquals(0, again.getCategoriesCreated());
+        assertEquals(3, again.getUpdated());
+    }
+
+    @Test
+    void importedStockOfAFlashSaleProductBecomesItsHotStock() throws Exception {
+        importService.importProducts(stream("{\"name\":\"Hot Banig\",\"price\":450,\"stock\":10}"),
+                ProductImportService.Format.JSONL);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM product WHERE name = 'Hot Banig'", Long.class);
+        flashSale.enable(id);
+        try {
+            assertEquals(FlashSaleInventory.Outcome.RESERVED, flashSale.tryReserve(id, 3));
+
+            ImportReport report = importService.importProducts(
+                    stream("{\"name\":\"Hot Banig\",\"stock\":50}"), ProductImportService.Format.JSONL);
+            assertEquals(1, report.getUpdated());
+
+            // Still hot, counting down from the imported figure; the row agrees once handed back
+            assertTrue(flashSale.isHot(id));
+            assertEquals(50, flashSale.available(id));
+            flashSale.disable(id);
+            assertEquals(50, count("SELECT stock FROM product WHERE id = " + id));
+        } finally {
+            flashSale.disable(id);
+        }
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
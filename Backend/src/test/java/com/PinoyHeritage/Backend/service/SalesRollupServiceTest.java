@@ -0,0 +1,109 @@
+package com.PinoyHeritage.Backend.service;
+
+import com.PinoyHeritage.Backend.entity.Customer;
+import com.PinoyHeritage.Backend.entity.Order;
+import com.PinoyHeritage.Backend.entity.SalesRollup;
+import com.PinoyHeritage.Backend.repository.CustomerRepository;
+import com.PinoyHeritage.Backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SalesRollupService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        // The rollups use MySQL upsert syntax
+        "spring.datasource.url=jdbc:h2:mem:rollup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class SalesRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+    @Autowired private SalesRollupService salesRollupService;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void incrementalUpdatesMatchBackfill() throws Exception {
+        Customer customer = new Customer();
+        customer.setUsername("rollup");
+        customer.setPassword("secret");
+        customer.setEmail("rollup@example.com");
+        customer = customerRepository.save(customer);
+
+        Long first = order(customer, DAY.atTime(9, 15), 2, 50.0);
+        Long second = order(customer, DAY.atTime(9, 40), 1, 50.0);
+        Long third = order(customer, DAY.atTime(13, 5), 3, 50.0);
+
+        transactionTemplate.executeWithoutResult(s -> {
+            salesRollupService.orderPlaced(first);
+            salesRollupService.orderPlaced(second);
+            salesRollupService.orderPlaced(third);
+            // Redelivered event and a cancellation
+            salesRollupService.orderPlaced(first);
+            salesRollupService.statusChanged(second, "Cancelled");
+            salesRollupService.statusChanged(second, "Cancelled");
+        });
+        assertTotals();
+
+        jdbcTemplate.update("DELETE FROM sales_rollup");
+        jdbcTemplate.update("DELETE FROM sales_rollup_order");
+        jdbcTemplate.update("UPDATE order_table SET status = 'Cancelled' WHERE id = ?", second);
+        salesRollupService.startBackfill(DAY, DAY);
+        while ("RUNNING".equals(salesRollupService.backfillStatus().get("state"))) Thread.sleep(20);
+        assertEquals("DONE", salesRollupService.backfillStatus().get("state"));
+        assertTotals();
+    }
+
+    private void assertTotals() {
+        List<Map<String, Object>> days = salesRollupService.timeseries(SalesRollup.Grain.DAY,
+                DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+        assertEquals(1, days.size());
+        assertEquals(2L, days.get(0).get("orders"));
+        assertEquals(5L, days.get(0).get("units"));
+        assertEquals(250.0, days.get(0).get("revenue"));
+
+        List<Map<String, Object>> hours = salesRollupService.timeseries(SalesRollup.Grain.HOUR,
+                DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+        assertEquals(2, hours.size());
+        assertEquals(100.0, hours.get(0).get("revenue"));
+
+        List<Map<String, Object>> top = salesRollupService.top(SalesRollup.Dimension.PRODUCT, DAY, DAY, 10);
+        assertEquals(1, top.size());
+        assertEquals(2L, top.get(0).get("orders"));
+    }
+
+    private Long order(Customer customer, LocalDateTime createdAt, int quantity, double unitPrice) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setCreatedAt(createdAt);
+        order.setTotalAmount(quantity * unitPrice);
+        order = orderRepository.save(order);
+        jdbcTemplate.update("INSERT INTO product_order (order_id, product_id, quantity, unit_price) VALUES (?, NULL, ?, ?)",
+                order.getId(), quantity, unitPrice);
+        return order.getId();
+    }
+}
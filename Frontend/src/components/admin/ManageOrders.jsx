@@ -61,11 +61,17 @@ const OrdersSection = () => {
   // 3. Handler to update status (Uses ID to find correct item)
   const handleStatusChange = async (id, newStatus) => {
     try {
-      await fetch(`http://localhost:8080/api/orders/${id}/status`, {
+      const res = await fetch(`http://localhost:8080/api/orders/${id}/status`, {
         method: "PUT",
         headers: { "Content-Type": "application/json" },
         body: JSON.stringify({ status: newStatus }),
       });
+      // Disallowed transitions (e.g. Delivered -> Pending) are rejected; keep the current status
+      if (!res.ok) {
+        const body = await res.json().catch(() => ({}));
+        alert(body.error || "Could not update order status");
+        return;
+      }
 
       const updatedOrders = orders.map((order) =>
         order.id === id ? { ...order, status: newStatus } : order
@@ -104,6 +110,7 @@ const OrdersSection = () => {
         >
           <option value="">Delivery Status</option> {/* Empty value resets filter */}
           <option value="Pending">Pending</option>
+          <option value="Paid">Paid</option>
           <option value="Processing">Processing</option>
           <option value="Shipped">Shipped</option>
           <option value="Delivered">Delivered</option>
@@ -147,6 +154,7 @@ const OrdersSection = () => {
                     onChange={(e) => handleStatusChange(order.id, e.target.value)}
                   >
                     <option value="Pending">Pending</option>
+                    <option value="Paid">Paid</option>
                     <option value="Processing">Processing</option>
                     <option value="Shipped">Shipped</option>
                     <option value="Delivered">Delivered</option>
@@ -41,6 +41,7 @@ const Orders = () => {
   const getStatusColor = (status) => {
     const statusMap = {
       "Pending": "status-pending",
+      "Paid": "status-paid",
       "Processing": "status-processing",
       "Shipped": "status-shipped",
       "Delivered": "status-delivered",
@@ -52,6 +53,7 @@ const Orders = () => {
   const getStatusIcon = (status) => {
     const iconMap = {
       "Pending": "⏳",
+      "Paid": "💳",
       "Processing": "📦",
       "Shipped": "🚚",
       "Delivered": "✅",